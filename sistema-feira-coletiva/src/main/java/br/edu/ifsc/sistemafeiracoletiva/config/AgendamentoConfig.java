@@ -0,0 +1,13 @@
+package br.edu.ifsc.sistemafeiracoletiva.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas periódicas (@Scheduled) da aplicação,
+ * como a descarga das reservas de estoque feitas em memória e o avanço das etapas das publicações.
+ */
+@Configuration
+@EnableScheduling
+public class AgendamentoConfig {
+}
@@ -0,0 +1,47 @@
+package br.edu.ifsc.sistemafeiracoletiva.config;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt que considera desatualizado todo hash com custo diferente do configurado.
+ * O custo fica gravado no próprio hash ($2a$<custo>$...), então hashes antigos continuam
+ * válidos e são regravados com o custo alvo no próximo login.
+ */
+public class BCryptCustoAdaptavelEncoder extends BCryptPasswordEncoder {
+
+    private final int custo;
+
+    public BCryptCustoAdaptavelEncoder(int custo) {
+        super(custo);
+        this.custo = custo;
+    }
+
+    /**
+     * Indica se o hash deve ser regravado (custo diferente do alvo, para mais ou para menos).
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int custoAtual = extrairCusto(encodedPassword);
+        return custoAtual > 0 && custoAtual != custo;
+    }
+
+    /**
+     * Lê o fator de custo de um hash BCrypt.
+     * @return custo do hash, ou -1 se o valor não for um hash BCrypt.
+     */
+    public static int extrairCusto(String encodedPassword) {
+        // Formato: $2a$10$<salt+hash>
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        int inicio = encodedPassword.indexOf('$', 1) + 1;
+        if (inicio <= 0 || inicio + 2 > encodedPassword.length()) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(inicio, inicio + 2));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
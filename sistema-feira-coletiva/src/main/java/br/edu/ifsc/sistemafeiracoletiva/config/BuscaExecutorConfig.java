@@ -0,0 +1,35 @@
+package br.edu.ifsc.sistemafeiracoletiva.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuração da thread que atualiza o índice de busca (BuscaService).
+ * Uma única thread lê o banco e aplica no índice, na ordem: uma leitura nunca é aplicada
+ * depois de outra mais nova. Alterações que chegam durante uma atualização são agrupadas
+ * pelo serviço, então a fila fica com no máximo uma tarefa pendente.
+ */
+@Configuration
+public class BuscaExecutorConfig {
+
+    @Bean
+    public ThreadPoolExecutor buscaExecutor() {
+        ThreadFactory fabrica = r -> {
+            Thread t = new Thread(r, "busca-indice");
+            t.setDaemon(true);
+            return t;
+        };
+
+        return new ThreadPoolExecutor(
+                1, 1,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                fabrica
+        );
+    }
+}
@@ -0,0 +1,34 @@
+package br.edu.ifsc.sistemafeiracoletiva.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuração da thread que remonta as seções do snapshot do catálogo (CatalogoSnapshotService).
+ * As remontagens saem da thread que confirmou a escrita; pedidos repetidos para a mesma seção
+ * são agrupados pelo serviço, então a fila fica com no máximo uma tarefa por seção.
+ */
+@Configuration
+public class CatalogoExecutorConfig {
+
+    @Bean
+    public ThreadPoolExecutor catalogoExecutor() {
+        ThreadFactory fabrica = r -> {
+            Thread t = new Thread(r, "catalogo-snapshot");
+            t.setDaemon(true);
+            return t;
+        };
+
+        return new ThreadPoolExecutor(
+                1, 1,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                fabrica
+        );
+    }
+}
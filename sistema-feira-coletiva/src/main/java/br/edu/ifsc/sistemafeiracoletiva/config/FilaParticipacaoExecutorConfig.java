@@ -0,0 +1,35 @@
+package br.edu.ifsc.sistemafeiracoletiva.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuração da thread que grava as participações recebidas pela fila.
+ * Uma única thread de escrita: os lotes de cada publicação são gravados em ordem de chegada,
+ * e o pico de participações ocupa uma conexão do pool em vez de uma por requisição.
+ */
+@Configuration
+public class FilaParticipacaoExecutorConfig {
+
+    @Bean
+    public ThreadPoolExecutor filaParticipacaoExecutor() {
+        ThreadFactory fabrica = r -> {
+            Thread t = new Thread(r, "fila-participacao");
+            t.setDaemon(true);
+            return t;
+        };
+
+        return new ThreadPoolExecutor(
+                1, 1,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1),
+                fabrica,
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+}
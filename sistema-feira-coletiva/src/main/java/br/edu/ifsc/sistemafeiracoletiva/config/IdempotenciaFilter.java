@@ -0,0 +1,212 @@
+package br.edu.ifsc.sistemafeiracoletiva.config;
+
+import br.edu.ifsc.sistemafeiracoletiva.service.IdempotenciaService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Optional;
+
+/**
+ * Filtro das requisições POST em /api/** enviadas com o cabeçalho Idempotency-Key.
+ * A primeira requisição com a chave é executada e sua resposta guardada (IdempotenciaService);
+ * reenvios com a mesma chave recebem a resposta original sem executar a operação de novo.
+ * Respostas 5xx não são guardadas, para que o cliente possa tentar outra vez.
+ * O corpo da requisição é lido antes (até idempotencia.corpo-max) para comparar seu hash nos reenvios:
+ * a mesma chave com outro corpo recebe 422.
+ */
+@Slf4j
+@Component // Registrado automaticamente na cadeia de filtros do servlet
+public class IdempotenciaFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO = "Idempotency-Key";
+    public static final String CABECALHO_REPETIDA = "Idempotent-Replayed"; // Indica resposta devolvida da chave
+    private static final int TAMANHO_MAX_CHAVE = 255;
+
+    private final IdempotenciaService service;
+
+    /**
+     * Tamanho máximo (bytes) do corpo de uma requisição com Idempotency-Key (lido em memória para o hash).
+     * Defina no application.properties:
+     * idempotencia.corpo-max=1048576
+     */
+    @Value("${idempotencia.corpo-max:1048576}")
+    private int corpoMax;
+
+    @Autowired
+    public IdempotenciaFilter(IdempotenciaService service) {
+        this.service = service;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || !request.getRequestURI().startsWith(request.getContextPath() + "/api/")
+                || request.getHeader(CABECALHO) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String chave = request.getHeader(CABECALHO).trim();
+        if (chave.isEmpty() || chave.length() > TAMANHO_MAX_CHAVE) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                    "Idempotency-Key deve ter entre 1 e " + TAMANHO_MAX_CHAVE + " caracteres.");
+            return;
+        }
+
+        // A mesma chave em outro endpoint ou de outro usuário é outra operação
+        Principal usuario = request.getUserPrincipal();
+        String escopo = request.getMethod() + " " + request.getRequestURI() + " " + (usuario != null ? usuario.getName() : "");
+        String id = service.identificar(escopo, chave);
+
+        byte[] corpo = request.getInputStream().readNBytes(corpoMax + 1);
+        if (corpo.length > corpoMax) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                    "Corpo maior que " + corpoMax + " bytes em requisição com Idempotency-Key.");
+            return;
+        }
+        String hashCorpo = service.hashCorpo(corpo);
+
+        Optional<IdempotenciaService.Resposta> guardada;
+        try {
+            guardada = service.buscarOuIniciar(id, hashCorpo);
+        } catch (ResponseStatusException e) {
+            // 409: a original ainda está em andamento; 422: a chave já foi usada com outro corpo
+            response.sendError(e.getStatusCode().value(), e.getReason());
+            return;
+        }
+        if (guardada.isPresent()) {
+            escrever(response, guardada.get());
+            return;
+        }
+
+        ContentCachingResponseWrapper resposta = new ContentCachingResponseWrapper(response);
+        boolean concluida = false;
+        try {
+            filterChain.doFilter(new CorpoLido(request, corpo), resposta);
+            concluida = guardar(id, hashCorpo, request, resposta);
+        } finally {
+            if (!concluida) {
+                service.liberar(id);
+            }
+            resposta.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Guarda a resposta da chave. Uma falha ao gravar não afeta a resposta enviada ao cliente.
+     * @return true se a resposta foi guardada.
+     */
+    private boolean guardar(String id, String hashCorpo, HttpServletRequest request, ContentCachingResponseWrapper resposta) {
+        if (request.isAsyncStarted() || resposta.getStatus() >= 500) {
+            return false;
+        }
+        try {
+            service.concluir(id, hashCorpo, new IdempotenciaService.Resposta(resposta.getStatus(), resposta.getContentType(),
+                    resposta.getHeader(HttpHeaders.LOCATION), resposta.getContentAsByteArray()));
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível guardar a resposta da Idempotency-Key: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void escrever(HttpServletResponse response, IdempotenciaService.Resposta guardada) throws IOException {
+        response.setStatus(guardada.status());
+        if (guardada.contentType() != null) {
+            response.setContentType(guardada.contentType());
+        }
+        if (guardada.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, guardada.location());
+        }
+        response.setHeader(CABECALHO_REPETIDA, "true");
+        if (guardada.corpo() != null) {
+            response.setContentLength(guardada.corpo().length);
+            response.getOutputStream().write(guardada.corpo());
+        }
+    }
+
+    /**
+     * Requisição com o corpo já lido pelo filtro, entregue de novo ao controller.
+     */
+    private static class CorpoLido extends HttpServletRequestWrapper {
+
+        private final byte[] corpo;
+
+        CorpoLido(HttpServletRequest request, byte[] corpo) {
+            super(request);
+            this.corpo = corpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(corpo);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(corpo), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return corpo.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return corpo.length;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package br.edu.ifsc.sistemafeiracoletiva.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuração do executor das importações em massa (NDJSON/CSV).
+ * Cada importação ocupa uma conexão por bloco gravado: o pool é pequeno e a fila limitada,
+ * e importações excedentes são rejeitadas na hora em vez de se acumularem.
+ */
+@Configuration
+public class ImportacaoExecutorConfig {
+
+    /**
+     * Quantidade de importações processadas ao mesmo tempo.
+     * Defina no application.properties:
+     * importacao.threads=2
+     */
+    @Value("${importacao.threads:2}")
+    private int threads;
+
+    /**
+     * Quantidade máxima de importações aguardando na fila.
+     * Defina no application.properties:
+     * importacao.fila-max=10
+     */
+    @Value("${importacao.fila-max:10}")
+    private int filaMax;
+
+    @Bean
+    public ThreadPoolExecutor importacaoExecutor(MeterRegistry registry) {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory fabrica = r -> {
+            Thread t = new Thread(r, "importacao-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(filaMax),
+                fabrica,
+                new ThreadPoolExecutor.AbortPolicy() // Fila cheia: rejeita na hora (503)
+        );
+
+        Gauge.builder("importacao.fila", executor, e -> e.getQueue().size())
+                .description("Importações aguardando processamento")
+                .register(registry);
+        Gauge.builder("importacao.ativas", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Importações em processamento")
+                .register(registry);
+
+        return executor;
+    }
+}
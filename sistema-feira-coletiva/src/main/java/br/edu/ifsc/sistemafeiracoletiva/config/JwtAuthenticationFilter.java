@@ -1,10 +1,12 @@
 package br.edu.ifsc.sistemafeiracoletiva.config;
 
-import br.edu.ifsc.sistemafeiracoletiva.model.domain.Cliente;
-import br.edu.ifsc.sistemafeiracoletiva.service.ClienteService;
+import br.edu.ifsc.sistemafeiracoletiva.dto.ClienteAutenticadoDTO;
 import br.edu.ifsc.sistemafeiracoletiva.service.JwtService;
+import br.edu.ifsc.sistemafeiracoletiva.service.PrincipalCacheService;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -15,6 +17,8 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Filtro responsável por interceptar requisições e validar o JWT enviado no cabeçalho Authorization.
@@ -24,12 +28,12 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final ClienteService clienteService;
+    private final PrincipalCacheService principalCache;
 
     @Autowired
-    public JwtAuthenticationFilter(JwtService jwtService, ClienteService clienteService) {
+    public JwtAuthenticationFilter(JwtService jwtService, PrincipalCacheService principalCache) {
         this.jwtService = jwtService;
-        this.clienteService = clienteService;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -48,23 +52,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             token = authHeader.substring(7); // Remove "Bearer " do início
 
-            // Valida o token
-            if (jwtService.validateToken(token)) {
+            // Verifica o token uma única vez e obtém suas claims
+            Optional<Claims> claims = jwtService.verificarToken(token);
+            if (claims.isPresent()) {
                 // Extrai o email do token
-                email = jwtService.extractEmail(token);
+                email = claims.get().getSubject();
 
                 // Verifica se o usuário ainda não está autenticado no contexto
                 if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                    // Busca o cliente no banco
-                    Cliente cliente = clienteService.buscarClientePorEmail(email);
+                    // Monta o principal a partir das claims (o banco só é consultado para tokens desatualizados)
+                    ClienteAutenticadoDTO principal = principalCache.resolver(claims.get());
+                    if (principal == null) {
+                        // Conta removida: segue sem autenticar
+                        filterChain.doFilter(request, response);
+                        return;
+                    }
 
                     // Cria o objeto de autenticação para o contexto de segurança
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(
-                                    cliente, // principal (objeto autenticado)
-                                    null,    // credentials
-                                    null     // authorities (caso use perfis, adicione aqui)
+                                    principal, // principal (objeto autenticado)
+                                    null,      // credentials
+                                    List.of(new SimpleGrantedAuthority("ROLE_" + principal.getRole()))
                             );
 
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -0,0 +1,68 @@
+package br.edu.ifsc.sistemafeiracoletiva.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuração do executor dedicado à verificação de senha no login.
+ * O BCrypt é limitado por CPU: o pool tem tamanho fixo e fila limitada,
+ * e requisições excedentes são rejeitadas imediatamente em vez de ocupar threads do Tomcat.
+ */
+@Configuration
+public class LoginExecutorConfig {
+
+    /**
+     * Quantidade de threads de verificação (0 = número de núcleos).
+     * Defina no application.properties:
+     * auth.login.threads=0
+     */
+    @Value("${auth.login.threads:0}")
+    private int threads;
+
+    /**
+     * Quantidade máxima de logins aguardando na fila.
+     * Defina no application.properties:
+     * auth.login.fila-max=64
+     */
+    @Value("${auth.login.fila-max:64}")
+    private int filaMax;
+
+    @Bean
+    public ThreadPoolExecutor loginExecutor(MeterRegistry registry) {
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory fabrica = r -> {
+            Thread t = new Thread(r, "login-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                tamanho, tamanho,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(filaMax),
+                fabrica,
+                new ThreadPoolExecutor.AbortPolicy() // Fila cheia: rejeita na hora (503)
+        );
+
+        // Métricas de saturação do pipeline de login
+        Gauge.builder("auth.login.fila", executor, e -> e.getQueue().size())
+                .description("Logins aguardando verificação de senha")
+                .register(registry);
+        Gauge.builder("auth.login.ativos", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Verificações de senha em execução")
+                .register(registry);
+
+        return executor;
+    }
+}
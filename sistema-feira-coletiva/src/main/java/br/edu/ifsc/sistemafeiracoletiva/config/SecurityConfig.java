@@ -1,8 +1,9 @@
 package br.edu.ifsc.sistemafeiracoletiva.config;
 
-import br.edu.ifsc.sistemafeiracoletiva.service.ClienteService;
 import br.edu.ifsc.sistemafeiracoletiva.service.JwtService;
+import br.edu.ifsc.sistemafeiracoletiva.service.PrincipalCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,11 +11,13 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 /**
  * Configuração completa de segurança para JWT.
  */
@@ -30,16 +33,22 @@ public class SecurityConfig {
 
 
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtService jwtService, ClienteService clienteService) {
-        return new JwtAuthenticationFilter(jwtService, clienteService);
+    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtService jwtService, PrincipalCacheService principalCache) {
+        return new JwtAuthenticationFilter(jwtService, principalCache);
     }
 
     /**
      * Bean de PasswordEncoder (já utilizado no AuthService e ClienteService).
+     * Encoder delegante: novos hashes são gravados como {bcrypt}$2a$<custo>$...,
+     * hashes antigos (sem prefixo) continuam aceitos e o AuthService regrava no login
+     * todo hash cujo custo difere de security.bcrypt.custo.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.custo:10}") int custo) {
+        BCryptCustoAdaptavelEncoder bcrypt = new BCryptCustoAdaptavelEncoder(custo);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt); // Hashes gravados antes do prefixo {bcrypt}
+        return encoder;
     }
 
     /**
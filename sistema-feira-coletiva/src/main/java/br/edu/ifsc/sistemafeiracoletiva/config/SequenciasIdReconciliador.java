@@ -0,0 +1,55 @@
+package br.edu.ifsc.sistemafeiracoletiva.config;
+
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.GeradorIds;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Ajusta a tabela "sequencias_id" antes da aplicação atender requisições.
+ * As tabelas já tinham IDs gerados por AUTO_INCREMENT; cada linha do gerador precisa começar
+ * acima do maior ID existente, senão o primeiro bloco reservado colidiria com registros antigos.
+ */
+@Slf4j
+@Component
+public class SequenciasIdReconciliador {
+
+    // Mesmos valores de pkColumnValue nos @TableGenerator das entidades
+    private static final List<String> TABELAS = List.of(
+            "clientes", "vendedores", "categorias", "locais_de_retirada", "ofertas",
+            "produtos", "publicacoes", "participantes", "pedidos"
+    );
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory; // Garante que o Hibernate já criou/atualizou as tabelas
+
+    @PostConstruct
+    void reconciliar() {
+        for (String tabela : TABELAS) {
+            Long maiorId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + tabela, Long.class);
+            // Margem de um bloco: vale tanto se o valor gravado for o início quanto o fim do próximo bloco
+            long minimo = maiorId + GeradorIds.TAMANHO_BLOCO + 1;
+
+            int atualizadas = jdbc.update("UPDATE " + GeradorIds.TABELA + " SET " + GeradorIds.COLUNA_VALOR + " = ?"
+                            + " WHERE " + GeradorIds.COLUNA_ENTIDADE + " = ? AND " + GeradorIds.COLUNA_VALOR + " < ?",
+                    minimo, tabela, minimo);
+            Integer existentes = jdbc.queryForObject("SELECT COUNT(*) FROM " + GeradorIds.TABELA
+                    + " WHERE " + GeradorIds.COLUNA_ENTIDADE + " = ?", Integer.class, tabela);
+            if (existentes == 0) {
+                jdbc.update("INSERT INTO " + GeradorIds.TABELA + " (" + GeradorIds.COLUNA_ENTIDADE + ", "
+                        + GeradorIds.COLUNA_VALOR + ") VALUES (?, ?)", tabela, minimo);
+                log.info("Gerador de IDs de {} iniciado em {}.", tabela, minimo);
+            } else if (atualizadas > 0) {
+                log.info("Gerador de IDs de {} avançado para {}.", tabela, minimo);
+            }
+        }
+    }
+}
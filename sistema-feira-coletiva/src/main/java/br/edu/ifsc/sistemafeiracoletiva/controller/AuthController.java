@@ -3,10 +3,13 @@ package br.edu.ifsc.sistemafeiracoletiva.controller;
 import br.edu.ifsc.sistemafeiracoletiva.dto.LoginRequestDTO;
 import br.edu.ifsc.sistemafeiracoletiva.dto.LoginResponseDTO;
 import br.edu.ifsc.sistemafeiracoletiva.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Controller responsável por endpoints de autenticação (/auth).
  */
@@ -21,10 +24,13 @@ public class AuthController {
     /**
      * Endpoint para login do cliente.
      * Recebe email e senha, retorna token JWT.
+     * A verificação da senha roda no executor de login, liberando a thread do Tomcat;
+     * responde 429 quando o email/IP excede a taxa e 503 quando a fila está cheia.
      */
     @PostMapping("/login")
-    public ResponseEntity<LoginResponseDTO> login(@RequestBody LoginRequestDTO loginRequest) {
-        String token = authService.autenticarCliente(loginRequest.getEmail(), loginRequest.getSenha());
-        return ResponseEntity.ok(new LoginResponseDTO(token));
+    public CompletableFuture<ResponseEntity<LoginResponseDTO>> login(@RequestBody LoginRequestDTO loginRequest,
+                                                                     HttpServletRequest request) {
+        return authService.autenticarClienteAsync(loginRequest.getEmail(), loginRequest.getSenha(), request.getRemoteAddr())
+                .thenApply(token -> ResponseEntity.ok(new LoginResponseDTO(token)));
     }
 }
@@ -0,0 +1,37 @@
+package br.edu.ifsc.sistemafeiracoletiva.controller;
+
+import br.edu.ifsc.sistemafeiracoletiva.dto.BuscaOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.service.BuscaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller REST da busca textual de produtos.
+ */
+@RestController
+@RequestMapping("/api/busca")
+@CrossOrigin(origins = "http://localhost:5500")
+public class BuscaController {
+
+    @Autowired
+    private BuscaService service;
+
+    /**
+     * Busca produtos por nome, categoria e título/descrição da oferta (sem acentos, por prefixo).
+     * @param q termos da busca (opcional; vazio lista todos os produtos)
+     * @param categoria ID da categoria para filtrar (opcional)
+     * @param unidade unidade de medida para filtrar: KG, ML ou UN (opcional)
+     * @param vendedor ID do vendedor para filtrar (opcional)
+     * @param limit quantidade máxima de resultados (opcional, padrão 20, máximo 100)
+     * @return resultados por relevância com as contagens por categoria, unidade e vendedor
+     */
+    @GetMapping
+    public ResponseEntity<BuscaOutputDTO> buscar(@RequestParam(required = false) String q,
+                                                 @RequestParam(required = false) Integer categoria,
+                                                 @RequestParam(required = false) String unidade,
+                                                 @RequestParam(required = false) Integer vendedor,
+                                                 @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(service.buscar(q, categoria, unidade, vendedor, limit));
+    }
+}
@@ -2,11 +2,15 @@ package br.edu.ifsc.sistemafeiracoletiva.controller;
 
 import br.edu.ifsc.sistemafeiracoletiva.dto.CategoriaInputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.dto.CategoriaOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.service.CatalogoSnapshotService;
 import br.edu.ifsc.sistemafeiracoletiva.service.CategoriaService;
+import br.edu.ifsc.sistemafeiracoletiva.service.VersaoAgregadoService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
 import java.util.List;
@@ -23,13 +27,28 @@ public class CategoriaController {
     @Autowired
     private CategoriaService service;
 
+    @Autowired
+    private VersaoAgregadoService versoes; // ETags por versão dos agregados
+
+    @Autowired
+    private CatalogoSnapshotService catalogo; // Leituras do catálogo já serializadas
+
     /**
-     * Retorna todos os categoria cadastradas.
-     * @return lista de CategoriaOutputDTO
+     * Retorna as categorias cadastradas, paginadas por cursor.
+     * @param limit tamanho da página (opcional, limitado por paginacao.tamanho-maximo)
+     * @param after cursor da página anterior (proximoCursor), opcional
+     * @return página de CategoriaOutputDTO com o cursor da próxima página (servida do snapshot do catálogo)
      */
     @GetMapping
-    public List<CategoriaOutputDTO> listar() {
-        return service.listar();
+    public ResponseEntity<byte[]> listar(@RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) String after,
+                                         WebRequest request) {
+        if (request.checkNotModified(versoes.etagCategorias())) {
+            return null; // 304 Not Modified, decidido só pela versão em memória
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalogo.categorias(after, limit));
     }
 
     /**
@@ -38,7 +57,10 @@ public class CategoriaController {
      * @return categoria encontrado ou 404
      */
     @GetMapping("/{id}")
-    public ResponseEntity<CategoriaOutputDTO> buscarPorId(@PathVariable int id) {
+    public ResponseEntity<CategoriaOutputDTO> buscarPorId(@PathVariable int id, WebRequest request) {
+        if (request.checkNotModified(versoes.etagCategorias())) {
+            return null; // 304 Not Modified, decidido só pela versão em memória
+        }
         Optional<CategoriaOutputDTO> categoria = service.buscarPorId(id);
         return categoria.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
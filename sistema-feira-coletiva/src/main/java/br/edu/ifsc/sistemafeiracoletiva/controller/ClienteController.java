@@ -2,6 +2,7 @@ package br.edu.ifsc.sistemafeiracoletiva.controller;
 
 import br.edu.ifsc.sistemafeiracoletiva.dto.ClienteInputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.dto.ClienteOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.PaginaOutputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.service.ClienteService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,12 +25,15 @@ public class ClienteController {
     private ClienteService service;
 
     /**
-     * Retorna todos os clientes cadastrados.
-     * @return lista de ClienteOutputDTO
+     * Retorna os clientes cadastrados, paginados por cursor.
+     * @param limit tamanho da página (opcional, limitado por paginacao.tamanho-maximo)
+     * @param after cursor da página anterior (proximoCursor), opcional
+     * @return página de ClienteOutputDTO com o cursor da próxima página
      */
     @GetMapping
-    public List<ClienteOutputDTO> listar() {
-        return service.listar();
+    public PaginaOutputDTO<ClienteOutputDTO> listar(@RequestParam(required = false) Integer limit,
+                                                    @RequestParam(required = false) String after) {
+        return service.listar(after, limit);
     }
 
     /**
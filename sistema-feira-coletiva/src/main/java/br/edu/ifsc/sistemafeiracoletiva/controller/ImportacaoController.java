@@ -0,0 +1,66 @@
+package br.edu.ifsc.sistemafeiracoletiva.controller;
+
+import br.edu.ifsc.sistemafeiracoletiva.dto.ImportacaoOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.service.ImportacaoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Optional;
+
+/**
+ * Controller REST das importações em massa de produtos e ofertas (NDJSON ou CSV).
+ * O arquivo é processado em segundo plano; o andamento é consultado em GET /api/importacoes/{id}.
+ */
+@RestController
+@RequestMapping("/api/importacoes")
+@CrossOrigin(origins = "http://localhost:5500")
+public class ImportacaoController {
+
+    @Autowired
+    private ImportacaoService service;
+
+    /**
+     * Inicia a importação de produtos (campos de ProdutoInputDTO, um registro por linha).
+     * @param contentType application/x-ndjson ou text/csv (com cabeçalho)
+     * @param corpo arquivo enviado no corpo da requisição
+     * @return 202 com o andamento inicial e o endereço para consulta
+     */
+    @PostMapping("/produtos")
+    public ResponseEntity<ImportacaoOutputDTO> importarProdutos(@RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                                                InputStream corpo) {
+        return aceitar(service.iniciar(ImportacaoService.Tipo.PRODUTOS, contentType, corpo));
+    }
+
+    /**
+     * Inicia a importação de ofertas (campos de OfertaInputDTO, um registro por linha).
+     * @param contentType application/x-ndjson ou text/csv (com cabeçalho)
+     * @param corpo arquivo enviado no corpo da requisição
+     * @return 202 com o andamento inicial e o endereço para consulta
+     */
+    @PostMapping("/ofertas")
+    public ResponseEntity<ImportacaoOutputDTO> importarOfertas(@RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                                               InputStream corpo) {
+        return aceitar(service.iniciar(ImportacaoService.Tipo.OFERTAS, contentType, corpo));
+    }
+
+    /**
+     * Retorna o andamento de uma importação (linhas lidas, importadas, erros por linha).
+     * @param id identificador devolvido ao iniciar a importação
+     * @return andamento ou 404 (importação desconhecida ou já descartada)
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportacaoOutputDTO> buscarPorId(@PathVariable String id) {
+        Optional<ImportacaoOutputDTO> importacao = service.buscarPorId(id);
+        return importacao.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<ImportacaoOutputDTO> aceitar(ImportacaoOutputDTO importacao) {
+        URI location = URI.create("/api/importacoes/" + importacao.getId());
+        return ResponseEntity.accepted().location(location).body(importacao);
+    }
+}
@@ -2,9 +2,11 @@ package br.edu.ifsc.sistemafeiracoletiva.controller;
 
 import br.edu.ifsc.sistemafeiracoletiva.dto.LocalDeRetiradaInputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.dto.LocalDeRetiradaOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.service.CatalogoSnapshotService;
 import br.edu.ifsc.sistemafeiracoletiva.service.LocalDeRetiradaService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,13 +25,21 @@ public class LocalDeRetiradaController {
     @Autowired
     private LocalDeRetiradaService service;
 
+    @Autowired
+    private CatalogoSnapshotService catalogo; // Leituras do catálogo já serializadas
+
     /**
-     * Retorna todos os locais de retirada cadastrados.
-     * @return lista de LocalDeRetiradaOutputDTO
+     * Retorna os locais de retirada cadastrados, paginados por cursor.
+     * @param limit tamanho da página (opcional, limitado por paginacao.tamanho-maximo)
+     * @param after cursor da página anterior (proximoCursor), opcional
+     * @return página de LocalDeRetiradaOutputDTO com o cursor da próxima página (servida do snapshot do catálogo)
      */
     @GetMapping
-    public List<LocalDeRetiradaOutputDTO> listar() {
-        return service.listar();
+    public ResponseEntity<byte[]> listar(@RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) String after) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalogo.locaisDeRetirada(after, limit));
     }
 
     /**
@@ -2,13 +2,22 @@ package br.edu.ifsc.sistemafeiracoletiva.controller;
 
 import br.edu.ifsc.sistemafeiracoletiva.dto.*;
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.Oferta;
+import br.edu.ifsc.sistemafeiracoletiva.service.CatalogoSnapshotService;
 import br.edu.ifsc.sistemafeiracoletiva.service.OfertaService;
+import br.edu.ifsc.sistemafeiracoletiva.service.VersaoAgregadoService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
 import java.util.Optional;
@@ -24,32 +33,73 @@ public class OfertaController {
     @Autowired
     private OfertaService service;
 
+    @Autowired
+    private VersaoAgregadoService versoes; // ETags por versão dos agregados
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogoSnapshotService catalogo; // Leituras do catálogo já serializadas
+
     /**
-     * Retorna todos os ofertas cadastrados.
-     * @return lista de OfertaOutputDTO
+     * Retorna as ofertas cadastradas, paginadas por cursor.
+     * @param limit tamanho da página (opcional, limitado por paginacao.tamanho-maximo)
+     * @param after cursor da página anterior (proximoCursor), opcional
+     * @return página de OfertaOutputDTO com o cursor da próxima página
      */
     @GetMapping
-    public List<OfertaOutputDTO> listar() {
-        return service.listar();
+    public PaginaOutputDTO<OfertaOutputDTO> listar(@RequestParam(required = false) Integer limit,
+                                                   @RequestParam(required = false) String after,
+                                                   WebRequest request) {
+        if (request.checkNotModified(versoes.etagOfertas())) {
+            return null; // 304 Not Modified, decidido só pela versão em memória
+        }
+        return service.listar(after, limit);
     }
 
     /**
      * ✅ NOVO: Retorna todas as ofertas disponíveis para publicação.
+     * Servida do snapshot do catálogo (JSON já serializado).
      * @return lista de OfertaOutputDTO
      */
     @GetMapping("/disponiveis")
-    public ResponseEntity<List<OfertaOutputDTO>> listarOfertasDisponiveis() {
-        List<OfertaOutputDTO> ofertas = service.listarOfertasDisponiveis();
-        return ResponseEntity.ok(ofertas);
+    public ResponseEntity<byte[]> listarOfertasDisponiveis(WebRequest request) {
+        if (request.checkNotModified(versoes.etagOfertas())) {
+            return null; // 304 Not Modified, decidido só pela versão em memória
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalogo.ofertasDisponiveis());
     }
 
     /**
      * Retorna todos as Ofertas cadastrados e seus produtos.
-     * @return lista de OfertaSeusProdutosOutputDTO
+     * O JSON é escrito oferta a oferta direto na resposta (streaming),
+     * então a memória usada não depende da quantidade de ofertas.
+     * @return array JSON de OfertaSeusProdutosOutputDTO
      */
-    @GetMapping("/produtos")
-    public List<OfertaSeusProdutosOutputDTO> listarOfertasProdutos() {
-        return service.listarOfertasProdutos();
+    @GetMapping(value = "/produtos", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> listarOfertasProdutos(WebRequest request) {
+        if (request.checkNotModified(versoes.etagOfertas())) {
+            return null; // 304 Not Modified, decidido só pela versão em memória
+        }
+        StreamingResponseBody corpo = saida -> {
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+                gerador.writeStartArray();
+                service.percorrerOfertasProdutos(dto -> {
+                    try {
+                        gerador.writeObject(dto);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e); // Cliente desconectou: interrompe a leitura do banco
+                    }
+                });
+                gerador.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(corpo);
     }
 
     /**
@@ -58,7 +108,10 @@ public class OfertaController {
      * @return oferta encontrado ou 404
      */
     @GetMapping("/{id}")
-    public ResponseEntity<OfertaOutputDTO> buscarPorId(@PathVariable int id) {
+    public ResponseEntity<OfertaOutputDTO> buscarPorId(@PathVariable int id, WebRequest request) {
+        if (request.checkNotModified(versoes.etagOfertas())) {
+            return null; // 304 Not Modified, decidido só pela versão em memória
+        }
         Optional<OfertaOutputDTO> oferta = service.buscarPorId(id);
         return oferta.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -70,7 +123,10 @@ public class OfertaController {
      * @return oferta encontrado ou 404
      */
     @GetMapping("produtos/{id}")
-    public ResponseEntity<OfertaSeusProdutosOutputDTO> buscarPorIdOfertasProdutos(@PathVariable int id) {
+    public ResponseEntity<OfertaSeusProdutosOutputDTO> buscarPorIdOfertasProdutos(@PathVariable int id, WebRequest request) {
+        if (request.checkNotModified(versoes.etagOfertas())) {
+            return null; // 304 Not Modified, decidido só pela versão em memória
+        }
         Optional<OfertaSeusProdutosOutputDTO> oferta = service.buscarPorIdOfertasProdutos(id);
         return oferta.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -1,12 +1,16 @@
 package br.edu.ifsc.sistemafeiracoletiva.controller;
 
+import br.edu.ifsc.sistemafeiracoletiva.dto.PaginaOutputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.dto.ParticipanteInputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.dto.ParticipanteOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.TicketParticipacaoOutputDTO;
 
+import br.edu.ifsc.sistemafeiracoletiva.service.FilaParticipacaoService;
 import br.edu.ifsc.sistemafeiracoletiva.service.ParticipanteService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -27,13 +31,19 @@ public class ParticipanteController {
     @Autowired
     private ParticipanteService service;
 
+    @Autowired
+    private FilaParticipacaoService filaParticipacao;
+
     /**
-     * Lista todas as participações.
-     * @return Lista de ParticipanteOutputDTO.
+     * Lista as participações, paginadas por cursor.
+     * @param limit tamanho da página (opcional, limitado por paginacao.tamanho-maximo)
+     * @param after cursor da página anterior (proximoCursor), opcional
+     * @return página de ParticipanteOutputDTO com o cursor da próxima página
      */
     @GetMapping
-    public List<ParticipanteOutputDTO> listar() {
-        return service.listar();
+    public PaginaOutputDTO<ParticipanteOutputDTO> listar(@RequestParam(required = false) Integer limit,
+                                                         @RequestParam(required = false) String after) {
+        return service.listar(after, limit);
     }
 
     /**
@@ -64,6 +74,7 @@ public class ParticipanteController {
 
     /**
      * Cria uma nova participação com seus pedidos.
+     * Aceita o cabeçalho Idempotency-Key: reenvios com a mesma chave devolvem a resposta original (IdempotenciaFilter).
      * @param dto ParticipanteInputDTO com os dados da participação e pedidos.
      * @return ParticipanteOutputDTO salvo com status 201 Created.
      */
@@ -77,9 +88,60 @@ public class ParticipanteController {
         } catch (IllegalArgumentException e) {
             // Captura erros de validação de negócio (ex: estoque insuficiente, produto não encontrado)
             return ResponseEntity.badRequest().body(null); // Poderíamos retornar um DTO de erro mais específico
+        } catch (DataIntegrityViolationException e) {
+            // Outra requisição do mesmo cliente gravou a participação primeiro (uk_participantes_cliente_publicacao)
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(null);
         } catch (Exception e) {
             log.error("Erro ao criar participação: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
+
+    /**
+     * Registra o pagamento de uma participação (atualiza os totais da publicação).
+     * Repetir a chamada para uma participação já paga não altera nada.
+     * @param id ID da participação.
+     * @return ParticipanteOutputDTO atualizado, 404 se não existir ou 400 se o prazo de pagamento já terminou.
+     */
+    @PutMapping("/{id}/pagamento")
+    public ResponseEntity<ParticipanteOutputDTO> registrarPagamento(@PathVariable int id) {
+        try {
+            return service.registrarPagamento(id)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    /**
+     * Recebe uma participação pela fila (picos de abertura de publicação).
+     * A participação é validada, entra na fila da publicação e é gravada em lote em segundo plano;
+     * o resultado é consultado em GET /api/participantes/fila/{ticket}.
+     * @param dto ParticipanteInputDTO com os dados da participação e pedidos.
+     * @return 202 com o ticket e o endereço para consulta, ou 400 se os dados forem inválidos.
+     */
+    @PostMapping("/fila")
+    public ResponseEntity<TicketParticipacaoOutputDTO> enfileirar(@RequestBody @Valid ParticipanteInputDTO dto) {
+        try {
+            TicketParticipacaoOutputDTO ticket = filaParticipacao.enfileirar(dto);
+            URI location = URI.create("/api/participantes/fila/" + ticket.getId());
+            return ResponseEntity.accepted().location(location).body(ticket);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    /**
+     * Situação de uma participação enviada pela fila.
+     * @param ticket identificador devolvido ao enfileirar.
+     * @return ticket (AGUARDANDO, CONCLUIDA com o ID da participação, RECUSADA ou FALHOU com o motivo)
+     * ou 404 (ticket desconhecido ou já descartado).
+     */
+    @GetMapping("/fila/{ticket}")
+    public ResponseEntity<TicketParticipacaoOutputDTO> buscarTicket(@PathVariable String ticket) {
+        return filaParticipacao.buscarPorId(ticket)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
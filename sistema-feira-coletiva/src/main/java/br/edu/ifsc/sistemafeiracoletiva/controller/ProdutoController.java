@@ -1,5 +1,6 @@
 package br.edu.ifsc.sistemafeiracoletiva.controller;
 
+import br.edu.ifsc.sistemafeiracoletiva.dto.PaginaOutputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.dto.ProdutoInputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.dto.ProdutoOutputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.service.ProdutoService;
@@ -24,12 +25,15 @@ public class ProdutoController {
     private ProdutoService service;
 
     /**
-     * Retorna todos os produtos cadastrados.
-     * @return lista de ProdutosOutputDTO
+     * Retorna os produtos cadastrados, paginados por cursor.
+     * @param limit tamanho da página (opcional, limitado por paginacao.tamanho-maximo)
+     * @param after cursor da página anterior (proximoCursor), opcional
+     * @return página de ProdutoOutputDTO com o cursor da próxima página
      */
     @GetMapping
-    public List<ProdutoOutputDTO> listar() {
-        return service.listar();
+    public PaginaOutputDTO<ProdutoOutputDTO> listar(@RequestParam(required = false) Integer limit,
+                                                    @RequestParam(required = false) String after) {
+        return service.listar(after, limit);
     }
 
     /**
@@ -3,11 +3,18 @@ package br.edu.ifsc.sistemafeiracoletiva.controller;
 import br.edu.ifsc.sistemafeiracoletiva.dto.PublicacaoDetalhesOutputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.dto.PublicacaoInputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.dto.PublicacaoOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.PublicacaoTotaisOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.service.CatalogoSnapshotService;
 import br.edu.ifsc.sistemafeiracoletiva.service.PublicacaoService;
+import br.edu.ifsc.sistemafeiracoletiva.service.PublicacaoTotaisService;
+import br.edu.ifsc.sistemafeiracoletiva.service.PublicacaoViewService;
+import br.edu.ifsc.sistemafeiracoletiva.service.VersaoAgregadoService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -25,29 +32,53 @@ public class PublicacaoController {
     @Autowired
     private PublicacaoService service;
 
+    @Autowired
+    private VersaoAgregadoService versoes; // ETags por versão dos agregados
+
+    @Autowired
+    private CatalogoSnapshotService catalogo; // Leituras do catálogo já serializadas
+
+    @Autowired
+    private PublicacaoViewService publicacaoView; // Publicações desnormalizadas (publicacao_view)
+
+    @Autowired
+    private PublicacaoTotaisService totais; // Totais mantidos a cada participação (publicacao_totais)
+
     /**
-     * Retorna todos os publicacoes cadastrados.
+     * Retorna as publicações cadastradas, paginadas por cursor.
      * Retorna o DTO sem os detalhes dos participantes.
-     * @return lista de PublicacaoOutputDTO
+     * @param limit tamanho da página (opcional, limitado por paginacao.tamanho-maximo)
+     * @param after cursor da página anterior (proximoCursor), opcional
+     * @return página de PublicacaoOutputDTO com o cursor da próxima página (servida do snapshot do catálogo)
      */
     @GetMapping
-    public List<PublicacaoOutputDTO> listar() {
-        return service.listar();
+    public ResponseEntity<byte[]> listar(@RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) String after,
+                                         WebRequest request) {
+        if (request.checkNotModified(versoes.etagPublicacoes())) {
+            return null; // 304 Not Modified, decidido só pela versão em memória
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalogo.publicacoes(after, limit));
     }
 
     /**
      * Retorna as publicações de um vendedor específico.
      * Retorna o DTO sem os detalhes dos participantes.
      * @param vendedorId O ID do vendedor.
-     * @return lista de PublicacaoOutputDTO do vendedor.
+     * @return lista de PublicacaoOutputDTO do vendedor (JSON lido da publicacao_view).
      */
     @GetMapping("/vendedor/{vendedorId}")
-    public ResponseEntity<List<PublicacaoOutputDTO>> listarPorVendedor(@PathVariable Integer vendedorId) {
-        List<PublicacaoOutputDTO> publicacoes = service.listarPorVendedor(vendedorId);
-        if (publicacoes.isEmpty()) {
+    public ResponseEntity<byte[]> listarPorVendedor(@PathVariable Integer vendedorId, WebRequest request) {
+        if (request.checkNotModified(versoes.etagPublicacoes())) {
+            return null; // 304 Not Modified, decidido só pela versão em memória
+        }
+        byte[] publicacoes = publicacaoView.listarPorVendedor(vendedorId);
+        if (publicacoes == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(publicacoes);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(publicacoes);
     }
 
     /**
@@ -57,7 +88,10 @@ public class PublicacaoController {
      * @return publicacao encontrado ou 404
      */
     @GetMapping("/{id}")
-    public ResponseEntity<PublicacaoOutputDTO> buscarPorId(@PathVariable int id) {
+    public ResponseEntity<PublicacaoOutputDTO> buscarPorId(@PathVariable int id, WebRequest request) {
+        if (request.checkNotModified(versoes.etagPublicacoes())) {
+            return null; // 304 Not Modified, decidido só pela versão em memória
+        }
         Optional<PublicacaoOutputDTO> publicacao = service.buscarPorId(id);
         return publicacao.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -65,16 +99,34 @@ public class PublicacaoController {
 
     /**
      * ✅ NOVO ENDPOINT: Retorna uma publicação por ID, incluindo a lista de participantes e seus pedidos.
+     * Os participantes são paginados por cursor (proximoCursorParticipantes).
      * @param id identificador da publicação
+     * @param limit quantidade de participantes (opcional, limitado por paginacao.tamanho-maximo)
+     * @param after cursor da página de participantes anterior (proximoCursorParticipantes), opcional
      * @return PublicacaoDetalhesOutputDTO encontrada ou 404
      */
     @GetMapping("/{id}/detalhes")
-    public ResponseEntity<PublicacaoDetalhesOutputDTO> buscarPublicacaoComParticipantes(@PathVariable int id) {
-        Optional<PublicacaoDetalhesOutputDTO> publicacao = service.buscarPorIdComParticipantes(id);
+    public ResponseEntity<PublicacaoDetalhesOutputDTO> buscarPublicacaoComParticipantes(@PathVariable int id,
+                                                                                        @RequestParam(required = false) Integer limit,
+                                                                                        @RequestParam(required = false) String after) {
+        Optional<PublicacaoDetalhesOutputDTO> publicacao = service.buscarPorIdComParticipantes(id, after, limit);
         return publicacao.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Retorna os totais da publicação: participantes (e pagos), valor total e pago, e unidades reservadas por produto.
+     * Lê só as tabelas de totais, sem carregar participantes e pedidos.
+     * @param id identificador da publicação
+     * @return PublicacaoTotaisOutputDTO ou 404
+     */
+    @GetMapping("/{id}/totais")
+    public ResponseEntity<PublicacaoTotaisOutputDTO> buscarTotais(@PathVariable int id) {
+        return totais.buscarPorId(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * Cadastra um novo publicacao.
      * @param dto objeto recebido no corpo da requisição
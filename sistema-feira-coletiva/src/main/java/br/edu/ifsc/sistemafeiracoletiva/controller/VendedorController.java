@@ -1,5 +1,6 @@
 package br.edu.ifsc.sistemafeiracoletiva.controller;
 
+import br.edu.ifsc.sistemafeiracoletiva.dto.PaginaOutputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.dto.VendedorInputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.dto.VendedorOutputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.dto.VendedorSuasOfertasOutputDTO;
@@ -25,21 +26,29 @@ public class VendedorController {
     private VendedorService service;
 
     /**
-     * Retorna todos os vendedores cadastrados.
-     * @return lista de VendedorOutputDTO
+     * Retorna os vendedores cadastrados, paginados por cursor.
+     * @param limit tamanho da página (opcional, limitado por paginacao.tamanho-maximo)
+     * @param after cursor da página anterior (proximoCursor), opcional
+     * @return página de VendedorOutputDTO com o cursor da próxima página
      */
     @GetMapping
-    public List<VendedorOutputDTO> listar() {
-        return service.listar();
+    public PaginaOutputDTO<VendedorOutputDTO> listar(@RequestParam(required = false) Integer limit,
+                                                     @RequestParam(required = false) String after) {
+        return service.listar(after, limit);
     }
 
     /**
-     * Retorna todos os vendedores cadastrados e suas ofertas.
-     * @return lista de VendedorSuasOfertasOutputDTO
+     * Retorna os vendedores cadastrados e suas ofertas, paginados por cursor.
+     * @param limit tamanho da página (opcional, limitado por paginacao.tamanho-maximo)
+     * @param after cursor da página anterior (proximoCursor), opcional
+     * @param statusDisponibilidade filtra as ofertas pela disponibilidade (opcional)
+     * @return página de VendedorSuasOfertasOutputDTO com o cursor da próxima página
      */
     @GetMapping("/ofertas")
-    public List<VendedorSuasOfertasOutputDTO> listarVendedoresOfertas() {
-        return service.listarVendedoresOfertas();
+    public PaginaOutputDTO<VendedorSuasOfertasOutputDTO> listarVendedoresOfertas(@RequestParam(required = false) Integer limit,
+                                                                               @RequestParam(required = false) String after,
+                                                                               @RequestParam(required = false) Boolean statusDisponibilidade) {
+        return service.listarVendedoresOfertas(after, limit, statusDisponibilidade);
     }
 
     /**
@@ -57,11 +66,13 @@ public class VendedorController {
     /**
      * Retorna um vendedor por ID.
      * @param id identificador do vendedor e suas ofertas
+     * @param statusDisponibilidade filtra as ofertas pela disponibilidade (opcional)
      * @return vendedor encontrado ou 404
      */
     @GetMapping("ofertas/{id}")
-    public ResponseEntity<VendedorSuasOfertasOutputDTO> buscarPorIdVendedoresOfertas(@PathVariable int id) {
-        Optional<VendedorSuasOfertasOutputDTO> vendedor = service.buscarPorIdVendedoresOfertas(id);
+    public ResponseEntity<VendedorSuasOfertasOutputDTO> buscarPorIdVendedoresOfertas(@PathVariable int id,
+                                                                                     @RequestParam(required = false) Boolean statusDisponibilidade) {
+        Optional<VendedorSuasOfertasOutputDTO> vendedor = service.buscarPorIdVendedoresOfertas(id, statusDisponibilidade);
         return vendedor.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -0,0 +1,23 @@
+package br.edu.ifsc.sistemafeiracoletiva.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de saída da busca: resultados ordenados por relevância e contagens por filtro.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BuscaOutputDTO {
+
+    private Integer total; // Total de produtos encontrados (antes do limite)
+    private List<ResultadoBuscaDTO> resultados;
+    private List<FacetaDTO> categorias;
+    private List<FacetaDTO> unidadesMedida;
+    private List<FacetaDTO> vendedores;
+}
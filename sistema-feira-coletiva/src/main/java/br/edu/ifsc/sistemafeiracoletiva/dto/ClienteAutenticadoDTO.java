@@ -0,0 +1,19 @@
+package br.edu.ifsc.sistemafeiracoletiva.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO usado como principal no contexto de segurança.
+ * Montado a partir das claims do JWT, sem consultar o banco.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteAutenticadoDTO {
+    private Integer id;
+    private String nome;
+    private String email;
+    private String role;
+}
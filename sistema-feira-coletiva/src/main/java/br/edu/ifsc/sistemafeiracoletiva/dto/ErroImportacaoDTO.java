@@ -0,0 +1,17 @@
+package br.edu.ifsc.sistemafeiracoletiva.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de saída com o erro de uma linha da importação (linha 1 = primeira linha do arquivo).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErroImportacaoDTO {
+
+    private Long linha;
+    private String mensagem;
+}
@@ -0,0 +1,20 @@
+package br.edu.ifsc.sistemafeiracoletiva.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de saída com a contagem de resultados da busca para um valor de filtro
+ * (ex: categoria "Frutas" com 12 produtos).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetaDTO {
+
+    private String valor; // Valor a enviar no filtro correspondente da busca
+    private String rotulo; // Texto para exibir
+    private Integer quantidade;
+}
@@ -0,0 +1,29 @@
+package br.edu.ifsc.sistemafeiracoletiva.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO de saída com o andamento de uma importação em massa (consultado por polling).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacaoOutputDTO {
+
+    private String id;
+    private String tipo; // PRODUTOS ou OFERTAS
+    private String formato; // NDJSON ou CSV
+    private String status; // AGUARDANDO, PROCESSANDO, CONCLUIDA ou FALHOU
+    private Integer percentual; // Pelo volume de bytes já lidos do arquivo
+    private Long linhasLidas;
+    private Long linhasImportadas;
+    private Long linhasComErro;
+    private List<ErroImportacaoDTO> erros; // Limitado por importacao.max-erros
+    private LocalDateTime iniciadaEm;
+    private LocalDateTime concluidaEm;
+}
@@ -0,0 +1,22 @@
+package br.edu.ifsc.sistemafeiracoletiva.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de saída para listagens paginadas por cursor.
+ * O frontend envia o proximoCursor no parâmetro "after" para buscar a página seguinte;
+ * proximoCursor nulo indica que não há mais itens.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaOutputDTO<T> {
+
+    private List<T> itens;
+    private String proximoCursor;
+}
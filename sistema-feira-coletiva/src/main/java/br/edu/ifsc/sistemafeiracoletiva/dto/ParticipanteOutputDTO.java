@@ -19,6 +19,7 @@ public class ParticipanteOutputDTO {
     private BigDecimal valorTotal;
     private Integer qtdTotalProdutos;
     private Boolean statusPago;
+    private Boolean statusCancelado; // Não paga até o fim do prazo de pagamento
     private LocalDateTime dataParticipacao;
     private ClienteOutputDTO cliente; // Detalhes do cliente
     private PublicacaoResumoOutputDTO publicacao; // Resumo da publicação
@@ -16,6 +16,7 @@ public class ParticipanteResumoPublicacaoOutputDTO {
     private BigDecimal valorTotal;
     private Integer qtdTotalProdutos;
     private Boolean statusPago;
+    private Boolean statusCancelado; // Não paga até o fim do prazo de pagamento
     private LocalDateTime dataParticipacao;
     private ClienteOutputDTO cliente; // Reutiliza ClienteOutputDTO
     private List<PedidoOutputDTO> pedidos; // Inclui os pedidos completos
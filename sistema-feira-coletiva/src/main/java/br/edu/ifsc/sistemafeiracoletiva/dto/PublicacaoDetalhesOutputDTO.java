@@ -20,4 +20,7 @@ public class PublicacaoDetalhesOutputDTO {
 
     // ✅ NOVO: Lista de participantes desta publicação
     private List<ParticipanteResumoPublicacaoOutputDTO> participantes;
+
+    // Cursor da próxima página de participantes (null = não há mais)
+    private String proximoCursorParticipantes;
 }
\ No newline at end of file
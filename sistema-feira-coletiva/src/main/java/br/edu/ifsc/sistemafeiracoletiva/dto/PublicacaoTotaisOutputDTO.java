@@ -0,0 +1,23 @@
+package br.edu.ifsc.sistemafeiracoletiva.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublicacaoTotaisOutputDTO {
+    private Integer idPublicacao;
+    private Integer qtdParticipantes;
+    private Integer qtdParticipantesPagos;
+    private Integer qtdProdutos;
+    private BigDecimal valorTotal;
+    private BigDecimal valorPago;
+    private LocalDateTime atualizadoEm; // Nulo se a publicação ainda não teve participações
+    private List<TotalProdutoPublicacaoOutputDTO> produtos;
+}
@@ -0,0 +1,31 @@
+package br.edu.ifsc.sistemafeiracoletiva.dto;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO de saída com um produto encontrado na busca, junto da oferta e do vendedor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoBuscaDTO {
+
+    private Integer idProduto;
+    private String nome;
+    private String categoria;
+    private String unidadeMedida;
+    private Double medida;
+    private BigDecimal preco;
+    private Integer qtdEstoque;
+    private Integer idOferta;
+    private String tituloOferta;
+    private Boolean statusDisponibilidade;
+    private Integer idVendedor;
+    private String nomeVendedor;
+    private Double relevancia;
+}
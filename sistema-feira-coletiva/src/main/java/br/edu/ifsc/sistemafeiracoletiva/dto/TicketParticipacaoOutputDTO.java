@@ -0,0 +1,25 @@
+package br.edu.ifsc.sistemafeiracoletiva.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de saída com a situação de uma participação enviada pela fila (consultado por polling).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketParticipacaoOutputDTO {
+
+    private String id;
+    private Integer idPublicacao;
+    private Integer idCliente;
+    private String status; // AGUARDANDO, CONCLUIDA, RECUSADA ou FALHOU
+    private Integer idParticipante; // Preenchido quando CONCLUIDA
+    private String mensagem; // Motivo quando RECUSADA ou FALHOU
+    private LocalDateTime recebidaEm;
+    private LocalDateTime concluidaEm;
+}
@@ -0,0 +1,17 @@
+package br.edu.ifsc.sistemafeiracoletiva.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TotalProdutoPublicacaoOutputDTO {
+    private Integer idProduto;
+    private String nome;
+    private Integer qtdReservada;
+    private BigDecimal valorTotal;
+}
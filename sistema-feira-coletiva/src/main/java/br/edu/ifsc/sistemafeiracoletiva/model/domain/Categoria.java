@@ -5,14 +5,20 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Cache de segundo nível (ehcache.xml)
 @Data
 @Table(name = "categorias")
 @EqualsAndHashCode(of = {"id"})
 public class Categoria {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "categorias_id") // IDs em blocos: permite INSERT em lote
+    @TableGenerator(name = "categorias_id", table = GeradorIds.TABELA, pkColumnName = GeradorIds.COLUNA_ENTIDADE,
+            valueColumnName = GeradorIds.COLUNA_VALOR, pkColumnValue = "categorias", allocationSize = GeradorIds.TAMANHO_BLOCO)
     private Integer id;
 
     @Column(name = "nome")
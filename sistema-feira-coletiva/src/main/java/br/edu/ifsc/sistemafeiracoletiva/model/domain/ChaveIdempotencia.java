@@ -0,0 +1,58 @@
+package br.edu.ifsc.sistemafeiracoletiva.model.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resposta guardada de uma requisição POST enviada com o cabeçalho Idempotency-Key (tabela "chaves_idempotencia").
+ * Reenvios com a mesma chave recebem esta resposta sem executar a operação de novo.
+ * A linha é inserida com status 0 antes de executar a operação (chave em andamento em qualquer instância)
+ * e recebe a resposta ao final.
+ * Mantida pelo IdempotenciaService; removida ao fim do prazo configurado.
+ */
+@Entity
+@Table(name = "chaves_idempotencia", indexes = {
+        @Index(name = "idx_chaves_idempotencia_criada_em", columnList = "criada_em")
+})
+@Data
+@EqualsAndHashCode(of = {"id"})
+@NoArgsConstructor
+public class ChaveIdempotencia {
+
+    @Id
+    @Column(name = "id", length = 64)
+    private String id; // SHA-256 (hex) do escopo da requisição + chave enviada (não gerado)
+
+    @Column(name = "status", nullable = false)
+    private Integer status; // 0 enquanto a requisição está em andamento
+
+    @Column(name = "hash_corpo", length = 64)
+    private String hashCorpo; // SHA-256 (hex) do corpo da requisição original
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "location", length = 500)
+    private String location;
+
+    @Lob
+    @Column(name = "corpo", columnDefinition = "LONGBLOB")
+    private byte[] corpo;
+
+    @Column(name = "criada_em", nullable = false)
+    private LocalDateTime criadaEm;
+
+    public ChaveIdempotencia(String id, String hashCorpo, Integer status, String contentType, String location, byte[] corpo) {
+        this.id = id;
+        this.hashCorpo = hashCorpo;
+        this.status = status;
+        this.contentType = contentType;
+        this.location = location;
+        this.corpo = corpo;
+        this.criadaEm = LocalDateTime.now();
+    }
+}
@@ -18,7 +18,9 @@ import lombok.EqualsAndHashCode;
 public class Cliente {
 
     @Id // Define a chave primária
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto incremento (usado em MySQL, por exemplo)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "clientes_id") // IDs em blocos: permite INSERT em lote
+    @TableGenerator(name = "clientes_id", table = GeradorIds.TABELA, pkColumnName = GeradorIds.COLUNA_ENTIDADE,
+            valueColumnName = GeradorIds.COLUNA_VALOR, pkColumnValue = "clientes", allocationSize = GeradorIds.TAMANHO_BLOCO)
     private Integer id;
 
     @Column(name = "nome") // personalizar os nomes das colunas
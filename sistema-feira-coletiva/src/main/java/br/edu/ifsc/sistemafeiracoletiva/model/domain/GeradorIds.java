@@ -0,0 +1,21 @@
+package br.edu.ifsc.sistemafeiracoletiva.model.domain;
+
+/**
+ * Parâmetros do gerador de IDs das entidades (@TableGenerator).
+ * Cada entidade tem uma linha em "sequencias_id" e reserva blocos de IDs em memória,
+ * o que permite ao Hibernate agrupar os INSERTs em lotes JDBC (com IDENTITY isso não é possível).
+ */
+public final class GeradorIds {
+
+    public static final String TABELA = "sequencias_id";
+    public static final String COLUNA_ENTIDADE = "entidade";
+    public static final String COLUNA_VALOR = "proximo_id";
+
+    /**
+     * IDs reservados por ida ao banco (mesmo valor de hibernate.jdbc.batch_size).
+     */
+    public static final int TAMANHO_BLOCO = 50;
+
+    private GeradorIds() {
+    }
+}
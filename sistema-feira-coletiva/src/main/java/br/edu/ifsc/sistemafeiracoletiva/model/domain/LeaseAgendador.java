@@ -0,0 +1,31 @@
+package br.edu.ifsc.sistemafeiracoletiva.model.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease de uma tarefa agendada (tabela "leases_agendador"): só a instância dona,
+ * até expira_em, executa a tarefa. Com várias instâncias da aplicação, evita que a mesma
+ * tarefa rode em paralelo. Adquirida e renovada pelo LeaseAgendadorService.
+ */
+@Entity
+@Table(name = "leases_agendador")
+@Data
+@EqualsAndHashCode(of = {"nome"})
+@NoArgsConstructor
+public class LeaseAgendador {
+
+    @Id
+    @Column(name = "nome", length = 64)
+    private String nome; // Nome da tarefa
+
+    @Column(name = "dono", length = 128)
+    private String dono; // Instância que detém a lease (nulo = livre)
+
+    @Column(name = "expira_em", nullable = false, columnDefinition = "DATETIME(3)")
+    private LocalDateTime expiraEm; // Relógio do banco, igual para todas as instâncias
+}
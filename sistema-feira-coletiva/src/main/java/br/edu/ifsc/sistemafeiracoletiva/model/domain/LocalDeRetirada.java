@@ -5,14 +5,20 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Cache de segundo nível (ehcache.xml)
 @Data
 @Table(name = "locais_de_retirada")
 @EqualsAndHashCode(of = {"id"})
 public class LocalDeRetirada {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "locais_de_retirada_id") // IDs em blocos: permite INSERT em lote
+    @TableGenerator(name = "locais_de_retirada_id", table = GeradorIds.TABELA, pkColumnName = GeradorIds.COLUNA_ENTIDADE,
+            valueColumnName = GeradorIds.COLUNA_VALOR, pkColumnValue = "locais_de_retirada", allocationSize = GeradorIds.TAMANHO_BLOCO)
     private Integer id;
 
     @Column(name = "nome")
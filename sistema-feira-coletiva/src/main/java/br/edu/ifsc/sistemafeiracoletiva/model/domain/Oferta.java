@@ -21,7 +21,9 @@ import java.util.List;
 public class Oferta {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ofertas_id") // IDs em blocos: permite INSERT em lote
+    @TableGenerator(name = "ofertas_id", table = GeradorIds.TABELA, pkColumnName = GeradorIds.COLUNA_ENTIDADE,
+            valueColumnName = GeradorIds.COLUNA_VALOR, pkColumnValue = "ofertas", allocationSize = GeradorIds.TAMANHO_BLOCO)
     private Integer id;
 
     @Column(name = "titulo")
@@ -15,14 +15,22 @@ import java.util.List;
  * Entidade JPA que representa a tabela "participante" no banco de dados.
  */
 @Entity
-@Table(name = "participantes")
+@Table(name = "participantes", uniqueConstraints = {
+        // Uma participação por cliente em cada publicação, mesmo com requisições simultâneas
+        @UniqueConstraint(name = "uk_participantes_cliente_publicacao", columnNames = {"id_cliente", "id_publicacao"})
+}, indexes = {
+        // Participações não pagas e não canceladas de uma publicação, em ordem de ID (encerramento do pagamento)
+        @Index(name = "idx_participantes_publicacao_pendentes", columnList = "id_publicacao, status_pago, status_cancelado")
+})
 @Data
 @EqualsAndHashCode(of = {"id"})
 @NoArgsConstructor
 public class Participante {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "participantes_id") // IDs em blocos: permite INSERT em lote
+    @TableGenerator(name = "participantes_id", table = GeradorIds.TABELA, pkColumnName = GeradorIds.COLUNA_ENTIDADE,
+            valueColumnName = GeradorIds.COLUNA_VALOR, pkColumnValue = "participantes", allocationSize = GeradorIds.TAMANHO_BLOCO)
     private Integer id;
 
     @Column(name = "valor_total", precision = 10, scale = 2) // Usar BigDecimal para valores monetários
@@ -37,6 +45,13 @@ public class Participante {
     @Column(name = "data_participacao") // ✅ Sugestão: Adicionar campo de data/hora
     private LocalDateTime dataParticipacao;
 
+    // Não paga até o fim do prazo: o estoque dos pedidos foi devolvido (LiberacaoEstoqueService)
+    @Column(name = "status_cancelado", nullable = false)
+    private Boolean statusCancelado = Boolean.FALSE;
+
+    @Column(name = "data_cancelamento")
+    private LocalDateTime dataCancelamento;
+
     @ManyToOne(fetch = FetchType.LAZY) // Usar LAZY
     @JoinColumn(name = "id_cliente")
     private Cliente cliente;
@@ -56,6 +71,7 @@ public class Participante {
         this.valorTotal = BigDecimal.ZERO; // Inicia com zero
         this.qtdTotalProdutos = 0; // Inicia com zero
         this.statusPago = Boolean.FALSE; // Assume que o pagamento não foi feito ainda
+        this.statusCancelado = Boolean.FALSE;
         this.dataParticipacao = LocalDateTime.now(); // Data e hora atual da participação
         this.pedidos = new ArrayList<>();
     }
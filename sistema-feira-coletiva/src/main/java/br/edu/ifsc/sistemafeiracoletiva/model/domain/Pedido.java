@@ -12,13 +12,17 @@ import java.math.BigDecimal;
  * Entidade JPA que representa um item de pedido dentro de uma participação.
  */
 @Entity
-@Table(name = "pedidos")
+@Table(name = "pedidos", indexes = {
+        @Index(name = "idx_pedidos_estoque_pendente", columnList = "estoque_pendente")
+})
 @Data
 @EqualsAndHashCode(of = {"id"})
 @NoArgsConstructor // Construtor sem argumentos para JPA
 public class Pedido {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "pedidos_id") // IDs em blocos: permite INSERT em lote
+    @TableGenerator(name = "pedidos_id", table = GeradorIds.TABELA, pkColumnName = GeradorIds.COLUNA_ENTIDADE,
+            valueColumnName = GeradorIds.COLUNA_VALOR, pkColumnValue = "pedidos", allocationSize = GeradorIds.TAMANHO_BLOCO)
     private Integer id;
 
     // ✅ NOVO: Relacionamento direto com o Produto que foi pedido
@@ -37,6 +41,10 @@ public class Pedido {
     @Column(name = "valor_total_item", nullable = false, precision = 10, scale = 2)
     private BigDecimal valorTotalItem;
 
+    // Reservado em memória (ReservaEstoqueService) e ainda não descontado de produtos.qtd_estoque
+    @Column(name = "estoque_pendente", nullable = false)
+    private Boolean estoquePendente = Boolean.FALSE;
+
     @ManyToOne(fetch = FetchType.LAZY) // Usar LAZY
     @JoinColumn(name = "id_participante", nullable = false)
     @JsonIgnoreProperties("pedidos") // Evita recursão infinita JSON
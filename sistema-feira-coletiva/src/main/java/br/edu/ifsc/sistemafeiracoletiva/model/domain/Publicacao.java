@@ -16,14 +16,20 @@ import java.util.List;
  * Entidade JPA que representa a tabela "publicacao" no banco de dados.
  */
 @Entity
-@Table(name = "publicacoes")
+@Table(name = "publicacoes", indexes = {
+        // Próximo prazo vencido de cada etapa (CicloEtapasService)
+        @Index(name = "idx_publicacoes_etapa_exposicao", columnList = "etapa, dt_final_exposicao"),
+        @Index(name = "idx_publicacoes_etapa_pagamento", columnList = "etapa, dt_final_pagamento")
+})
 @Data
 @EqualsAndHashCode(of = {"id"})
 @NoArgsConstructor
 public class Publicacao {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "publicacoes_id") // IDs em blocos: permite INSERT em lote
+    @TableGenerator(name = "publicacoes_id", table = GeradorIds.TABELA, pkColumnName = GeradorIds.COLUNA_ENTIDADE,
+            valueColumnName = GeradorIds.COLUNA_VALOR, pkColumnValue = "publicacoes", allocationSize = GeradorIds.TAMANHO_BLOCO)
     private Integer id;
 
     @Column(name = "dt_final_exposicao", nullable = false)
@@ -0,0 +1,48 @@
+package br.edu.ifsc.sistemafeiracoletiva.model.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Quantidade reservada e valor de cada produto em uma publicação (tabela "publicacao_produto_totais").
+ * Mantida junto com a PublicacaoTotais pelo PublicacaoTotaisService.
+ */
+@Entity
+@Table(name = "publicacao_produto_totais")
+@IdClass(PublicacaoProdutoTotais.Chave.class)
+@Data
+@EqualsAndHashCode(of = {"idPublicacao", "idProduto"})
+@NoArgsConstructor
+public class PublicacaoProdutoTotais {
+
+    @Id
+    @Column(name = "id_publicacao")
+    private Integer idPublicacao;
+
+    @Id
+    @Column(name = "id_produto")
+    private Integer idProduto;
+
+    @Column(name = "qtd_reservada", nullable = false)
+    private Integer qtdReservada = 0;
+
+    @Column(name = "valor_total", nullable = false, precision = 12, scale = 2)
+    private BigDecimal valorTotal = BigDecimal.ZERO;
+
+    /**
+     * Chave composta (publicação, produto): a chave primária já atende a leitura por publicação.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chave implements Serializable {
+        private Integer idPublicacao;
+        private Integer idProduto;
+    }
+}
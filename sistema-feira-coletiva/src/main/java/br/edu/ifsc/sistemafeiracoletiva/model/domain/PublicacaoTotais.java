@@ -0,0 +1,44 @@
+package br.edu.ifsc.sistemafeiracoletiva.model.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Totais de uma publicação (tabela "publicacao_totais"): participações, produtos e valores.
+ * Mantida pelo PublicacaoTotaisService com incrementos na mesma transação de cada participação
+ * ou pagamento, então a leitura não precisa percorrer participantes e pedidos.
+ */
+@Entity
+@Table(name = "publicacao_totais")
+@Data
+@EqualsAndHashCode(of = {"idPublicacao"})
+@NoArgsConstructor
+public class PublicacaoTotais {
+
+    @Id
+    @Column(name = "id_publicacao")
+    private Integer idPublicacao; // Mesmo ID da publicação (não gerado)
+
+    @Column(name = "qtd_participantes", nullable = false)
+    private Integer qtdParticipantes = 0;
+
+    @Column(name = "qtd_participantes_pagos", nullable = false)
+    private Integer qtdParticipantesPagos = 0;
+
+    @Column(name = "qtd_produtos", nullable = false)
+    private Integer qtdProdutos = 0; // Unidades reservadas somando todos os produtos
+
+    @Column(name = "valor_total", nullable = false, precision = 12, scale = 2)
+    private BigDecimal valorTotal = BigDecimal.ZERO;
+
+    @Column(name = "valor_pago", nullable = false, precision = 12, scale = 2)
+    private BigDecimal valorPago = BigDecimal.ZERO;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private LocalDateTime atualizadoEm;
+}
@@ -0,0 +1,49 @@
+package br.edu.ifsc.sistemafeiracoletiva.model.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Modelo de leitura desnormalizado da publicação (tabela "publicacao_view").
+ * Guarda o JSON pronto do PublicacaoOutputDTO (local de retirada, oferta, vendedor, produtos e categorias),
+ * mantido pelo PublicacaoViewService na mesma transação das escritas.
+ * As listagens leem só esta tabela, sem joins.
+ */
+@Entity
+@Table(name = "publicacao_view", indexes = {
+        @Index(name = "idx_publicacao_view_oferta", columnList = "id_oferta"),
+        @Index(name = "idx_publicacao_view_vendedor", columnList = "id_vendedor, id_publicacao"),
+        @Index(name = "idx_publicacao_view_local", columnList = "id_local_de_retirada")
+})
+@Data
+@EqualsAndHashCode(of = {"idPublicacao"})
+@NoArgsConstructor
+public class PublicacaoView {
+
+    @Id
+    @Column(name = "id_publicacao")
+    private Integer idPublicacao; // Mesmo ID da publicação (não gerado)
+
+    @Column(name = "id_oferta", nullable = false)
+    private Integer idOferta;
+
+    @Column(name = "id_vendedor", nullable = false)
+    private Integer idVendedor;
+
+    @Column(name = "id_local_de_retirada", nullable = false)
+    private Integer idLocalDeRetirada;
+
+    @Lob
+    @Column(name = "documento", nullable = false, columnDefinition = "LONGTEXT")
+    private String documento; // JSON do PublicacaoOutputDTO
+
+    public PublicacaoView(Integer idPublicacao, Integer idOferta, Integer idVendedor, Integer idLocalDeRetirada, String documento) {
+        this.idPublicacao = idPublicacao;
+        this.idOferta = idOferta;
+        this.idVendedor = idVendedor;
+        this.idLocalDeRetirada = idLocalDeRetirada;
+        this.documento = documento;
+    }
+}
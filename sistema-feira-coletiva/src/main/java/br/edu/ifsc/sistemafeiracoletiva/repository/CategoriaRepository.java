@@ -1,8 +1,13 @@
 package br.edu.ifsc.sistemafeiracoletiva.repository;
 
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.Categoria;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -10,5 +15,12 @@ import java.util.Optional;
  * Herda métodos prontos para CRUD.
  */
 public interface CategoriaRepository extends JpaRepository<Categoria, Integer> {
+    /**
+     * Resultado guardado no cache de consultas (invalidado quando a tabela de categorias muda).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Categoria> findByNome(String nome);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Categoria> findByNomeIn(Collection<String> nomes);
 }
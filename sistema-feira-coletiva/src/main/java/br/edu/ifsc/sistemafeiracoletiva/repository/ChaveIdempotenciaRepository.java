@@ -0,0 +1,23 @@
+package br.edu.ifsc.sistemafeiracoletiva.repository;
+
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.ChaveIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repositório JPA das respostas guardadas por Idempotency-Key.
+ */
+public interface ChaveIdempotenciaRepository extends JpaRepository<ChaveIdempotencia, String> {
+
+    /**
+     * Remove em uma única instrução as respostas gravadas antes do limite (índice criada_em).
+     * @return quantidade de linhas removidas.
+     */
+    @Modifying
+    @Query("DELETE FROM ChaveIdempotencia c WHERE c.criadaEm < :limite")
+    int deleteByCriadaEmBefore(@Param("limite") LocalDateTime limite);
+}
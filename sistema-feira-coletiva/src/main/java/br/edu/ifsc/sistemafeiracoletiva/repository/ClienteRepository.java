@@ -1,8 +1,10 @@
 package br.edu.ifsc.sistemafeiracoletiva.repository;
 
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.Cliente;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -27,4 +29,9 @@ public interface ClienteRepository extends JpaRepository<Cliente, Integer> {
     *   @Query("SELECT c FROM Cliente c WHERE c.nome LIKE %:nome%")         JPQL personalizado
     *   List<Cliente> buscarPorNome(@Param("nome") String nome);
     */
+
+    /**
+     * Página por cursor: registros com ID maior que o informado, em ordem crescente de ID.
+     */
+    List<Cliente> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit);
 }
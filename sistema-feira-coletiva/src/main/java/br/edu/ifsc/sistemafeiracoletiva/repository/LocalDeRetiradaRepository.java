@@ -3,5 +3,7 @@ package br.edu.ifsc.sistemafeiracoletiva.repository;
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.LocalDeRetirada;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 public interface LocalDeRetiradaRepository extends JpaRepository<LocalDeRetirada, Integer> {
 }
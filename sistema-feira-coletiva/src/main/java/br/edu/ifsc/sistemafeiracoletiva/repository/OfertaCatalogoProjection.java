@@ -0,0 +1,33 @@
+package br.edu.ifsc.sistemafeiracoletiva.repository;
+
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.UnidadeDeMedida;
+
+import java.math.BigDecimal;
+
+/**
+ * Projeção plana de uma linha do catálogo: oferta + vendedor + produto + categoria.
+ * Uma oferta com N produtos gera N linhas (ou uma linha com produto nulo se não tiver produtos).
+ */
+public interface OfertaCatalogoProjection {
+    Integer getOfertaId();
+    String getTitulo();
+    String getDescricao();
+    Integer getQtdEstoqueTotal();
+    Boolean getStatusDisponibilidade();
+
+    Integer getVendedorId();
+    String getVendedorNome();
+    String getVendedorEmail();
+    String getVendedorTelefone();
+    String getVendedorChavePix();
+
+    Integer getProdutoId();
+    String getProdutoNome();
+    UnidadeDeMedida getUnidadeMedida();
+    Double getMedida();
+    BigDecimal getPreco();
+    Integer getQtdEstoque();
+
+    Integer getCategoriaId();
+    String getCategoriaNome();
+}
@@ -1,9 +1,14 @@
 package br.edu.ifsc.sistemafeiracoletiva.repository;
 
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.Oferta;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -11,8 +16,63 @@ import java.util.List;
  * Herda métodos prontos para CRUD.
  */
 public interface OfertaRepository extends JpaRepository<Oferta, Integer> {
+
+    String COLUNAS_CATALOGO = "o.id AS ofertaId, o.titulo AS titulo, o.descricao AS descricao, " +
+            "o.qtdEstoqueTotal AS qtdEstoqueTotal, o.statusDisponibilidade AS statusDisponibilidade, " +
+            "v.id AS vendedorId, v.nome AS vendedorNome, v.email AS vendedorEmail, " +
+            "v.telefone AS vendedorTelefone, v.chavePix AS vendedorChavePix, " +
+            "p.id AS produtoId, p.nome AS produtoNome, p.unidadeMedida AS unidadeMedida, " +
+            "p.medida AS medida, p.preco AS preco, p.qtdEstoque AS qtdEstoque, " +
+            "c.id AS categoriaId, c.nome AS categoriaNome " +
+            "FROM Oferta o JOIN o.vendedor v " +
+            "LEFT JOIN o.produtos p LEFT JOIN p.categoria c ";
+
     @EntityGraph(attributePaths = {"produtos", "vendedor"})
     List<Oferta> findAll();
-    // Busca todas as ofertas onde status_disponibilidade é TRUE
-    List<Oferta> findByStatusDisponibilidadeTrue();
+
+    /**
+     * Busca o catálogo de ofertas disponíveis (status_disponibilidade TRUE) em uma única consulta,
+     * já com vendedor, produtos e categorias, ordenado por oferta e produto.
+     */
+    @Query("SELECT " + COLUNAS_CATALOGO +
+            "WHERE o.statusDisponibilidade = true " +
+            "ORDER BY o.id, p.id")
+    List<OfertaCatalogoProjection> findCatalogoDisponivel();
+
+    /**
+     * Mesmas linhas de findCatalogoDisponivel, só das ofertas informadas (atualização item a item do catálogo).
+     */
+    @Query("SELECT " + COLUNAS_CATALOGO +
+            "WHERE o.statusDisponibilidade = true AND o.id IN :ids " +
+            "ORDER BY o.id, p.id")
+    List<OfertaCatalogoProjection> findCatalogoDisponivelByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Página por cursor: ofertas com ID maior que o informado, em ordem crescente de ID.
+     * Traz só o vendedor; os produtos são carregados em lote (hibernate.default_batch_fetch_size),
+     * pois o fetch de coleção junto com LIMIT faria a paginação em memória.
+     */
+    @EntityGraph(attributePaths = {"vendedor"})
+    List<Oferta> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit);
+
+    /**
+     * IDs das próximas ofertas (cursor por ID), em ordem crescente: um bloco da listagem completa.
+     */
+    @Query("SELECT o.id FROM Oferta o WHERE o.id > :id ORDER BY o.id")
+    List<Integer> findIdsByIdGreaterThan(@Param("id") Integer id, Limit limit);
+
+    /**
+     * Ofertas dos IDs informados já com vendedor e produtos, em ordem de ID.
+     * Recebe IDs já paginados: o fetch da coleção não é combinado com LIMIT.
+     */
+    @Query("SELECT o FROM Oferta o JOIN FETCH o.vendedor LEFT JOIN FETCH o.produtos WHERE o.id IN :ids ORDER BY o.id")
+    List<Oferta> findComVendedorEProdutosByIdIn(@Param("ids") List<Integer> ids);
+
+    /**
+     * Ajusta o estoque total da oferta pela diferença informada (negativa na reserva),
+     * mantendo qtd_estoque_total igual à soma do estoque dos produtos.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Oferta o SET o.qtdEstoqueTotal = o.qtdEstoqueTotal + :delta WHERE o.id = :id")
+    int ajustarEstoqueTotal(@Param("id") Integer id, @Param("delta") int delta);
 }
@@ -1,9 +1,16 @@
 package br.edu.ifsc.sistemafeiracoletiva.repository;
 
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.Participante;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,5 +39,31 @@ public interface ParticipanteRepository extends JpaRepository<Participante, Inte
      * @return True se existir, false caso contrário.
      */
     boolean existsByClienteIdAndPublicacaoId(Integer clienteId, Integer publicacaoId);
-}
 
+    /**
+     * Busca a participação travando a linha (SELECT ... FOR UPDATE) até o fim da transação.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Participante p WHERE p.id = :id")
+    Optional<Participante> findParaAtualizarById(@Param("id") Integer id);
+
+    /**
+     * Entre os clientes informados, os que já participam da publicação (uma consulta por lote da fila).
+     */
+    @Query("SELECT p.cliente.id FROM Participante p WHERE p.publicacao.id = :publicacaoId AND p.cliente.id IN :clienteIds")
+    List<Integer> findIdsClientesPorPublicacao(@Param("publicacaoId") Integer publicacaoId,
+                                               @Param("clienteIds") Collection<Integer> clienteIds);
+
+    /**
+     * Página por cursor: registros com ID maior que o informado, em ordem crescente de ID.
+     * Já traz cliente, publicação, oferta e local de retirada.
+     */
+    @EntityGraph(attributePaths = {"cliente", "publicacao", "publicacao.oferta", "publicacao.localDeRetirada"})
+    List<Participante> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit);
+
+    /**
+     * Página por cursor dos participantes de uma publicação, já com o cliente.
+     */
+    @EntityGraph(attributePaths = {"cliente"})
+    List<Participante> findByPublicacaoIdAndIdGreaterThanOrderByIdAsc(Integer publicacaoId, Integer id, Limit limit);
+}
@@ -1,7 +1,17 @@
 package br.edu.ifsc.sistemafeiracoletiva.repository;
 
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.Pedido;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface PedidoRepository extends JpaRepository<Pedido, Integer> {
+
+    /**
+     * Pedidos de vários participantes em uma consulta, já com produto e categoria.
+     */
+    @EntityGraph(attributePaths = {"produto", "produto.categoria"})
+    List<Pedido> findByParticipanteIdInOrderByParticipanteIdAscIdAsc(Collection<Integer> participanteIds);
 }
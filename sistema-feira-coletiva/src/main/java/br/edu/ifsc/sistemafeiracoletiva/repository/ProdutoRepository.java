@@ -1,11 +1,57 @@
 package br.edu.ifsc.sistemafeiracoletiva.repository;
 
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.Produto;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Repositório JPA para a entidade Oferta.
  * Herda métodos prontos para CRUD.
  */
 public interface ProdutoRepository extends JpaRepository<Produto, Integer> {
+
+    /**
+     * Página por cursor: registros com ID maior que o informado, em ordem crescente de ID.
+     * Já traz a categoria.
+     */
+    @EntityGraph(attributePaths = {"categoria"})
+    List<Produto> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit);
+
+    /**
+     * Produtos de uma oferta com a categoria, em uma consulta (validação dos pedidos da participação).
+     */
+    @EntityGraph(attributePaths = {"categoria"})
+    List<Produto> findByOfertaIdOrderByIdAsc(Integer ofertaId);
+
+    /**
+     * Todos os produtos com categoria, oferta e vendedor (carga do índice de busca).
+     */
+    @Query("SELECT p FROM Produto p JOIN FETCH p.categoria JOIN FETCH p.oferta o JOIN FETCH o.vendedor")
+    List<Produto> findAllParaBusca();
+
+    /**
+     * Produtos das ofertas com categoria, oferta e vendedor (atualização do índice de busca).
+     */
+    @Query("SELECT p FROM Produto p JOIN FETCH p.categoria JOIN FETCH p.oferta o JOIN FETCH o.vendedor WHERE o.id IN :ofertaIds")
+    List<Produto> findParaBuscaPorOfertas(@Param("ofertaIds") Collection<Integer> ofertaIds);
+
+    /**
+     * Reserva estoque de forma atômica: só decrementa se ainda houver a quantidade pedida,
+     * descontados os pedidos reservados em memória que a descarga ainda não aplicou (estoque_pendente).
+     * O UPDATE trava a linha do produto até o fim da transação, então reservas concorrentes
+     * nunca deixam o estoque negativo.
+     * @return 1 se reservou, 0 se o estoque não era suficiente (ou o produto não existe).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Produto p SET p.qtdEstoque = p.qtdEstoque - :qtd WHERE p.id = :id"
+            + " AND p.qtdEstoque - COALESCE((SELECT SUM(pe.qtdProdutos) FROM Pedido pe"
+            + " WHERE pe.produto.id = p.id AND pe.estoquePendente = true), 0) >= :qtd")
+    int reservarEstoque(@Param("id") Integer id, @Param("qtd") int qtd);
 }
@@ -1,14 +1,56 @@
 package br.edu.ifsc.sistemafeiracoletiva.repository;
 
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Etapa;
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.Publicacao;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface PublicacaoRepository extends JpaRepository<Publicacao, Integer> {
+
+    /**
+     * Só a etapa da publicação, sem carregar a entidade (validação barata na fila de participações).
+     */
+    @Query("SELECT p.etapa FROM Publicacao p WHERE p.id = :id")
+    Optional<Etapa> findEtapaById(@Param("id") Integer id);
+
+    /**
+     * Todas as publicações em ordem de ID, já com local de retirada, oferta e vendedor
+     * (usado para montar o snapshot do catálogo).
+     */
+    @EntityGraph(attributePaths = {"localDeRetirada", "oferta", "oferta.vendedor"})
+    List<Publicacao> findAllByOrderByIdAsc();
+
+    /**
+     * Publicações pelos IDs, já com local de retirada, oferta e vendedor (regravação da publicacao_view).
+     */
+    @EntityGraph(attributePaths = {"localDeRetirada", "oferta", "oferta.vendedor"})
+    List<Publicacao> findByIdInOrderByIdAsc(Collection<Integer> ids);
+
+    @Query("SELECT p.id FROM Publicacao p WHERE p.oferta.id IN :ids")
+    List<Integer> findIdsPorOfertas(@Param("ids") Collection<Integer> idsOferta);
+
+    @Query("SELECT p.id FROM Publicacao p WHERE p.oferta.vendedor.id IN :ids")
+    List<Integer> findIdsPorVendedores(@Param("ids") Collection<Integer> idsVendedor);
+
+    @Query("SELECT p.id FROM Publicacao p WHERE p.localDeRetirada.id IN :ids")
+    List<Integer> findIdsPorLocaisDeRetirada(@Param("ids") Collection<Integer> idsLocalDeRetirada);
+
+    /**
+     * Publicações cuja oferta tem produto de alguma das categorias (o nome da categoria aparece no documento).
+     */
+    @Query("SELECT DISTINCT p.id FROM Publicacao p JOIN p.oferta.produtos pr WHERE pr.categoria.id IN :ids")
+    List<Integer> findIdsPorCategorias(@Param("ids") Collection<Integer> idsCategoria);
+
     /**
-     * ✅ NOVO: Busca todas as publicações criadas por um vendedor específico,
-     * utilizando a relação entre Publicacao -> Oferta -> Vendedor.
+     * Publicação com local de retirada, oferta, vendedor, produtos e categorias em uma consulta
+     * (cabeçalho de /api/publicacoes/{id}/detalhes).
      */
-    List<Publicacao> findByOfertaVendedorId(Integer vendedorId);
+    @EntityGraph(attributePaths = {"localDeRetirada", "oferta", "oferta.vendedor", "oferta.produtos", "oferta.produtos.categoria"})
+    Optional<Publicacao> findComOfertaById(Integer id);
 }
@@ -0,0 +1,23 @@
+package br.edu.ifsc.sistemafeiracoletiva.repository;
+
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.PublicacaoTotais;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Repositório JPA dos totais das publicações (publicacao_totais e publicacao_produto_totais).
+ * As escritas são incrementos em SQL feitos pelo PublicacaoTotaisService.
+ */
+public interface PublicacaoTotaisRepository extends JpaRepository<PublicacaoTotais, Integer> {
+
+    /**
+     * Totais por produto de uma publicação, em ordem de ID do produto (varredura da chave primária).
+     */
+    @Query("SELECT t.idProduto AS idProduto, p.nome AS nome, t.qtdReservada AS qtdReservada, t.valorTotal AS valorTotal"
+            + " FROM PublicacaoProdutoTotais t LEFT JOIN Produto p ON p.id = t.idProduto"
+            + " WHERE t.idPublicacao = :id ORDER BY t.idProduto")
+    List<TotalProdutoPublicacaoProjection> findProdutosPorPublicacao(@Param("id") Integer idPublicacao);
+}
@@ -0,0 +1,39 @@
+package br.edu.ifsc.sistemafeiracoletiva.repository;
+
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.PublicacaoView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositório JPA do modelo de leitura das publicações (publicacao_view).
+ */
+public interface PublicacaoViewRepository extends JpaRepository<PublicacaoView, Integer> {
+
+    List<PublicacaoView> findAllByOrderByIdPublicacaoAsc();
+
+    List<PublicacaoView> findByIdOfertaInOrderByIdPublicacaoAsc(Collection<Integer> idsOferta);
+
+    /**
+     * Documentos JSON das publicações de um vendedor (varredura do índice id_vendedor, id_publicacao).
+     */
+    @Query("SELECT v.documento FROM PublicacaoView v WHERE v.idVendedor = :idVendedor ORDER BY v.idPublicacao")
+    List<String> findDocumentosPorVendedor(@Param("idVendedor") Integer idVendedor);
+
+    @Query("SELECT v.idPublicacao FROM PublicacaoView v WHERE v.idOferta IN :ids")
+    List<Integer> findIdsPorOfertas(@Param("ids") Collection<Integer> idsOferta);
+
+    @Query("SELECT v.idPublicacao FROM PublicacaoView v WHERE v.idVendedor IN :ids")
+    List<Integer> findIdsPorVendedores(@Param("ids") Collection<Integer> idsVendedor);
+
+    @Query("SELECT v.idPublicacao FROM PublicacaoView v WHERE v.idLocalDeRetirada IN :ids")
+    List<Integer> findIdsPorLocaisDeRetirada(@Param("ids") Collection<Integer> idsLocalDeRetirada);
+
+    @Modifying
+    @Query("DELETE FROM PublicacaoView v WHERE v.idPublicacao IN :ids")
+    void deleteByIdPublicacaoIn(@Param("ids") Collection<Integer> ids);
+}
@@ -0,0 +1,13 @@
+package br.edu.ifsc.sistemafeiracoletiva.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Linha de publicacao_produto_totais com o nome do produto.
+ */
+public interface TotalProdutoPublicacaoProjection {
+    Integer getIdProduto();
+    String getNome();
+    Integer getQtdReservada();
+    BigDecimal getValorTotal();
+}
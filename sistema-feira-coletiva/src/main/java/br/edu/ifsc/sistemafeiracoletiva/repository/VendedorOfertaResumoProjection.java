@@ -0,0 +1,14 @@
+package br.edu.ifsc.sistemafeiracoletiva.repository;
+
+/**
+ * Projeção plana vendedor + oferta com só as colunas do ResumoOfertasVendedorDTO.
+ * Um vendedor com N ofertas gera N linhas (ou uma linha com oferta nula se não tiver ofertas).
+ */
+public interface VendedorOfertaResumoProjection {
+    Integer getVendedorId();
+    String getVendedorNome();
+
+    Integer getOfertaId();
+    String getTitulo();
+    Boolean getStatusDisponibilidade();
+}
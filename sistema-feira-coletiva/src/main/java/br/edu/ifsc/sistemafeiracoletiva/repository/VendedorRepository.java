@@ -1,8 +1,13 @@
 package br.edu.ifsc.sistemafeiracoletiva.repository;
 
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.Vendedor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -11,4 +16,32 @@ import java.util.Optional;
  */
 public interface VendedorRepository  extends JpaRepository<Vendedor, Integer> {
     Optional<Vendedor> findByEmail(String email);
+
+    /**
+     * Página por cursor: registros com ID maior que o informado, em ordem crescente de ID.
+     */
+    List<Vendedor> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit);
+
+    /**
+     * Página por cursor só com os IDs (base da listagem de vendedores e ofertas).
+     */
+    @Query("SELECT v.id FROM Vendedor v WHERE v.id > :id ORDER BY v.id")
+    List<Integer> findIdsByIdGreaterThan(@Param("id") Integer id, Limit limit);
+
+    /**
+     * Vendedores informados com o resumo das suas ofertas, em uma única consulta.
+     * O filtro de disponibilidade fica no ON: vendedor sem ofertas no filtro continua na lista, sem ofertas.
+     *
+     * @param status filtra por statusDisponibilidade (nulo = todas as ofertas).
+     */
+    @Query("""
+            SELECT v.id AS vendedorId, v.nome AS vendedorNome,
+                   o.id AS ofertaId, o.titulo AS titulo, o.statusDisponibilidade AS statusDisponibilidade
+            FROM Vendedor v
+            LEFT JOIN v.ofertas o ON (:status IS NULL OR o.statusDisponibilidade = :status)
+            WHERE v.id IN :ids
+            ORDER BY v.id, o.id
+            """)
+    List<VendedorOfertaResumoProjection> findResumoOfertas(@Param("ids") Collection<Integer> ids,
+                                                           @Param("status") Boolean status);
 }
@@ -3,14 +3,26 @@ package br.edu.ifsc.sistemafeiracoletiva.service;
 
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.Cliente;
 import br.edu.ifsc.sistemafeiracoletiva.repository.ClienteRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Serviço responsável pela autenticação do cliente:
  * ✅ Validar credenciais (email e senha).
  * ✅ Gerar JWT ao autenticar com sucesso.
+ * ✅ Limitar tentativas por email e por IP e executar o BCrypt em um executor dedicado.
  */
 @Service // Componente Spring injetável
 public class AuthService {
@@ -19,11 +31,68 @@ public class AuthService {
     private ClienteRepository clienteRepository; // Para buscar o cliente no banco
 
     @Autowired
-    private JwtService jwtService; // Para gerar e validar tokens
+    private JwtService jwtService; // Para gerar tokens
 
     @Autowired
     private PasswordEncoder passwordEncoder; // Para validar senha criptografada
 
+    @Autowired
+    @Qualifier("loginExecutor")
+    private ThreadPoolExecutor loginExecutor; // Pool limitado para o BCrypt (LoginExecutorConfig)
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${auth.throttle.email.capacidade:5}")
+    private int capacidadeEmail;
+
+    @Value("${auth.throttle.email.recarga-por-minuto:5}")
+    private int recargaEmail;
+
+    @Value("${auth.throttle.ip.capacidade:20}")
+    private int capacidadeIp;
+
+    @Value("${auth.throttle.ip.recarga-por-minuto:20}")
+    private int recargaIp;
+
+    private LimitadorTaxa limitadorEmail;
+    private LimitadorTaxa limitadorIp;
+    private Timer tempoHash;
+
+    @PostConstruct
+    void inicializar() {
+        this.limitadorEmail = new LimitadorTaxa(capacidadeEmail, recargaEmail);
+        this.limitadorIp = new LimitadorTaxa(capacidadeIp, recargaIp);
+        this.tempoHash = Timer.builder("auth.login.hash")
+                .description("Tempo de verificação da senha (BCrypt)")
+                .register(registry);
+    }
+
+    /**
+     * Autentica o cliente fora da thread da requisição.
+     * Aplica a limitação por IP e por email antes de enfileirar a verificação.
+     *
+     * @param email do cliente.
+     * @param senha em texto plano fornecida pelo cliente.
+     * @param ip endereço de origem da requisição.
+     * @return futuro com o token JWT gerado.
+     * @throws ResponseStatusException 429 se o IP ou o email excederam a taxa,
+     * 503 se a fila de verificação estiver cheia.
+     */
+    public CompletableFuture<String> autenticarClienteAsync(String email, String senha, String ip) {
+        if (!limitadorIp.tentarConsumir(ip) || !limitadorEmail.tentarConsumir(email)) {
+            registry.counter("auth.login.rejeitados", "motivo", "taxa").increment();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Muitas tentativas de login. Tente novamente em instantes.");
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(() -> autenticarCliente(email, senha), loginExecutor);
+        } catch (RejectedExecutionException e) {
+            registry.counter("auth.login.rejeitados", "motivo", "fila").increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Serviço de login sobrecarregado. Tente novamente em instantes.");
+        }
+    }
+
     /**
      * Autentica o cliente usando email e senha.
      * Se válidos, retorna o token JWT gerado.
@@ -39,11 +108,18 @@ public class AuthService {
                 .orElseThrow(() -> new RuntimeException("Cliente não encontrado com o email fornecido."));
 
         // Valida a senha usando o PasswordEncoder
-        if (!passwordEncoder.matches(senha, cliente.getSenha())) {
+        boolean senhaValida = tempoHash.record(() -> passwordEncoder.matches(senha, cliente.getSenha()));
+        if (!senhaValida) {
             throw new RuntimeException("Senha incorreta.");
         }
 
-        // Gera o token JWT usando o email do cliente
-        return jwtService.generateToken(email);
+        // Hash com custo diferente do configurado (ou sem prefixo de algoritmo): regrava com o custo alvo
+        if (passwordEncoder.upgradeEncoding(cliente.getSenha())) {
+            cliente.setSenha(passwordEncoder.encode(senha));
+            clienteRepository.save(cliente);
+        }
+
+        // Gera o token JWT com os dados do cliente
+        return jwtService.generateToken(cliente);
     }
 }
@@ -0,0 +1,394 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.dto.BuscaOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.FacetaDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.ResultadoBuscaDTO;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Produto;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.UnidadeDeMedida;
+import br.edu.ifsc.sistemafeiracoletiva.repository.ProdutoRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Busca textual de produtos em memória (índice invertido).
+ * ✅ Indexa nome do produto, título e descrição da oferta e nome da categoria, sem acentos.
+ * ✅ Cada termo da consulta casa por prefixo ("tom" encontra "tomate"); todos os termos devem casar.
+ * ✅ Resultados ordenados por relevância (peso do campo, termo exato vale mais que prefixo),
+ * com contagens por categoria, unidade de medida e vendedor.
+ * ✅ Atualizado a cada alteração do catálogo (CatalogoAlteradoEvent) ou do estoque (EstoqueAlteradoEvent),
+ * só nas ofertas alteradas quando possível.
+ * ✅ As atualizações rodam em uma única thread (BuscaExecutorConfig), fora da thread do commit: a leitura do banco
+ * e a aplicação no índice seguem a ordem de execução, então uma leitura antiga nunca sobrescreve uma mais nova.
+ * Ofertas alteradas enquanto uma atualização roda são agrupadas na próxima.
+ */
+@Slf4j
+@Service
+public class BuscaService {
+
+    private static final float PESO_NOME = 3f;
+    private static final float PESO_CATEGORIA = 2f;
+    private static final float PESO_TITULO = 2f;
+    private static final float PESO_DESCRICAO = 1f;
+    private static final double FATOR_PREFIXO = 0.6; // Termo indexado só começa com o termo buscado
+
+    private static final int LIMITE_PADRAO = 20;
+    private static final int LIMITE_MAXIMO = 100;
+    private static final int MAX_OFERTAS_REINDEXADAS = 500; // Acima disso (ex: importação) o índice é remontado
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("buscaExecutor")
+    private ThreadPoolExecutor buscaExecutor; // Atualizações do índice, uma por vez (BuscaExecutorConfig)
+
+    private final Set<Integer> ofertasPendentes = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean remontagemPendente = new AtomicBoolean();
+    private final AtomicBoolean agendada = new AtomicBoolean();
+
+    private final ReadWriteLock trava = new ReentrantReadWriteLock();
+    private final Map<Integer, Documento> documentos = new HashMap<>(); // ID do produto -> documento
+    private final Map<Integer, Set<Integer>> produtosPorOferta = new HashMap<>();
+    private final TreeMap<String, Map<Integer, Float>> indice = new TreeMap<>(); // termo -> (ID do produto -> peso)
+    private TransactionTemplate transacao;
+
+    /**
+     * Produto indexado, com os dados exibidos no resultado e os pesos dos seus termos.
+     */
+    private record Documento(int idProduto, String nome, int idCategoria, String categoria,
+                             UnidadeDeMedida unidadeMedida, Double medida, BigDecimal preco, Integer qtdEstoque,
+                             int idOferta, String tituloOferta, Boolean statusDisponibilidade,
+                             int idVendedor, String nomeVendedor, Map<String, Float> termos) {
+    }
+
+    @PostConstruct
+    void inicializar() {
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.transacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transacao.setReadOnly(true);
+    }
+
+    /**
+     * Monta o índice quando a aplicação sobe.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarInicial() {
+        remontagemPendente.set(true);
+        agendar();
+    }
+
+    /**
+     * Atualiza o índice depois do commit de uma alteração do catálogo.
+     * Alteração de uma oferta (ou dos seus produtos) reindexa só aquela oferta;
+     * categorias e vendedores aparecem em vários produtos, então o índice é remontado.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarCatalogo(CatalogoAlteradoEvent evento) {
+        switch (evento.agregado()) {
+            case OFERTA -> {
+                if (evento.ids() == null) {
+                    remontagemPendente.set(true);
+                } else {
+                    ofertasPendentes.addAll(evento.ids());
+                }
+                agendar();
+            }
+            case CATEGORIA, VENDEDOR -> {
+                remontagemPendente.set(true);
+                agendar();
+            }
+            default -> {
+                // Publicações e locais de retirada não fazem parte do índice
+            }
+        }
+    }
+
+    /**
+     * Reindexa as ofertas cujo estoque mudou, depois do commit (a quantidade em estoque aparece no resultado).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarEstoque(EstoqueAlteradoEvent evento) {
+        ofertasPendentes.addAll(evento.ofertas());
+        agendar();
+    }
+
+    /**
+     * Espera as atualizações do índice já agendadas terminarem (testes e benchmark).
+     */
+    void aguardarAtualizacoes() {
+        try {
+            buscaExecutor.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Busca produtos pelo texto e filtros informados.
+     *
+     * @param texto termos da busca (vazio = todos os produtos, filtrados pelos demais parâmetros).
+     * @param idCategoria filtro opcional por categoria.
+     * @param unidadeMedida filtro opcional por unidade de medida (KG, ML, UN).
+     * @param idVendedor filtro opcional por vendedor.
+     * @param limit quantidade máxima de resultados (padrão 20, máximo 100).
+     * @return resultados por relevância e contagens por categoria, unidade e vendedor.
+     * @throws ResponseStatusException 400 se a unidade ou o limite forem inválidos.
+     */
+    public BuscaOutputDTO buscar(String texto, Integer idCategoria, String unidadeMedida, Integer idVendedor, Integer limit) {
+        int limite = limit == null ? LIMITE_PADRAO : limit;
+        if (limite < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O parâmetro limit deve ser maior que zero.");
+        }
+        limite = Math.min(limite, LIMITE_MAXIMO);
+        UnidadeDeMedida unidade = converterUnidade(unidadeMedida);
+        List<String> consulta = NormalizadorTexto.termos(texto);
+
+        trava.readLock().lock();
+        try {
+            Map<Integer, Double> pontuacao = consulta.isEmpty() ? todosComPontuacaoZero() : pontuar(consulta);
+
+            List<Documento> encontrados = new ArrayList<>();
+            for (Integer idProduto : pontuacao.keySet()) {
+                Documento d = documentos.get(idProduto);
+                if ((idCategoria == null || d.idCategoria() == idCategoria)
+                        && (unidade == null || d.unidadeMedida() == unidade)
+                        && (idVendedor == null || d.idVendedor() == idVendedor)) {
+                    encontrados.add(d);
+                }
+            }
+
+            encontrados.sort(Comparator.comparingDouble((Documento d) -> -pontuacao.get(d.idProduto()))
+                    .thenComparingInt(Documento::idProduto));
+
+            List<ResultadoBuscaDTO> resultados = encontrados.stream()
+                    .limit(limite)
+                    .map(d -> toResultadoDTO(d, pontuacao.get(d.idProduto())))
+                    .toList();
+
+            return new BuscaOutputDTO(
+                    encontrados.size(),
+                    resultados,
+                    facetas(encontrados, d -> String.valueOf(d.idCategoria()), Documento::categoria),
+                    facetas(encontrados, d -> d.unidadeMedida().name(), d -> d.unidadeMedida().name()),
+                    facetas(encontrados, d -> String.valueOf(d.idVendedor()), Documento::nomeVendedor)
+            );
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Soma, para cada produto, a melhor pontuação de cada termo da consulta.
+     * Produtos que não casam com algum dos termos ficam de fora.
+     */
+    private Map<Integer, Double> pontuar(List<String> consulta) {
+        Map<Integer, Double> pontuacao = null;
+        for (String termo : consulta) {
+            Map<Integer, Double> doTermo = new HashMap<>();
+            for (Map.Entry<String, Map<Integer, Float>> indexado
+                    : indice.subMap(termo, true, termo + Character.MAX_VALUE, true).entrySet()) {
+                double fator = indexado.getKey().length() == termo.length() ? 1.0 : FATOR_PREFIXO;
+                for (Map.Entry<Integer, Float> ocorrencia : indexado.getValue().entrySet()) {
+                    doTermo.merge(ocorrencia.getKey(), ocorrencia.getValue() * fator, Math::max);
+                }
+            }
+
+            if (pontuacao == null) {
+                pontuacao = doTermo;
+            } else {
+                pontuacao.keySet().retainAll(doTermo.keySet());
+                pontuacao.replaceAll((idProduto, valor) -> valor + doTermo.get(idProduto));
+            }
+            if (pontuacao.isEmpty()) {
+                break;
+            }
+        }
+        return pontuacao;
+    }
+
+    private Map<Integer, Double> todosComPontuacaoZero() {
+        Map<Integer, Double> pontuacao = new HashMap<>();
+        for (Integer idProduto : documentos.keySet()) {
+            pontuacao.put(idProduto, 0.0);
+        }
+        return pontuacao;
+    }
+
+    private List<FacetaDTO> facetas(List<Documento> encontrados,
+                                    Function<Documento, String> valor,
+                                    Function<Documento, String> rotulo) {
+        Map<String, FacetaDTO> porValor = new HashMap<>();
+        for (Documento d : encontrados) {
+            FacetaDTO faceta = porValor.computeIfAbsent(valor.apply(d), v -> new FacetaDTO(v, rotulo.apply(d), 0));
+            faceta.setQuantidade(faceta.getQuantidade() + 1);
+        }
+        List<FacetaDTO> lista = new ArrayList<>(porValor.values());
+        lista.sort(Comparator.comparing(FacetaDTO::getQuantidade).reversed().thenComparing(FacetaDTO::getRotulo));
+        return lista;
+    }
+
+    private UnidadeDeMedida converterUnidade(String unidadeMedida) {
+        if (unidadeMedida == null || unidadeMedida.isBlank()) {
+            return null;
+        }
+        try {
+            return UnidadeDeMedida.valueOf(unidadeMedida.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unidade de medida inválida: " + unidadeMedida);
+        }
+    }
+
+    /**
+     * Agenda uma atualização na thread do índice, se ainda não houver uma agendada e não iniciada.
+     */
+    private void agendar() {
+        if (agendada.compareAndSet(false, true)) {
+            buscaExecutor.execute(this::atualizar);
+        }
+    }
+
+    /**
+     * Aplica as alterações pendentes: remonta o índice ou reindexa as ofertas acumuladas.
+     * Acima de MAX_OFERTAS_REINDEXADAS ofertas (ex: importação) o índice é remontado.
+     */
+    private void atualizar() {
+        agendada.set(false); // Alteração que chegar daqui em diante agenda a próxima atualização
+        Set<Integer> ofertas = new HashSet<>();
+        for (Iterator<Integer> it = ofertasPendentes.iterator(); it.hasNext(); ) {
+            ofertas.add(it.next());
+            it.remove();
+        }
+        try {
+            if (remontagemPendente.getAndSet(false) || ofertas.size() > MAX_OFERTAS_REINDEXADAS) {
+                reconstruir(); // A leitura completa já inclui as ofertas pendentes
+            } else if (!ofertas.isEmpty()) {
+                reindexarOfertas(ofertas);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha ao atualizar o índice de busca (ofertas {}).", ofertas, e);
+        }
+    }
+
+    /**
+     * Remonta o índice inteiro a partir do banco.
+     */
+    private void reconstruir() {
+        carregar(transacao.execute(status -> produtoRepository.findAllParaBusca()));
+    }
+
+    /**
+     * Substitui o índice inteiro pelos produtos informados (com categoria, oferta e vendedor carregados).
+     * Usado também pelo BuscaServiceBenchmark, sem banco.
+     */
+    void carregar(Collection<Produto> produtos) {
+        List<Documento> novos = produtos.stream()
+                .map(this::toDocumento)
+                .toList();
+
+        trava.writeLock().lock();
+        try {
+            documentos.clear();
+            produtosPorOferta.clear();
+            indice.clear();
+            novos.forEach(this::adicionar);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Substitui no índice os produtos das ofertas (removidos, alterados ou novos).
+     */
+    private void reindexarOfertas(Set<Integer> idsOferta) {
+        List<Documento> novos = transacao.execute(status -> produtoRepository.findParaBuscaPorOfertas(idsOferta)
+                .stream()
+                .map(this::toDocumento)
+                .toList());
+
+        trava.writeLock().lock();
+        try {
+            for (Integer idOferta : idsOferta) {
+                for (Integer idProduto : new ArrayList<>(produtosPorOferta.getOrDefault(idOferta, Set.of()))) {
+                    remover(idProduto);
+                }
+            }
+            novos.forEach(this::adicionar);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    private void adicionar(Documento d) {
+        remover(d.idProduto()); // Produto pode ter mudado de oferta
+        documentos.put(d.idProduto(), d);
+        produtosPorOferta.computeIfAbsent(d.idOferta(), id -> new HashSet<>()).add(d.idProduto());
+        d.termos().forEach((termo, peso) -> indice.computeIfAbsent(termo, t -> new HashMap<>()).put(d.idProduto(), peso));
+    }
+
+    private void remover(int idProduto) {
+        Documento d = documentos.remove(idProduto);
+        if (d == null) {
+            return;
+        }
+        Set<Integer> daOferta = produtosPorOferta.get(d.idOferta());
+        if (daOferta != null && daOferta.remove(idProduto) && daOferta.isEmpty()) {
+            produtosPorOferta.remove(d.idOferta());
+        }
+        for (String termo : d.termos().keySet()) {
+            Map<Integer, Float> ocorrencias = indice.get(termo);
+            if (ocorrencias != null && ocorrencias.remove(idProduto) != null && ocorrencias.isEmpty()) {
+                indice.remove(termo);
+            }
+        }
+    }
+
+    private Documento toDocumento(Produto p) {
+        // Termo que aparece em mais de um campo soma os pesos
+        Map<String, Float> termos = new HashMap<>();
+        NormalizadorTexto.termos(p.getNome()).forEach(t -> termos.merge(t, PESO_NOME, Float::sum));
+        NormalizadorTexto.termos(p.getCategoria().getNome()).forEach(t -> termos.merge(t, PESO_CATEGORIA, Float::sum));
+        NormalizadorTexto.termos(p.getOferta().getTitulo()).forEach(t -> termos.merge(t, PESO_TITULO, Float::sum));
+        NormalizadorTexto.termos(p.getOferta().getDescricao()).forEach(t -> termos.merge(t, PESO_DESCRICAO, Float::sum));
+
+        return new Documento(
+                p.getId(), p.getNome(), p.getCategoria().getId(), p.getCategoria().getNome(),
+                p.getUnidadeMedida(), p.getMedida(), p.getPreco(), p.getQtdEstoque(),
+                p.getOferta().getId(), p.getOferta().getTitulo(), p.getOferta().getStatusDisponibilidade(),
+                p.getOferta().getVendedor().getId(), p.getOferta().getVendedor().getNome(),
+                Map.copyOf(termos)
+        );
+    }
+
+    private ResultadoBuscaDTO toResultadoDTO(Documento d, double relevancia) {
+        return new ResultadoBuscaDTO(
+                d.idProduto(), d.nome(), d.categoria(), d.unidadeMedida().toString(), d.medida(), d.preco(), d.qtdEstoque(),
+                d.idOferta(), d.tituloOferta(), d.statusDisponibilidade(), d.idVendedor(), d.nomeVendedor(), relevancia
+        );
+    }
+}
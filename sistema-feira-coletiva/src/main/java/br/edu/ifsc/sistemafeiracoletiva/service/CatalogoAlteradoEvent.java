@@ -0,0 +1,37 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Evento publicado pelos serviços sempre que um dado exibido no catálogo é alterado.
+ * Ouvido pelo CatalogoSnapshotService após o commit da transação.
+ * Alterações que só mudam o estoque das ofertas publicam EstoqueAlteradoEvent.
+ *
+ * @param agregado tipo de dado alterado.
+ * @param ids IDs dos registros alterados (vários no cadastro em lote), ou nulo quando não se sabe quais mudaram.
+ */
+public record CatalogoAlteradoEvent(Agregado agregado, Set<Integer> ids) {
+
+    public enum Agregado {
+        OFERTA, // Inclui alterações nos produtos da oferta (id = ID da oferta)
+        PUBLICACAO,
+        CATEGORIA,
+        LOCAL_DE_RETIRADA,
+        VENDEDOR
+    }
+
+    /**
+     * Alteração de um registro (id nulo: não se sabe qual mudou).
+     */
+    public CatalogoAlteradoEvent(Agregado agregado, Integer id) {
+        this(agregado, id == null ? null : Set.of(id));
+    }
+
+    /**
+     * Alteração de vários registros (ex: cadastro em lote).
+     */
+    public static CatalogoAlteradoEvent emLote(Agregado agregado, Collection<Integer> ids) {
+        return new CatalogoAlteradoEvent(agregado, Set.copyOf(ids));
+    }
+}
@@ -0,0 +1,469 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.dto.CategoriaOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.LocalDeRetiradaOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.OfertaOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.PublicacaoView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Snapshot em memória das leituras do catálogo (ofertas disponíveis, publicações, categorias
+ * e locais de retirada), guardado como JSON já serializado por item.
+ * ✅ Os GETs do catálogo devolvem os bytes prontos, sem Hibernate nem Jackson por requisição.
+ * ✅ Após cada commit que altera o catálogo (CatalogoAlteradoEvent) ou o estoque (EstoqueAlteradoEvent),
+ * as ofertas e publicações alteradas são substituídas item a item, com a trava só da seção.
+ * ✅ Alterações que exigem remontar uma seção inteira só a descartam na thread do commit; a remontagem
+ * roda na thread catalogo-snapshot e pedidos repetidos para a mesma seção viram uma só.
+ * ✅ As publicações vêm já serializadas da publicacao_view (PublicacaoViewService).
+ */
+@Slf4j
+@Service
+public class CatalogoSnapshotService {
+
+    private static final int MAX_ITENS_SUBSTITUIDOS = 500; // Acima disso a seção é remontada em segundo plano
+
+    /**
+     * Seções do snapshot, uma por endpoint servido.
+     */
+    enum Secao {
+        OFERTAS_DISPONIVEIS,
+        PUBLICACOES,
+        CATEGORIAS,
+        LOCAIS_DE_RETIRADA
+    }
+
+    @Autowired
+    private OfertaService ofertaService;
+
+    @Autowired
+    private PublicacaoViewService publicacaoViewService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private LocalDeRetiradaService localDeRetiradaService;
+
+    @Autowired
+    private PaginacaoKeyset paginacao;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("catalogoExecutor")
+    private ThreadPoolExecutor catalogoExecutor; // Remontagens fora da thread do commit (CatalogoExecutorConfig)
+
+    private final Map<Secao, Conteudo> conteudos = new ConcurrentHashMap<>();
+    private final Map<Secao, EstadoSecao> estados = new EnumMap<>(Secao.class);
+    private final Set<Secao> agendadas = ConcurrentHashMap.newKeySet();
+    private TransactionTemplate transacao;
+
+    /**
+     * Controle de montagem de uma seção. Substituições item a item e a instalação de uma seção
+     * remontada acontecem com a trava da seção; a leitura do banco da remontagem, sem ela.
+     */
+    private static final class EstadoSecao {
+        private final ReentrantLock trava = new ReentrantLock();
+        private final Object montagem = new Object(); // Uma remontagem da seção por vez
+        private boolean montando;
+        private boolean descartadaNaMontagem; // Alteração em lote durante a leitura: a leitura é refeita
+        private final List<Runnable> alteracoesNaMontagem = new ArrayList<>(); // Reaplicadas após instalar
+    }
+
+    @PostConstruct
+    void inicializar() {
+        // Transação própria: o listener roda depois do commit da transação que publicou o evento
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.transacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transacao.setReadOnly(true);
+        for (Secao secao : Secao.values()) {
+            estados.put(secao, new EstadoSecao());
+        }
+    }
+
+    /**
+     * Monta todas as seções assim que a aplicação sobe, antes do primeiro GET.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarInicial() {
+        for (Secao secao : Secao.values()) {
+            try {
+                reconstruir(secao);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao montar a seção {} do catálogo; será montada no primeiro acesso.", secao, e);
+            }
+        }
+    }
+
+    /**
+     * Atualiza as seções afetadas depois do commit (ou na hora, se não houver transação).
+     * Ofertas e publicações identificadas são substituídas aqui; seções que precisam ser remontadas
+     * são descartadas aqui (nenhum GET recebe o conteúdo antigo com a ETag nova) e remontadas em segundo plano.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE + 100) // Antes do VersaoAgregadoService trocar a ETag
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarCatalogo(CatalogoAlteradoEvent evento) {
+        try {
+            switch (evento.agregado()) {
+                case OFERTA -> {
+                    if (evento.ids() == null) {
+                        remontar(Secao.OFERTAS_DISPONIVEIS, Secao.PUBLICACOES);
+                    } else {
+                        atualizarOfertas(evento.ids());
+                    }
+                }
+                case PUBLICACAO -> {
+                    if (evento.ids() == null) {
+                        remontar(Secao.PUBLICACOES);
+                    } else {
+                        atualizarPublicacoes(evento.ids());
+                    }
+                }
+                case CATEGORIA -> remontar(Secao.CATEGORIAS, Secao.OFERTAS_DISPONIVEIS, Secao.PUBLICACOES);
+                case LOCAL_DE_RETIRADA -> remontar(Secao.LOCAIS_DE_RETIRADA, Secao.PUBLICACOES);
+                case VENDEDOR -> remontar(Secao.OFERTAS_DISPONIVEIS, Secao.PUBLICACOES);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha ao atualizar o catálogo após {}; seções afetadas serão remontadas.", evento, e);
+            remontar(Secao.values());
+        }
+    }
+
+    /**
+     * Atualiza as ofertas cujo estoque mudou, depois do commit (a publicacao_view já foi regravada).
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE + 100) // Antes do VersaoAgregadoService trocar a ETag
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarEstoque(EstoqueAlteradoEvent evento) {
+        try {
+            atualizarOfertas(evento.ofertas());
+        } catch (RuntimeException e) {
+            log.warn("Falha ao atualizar o catálogo após {}; seções afetadas serão remontadas.", evento, e);
+            remontar(Secao.OFERTAS_DISPONIVEIS, Secao.PUBLICACOES);
+        }
+    }
+
+    /**
+     * Substitui as ofertas informadas (removendo as que deixaram de estar disponíveis)
+     * e as publicações dessas ofertas. Muitas ofertas de uma vez (ex: importação) remontam as seções.
+     */
+    private void atualizarOfertas(Set<Integer> ofertaIds) {
+        if (ofertaIds.size() > MAX_ITENS_SUBSTITUIDOS) {
+            remontar(Secao.OFERTAS_DISPONIVEIS, Secao.PUBLICACOES);
+            return;
+        }
+        atualizarItens(Secao.OFERTAS_DISPONIVEIS,
+                () -> serializar(ofertaService.listarOfertasDisponiveis(ofertaIds), OfertaOutputDTO::getId), ofertaIds);
+        atualizarItens(Secao.PUBLICACOES, () -> doDocumentos(publicacaoViewService.listarPorOfertas(ofertaIds)), Set.of());
+    }
+
+    /**
+     * JSON (array) das ofertas com status de disponibilidade TRUE.
+     */
+    public byte[] ofertasDisponiveis() {
+        return obter(Secao.OFERTAS_DISPONIVEIS).lista();
+    }
+
+    /**
+     * JSON de uma página de publicações, no mesmo formato de PaginaOutputDTO.
+     */
+    public byte[] publicacoes(String after, Integer limit) {
+        return pagina(Secao.PUBLICACOES, after, limit);
+    }
+
+    /**
+     * JSON de uma página de categorias, no mesmo formato de PaginaOutputDTO.
+     */
+    public byte[] categorias(String after, Integer limit) {
+        return pagina(Secao.CATEGORIAS, after, limit);
+    }
+
+    /**
+     * JSON de uma página de locais de retirada, no mesmo formato de PaginaOutputDTO.
+     */
+    public byte[] locaisDeRetirada(String after, Integer limit) {
+        return pagina(Secao.LOCAIS_DE_RETIRADA, after, limit);
+    }
+
+    private byte[] pagina(Secao secao, String after, Integer limit) {
+        int tamanho = paginacao.tamanhoPagina(limit);
+        int ultimoId = paginacao.decodificarCursor(after);
+        return obter(secao).pagina(ultimoId, tamanho, paginacao);
+    }
+
+    /**
+     * Conteúdo da seção; se foi descartada e a remontagem ainda não terminou, remonta (ou espera) aqui.
+     */
+    private Conteudo obter(Secao secao) {
+        Conteudo conteudo = conteudos.get(secao);
+        return conteudo != null ? conteudo : reconstruir(secao);
+    }
+
+    /**
+     * Descarta as seções e agenda a remontagem na thread do catálogo.
+     * Uma seção já agendada e ainda não iniciada não é agendada de novo.
+     */
+    private void remontar(Secao... secoes) {
+        for (Secao secao : secoes) {
+            EstadoSecao estado = estados.get(secao);
+            estado.trava.lock();
+            try {
+                conteudos.remove(secao);
+                if (estado.montando) {
+                    estado.descartadaNaMontagem = true;
+                }
+            } finally {
+                estado.trava.unlock();
+            }
+            if (agendadas.add(secao)) {
+                catalogoExecutor.execute(() -> {
+                    agendadas.remove(secao);
+                    try {
+                        reconstruir(secao);
+                    } catch (RuntimeException e) {
+                        log.warn("Falha ao remontar a seção {} do catálogo; será montada no próximo acesso.", secao, e);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Remonta uma seção inteira a partir do banco, se ainda não estiver montada.
+     * A leitura roda sem a trava da seção; substituições item a item feitas durante a leitura
+     * são reaplicadas depois de instalar, e um descarte durante a leitura faz a leitura recomeçar.
+     */
+    private Conteudo reconstruir(Secao secao) {
+        EstadoSecao estado = estados.get(secao);
+        synchronized (estado.montagem) {
+            while (true) {
+                Conteudo pronto = conteudos.get(secao);
+                if (pronto != null) {
+                    return pronto; // Montada por outra thread enquanto esta esperava
+                }
+                estado.trava.lock();
+                try {
+                    estado.montando = true;
+                    estado.descartadaNaMontagem = false;
+                    estado.alteracoesNaMontagem.clear();
+                } finally {
+                    estado.trava.unlock();
+                }
+
+                Conteudo conteudo;
+                try {
+                    conteudo = transacao.execute(status -> ler(secao));
+                } finally {
+                    estado.trava.lock();
+                    estado.montando = false;
+                    estado.trava.unlock();
+                }
+
+                estado.trava.lock();
+                try {
+                    if (!estado.descartadaNaMontagem) {
+                        conteudos.put(secao, conteudo);
+                        try {
+                            estado.alteracoesNaMontagem.forEach(Runnable::run);
+                            return conteudos.get(secao);
+                        } catch (RuntimeException e) {
+                            // A seção foi descartada pela substituição que falhou: a leitura é refeita
+                            log.warn("Falha ao reaplicar alteração na seção {} do catálogo.", secao, e);
+                        }
+                    }
+                    estado.alteracoesNaMontagem.clear();
+                } finally {
+                    estado.trava.unlock();
+                }
+            }
+        }
+    }
+
+    private Conteudo ler(Secao secao) {
+        return switch (secao) {
+            case OFERTAS_DISPONIVEIS -> serializar(ofertaService.listarOfertasDisponiveis(), OfertaOutputDTO::getId);
+            case PUBLICACOES -> doDocumentos(publicacaoViewService.listarTodas());
+            case CATEGORIAS -> serializar(categoriaService.listarTodas(), CategoriaOutputDTO::getId);
+            case LOCAIS_DE_RETIRADA -> serializar(localDeRetiradaService.listarTodos(), LocalDeRetiradaOutputDTO::getId);
+        };
+    }
+
+    private void atualizarPublicacoes(Set<Integer> publicacaoIds) {
+        if (publicacaoIds.size() > MAX_ITENS_SUBSTITUIDOS) {
+            remontar(Secao.PUBLICACOES);
+            return;
+        }
+        atualizarItens(Secao.PUBLICACOES, () -> doDocumentos(publicacaoViewService.buscarPorIds(publicacaoIds)),
+                publicacaoIds);
+    }
+
+    /**
+     * Substitui apenas os itens recarregados; IDs candidatos que não voltarem da consulta são removidos.
+     * Seção não montada não é alterada (será montada por completo); seção em montagem recebe
+     * a substituição de novo depois de instalada, pois a leitura pode ser anterior a esta alteração.
+     */
+    private void atualizarItens(Secao secao, Supplier<Conteudo> consulta, Set<Integer> candidatos) {
+        EstadoSecao estado = estados.get(secao);
+        Runnable substituicao = () -> substituirItens(secao, consulta, candidatos);
+        estado.trava.lock();
+        try {
+            if (estado.montando) {
+                estado.alteracoesNaMontagem.add(substituicao);
+            }
+            substituicao.run();
+        } finally {
+            estado.trava.unlock();
+        }
+    }
+
+    /**
+     * Deve ser chamado com a trava da seção. Se a consulta falhar, a seção é descartada.
+     */
+    private void substituirItens(Secao secao, Supplier<Conteudo> consulta, Set<Integer> candidatos) {
+        Conteudo atual = conteudos.get(secao);
+        if (atual == null) {
+            return;
+        }
+        try {
+            Conteudo novos = transacao.execute(status -> consulta.get());
+            Set<Integer> removidos = new HashSet<>(candidatos);
+            for (int novoId : novos.ids) {
+                removidos.remove(novoId);
+            }
+            conteudos.put(secao, atual.comAlteracoes(novos, removidos));
+        } catch (RuntimeException e) {
+            conteudos.remove(secao);
+            throw e;
+        }
+    }
+
+    private <D> Conteudo serializar(List<D> itens, Function<D, Integer> id) {
+        TreeMap<Integer, byte[]> porId = new TreeMap<>();
+        for (D item : itens) {
+            try {
+                porId.put(id.apply(item), objectMapper.writeValueAsBytes(item));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Falha ao serializar item do catálogo", e);
+            }
+        }
+        return new Conteudo(porId);
+    }
+
+    /**
+     * Usa o JSON já gravado na publicacao_view, sem passar pelo Jackson.
+     */
+    private Conteudo doDocumentos(List<PublicacaoView> linhas) {
+        TreeMap<Integer, byte[]> porId = new TreeMap<>();
+        for (PublicacaoView linha : linhas) {
+            porId.put(linha.getIdPublicacao(), linha.getDocumento().getBytes(StandardCharsets.UTF_8));
+        }
+        return new Conteudo(porId);
+    }
+
+    /**
+     * Conteúdo imutável de uma seção: IDs em ordem crescente e o JSON de cada item.
+     */
+    static final class Conteudo {
+        private final int[] ids;
+        private final byte[][] itens;
+        private volatile byte[] lista; // Array completo, montado no primeiro uso
+
+        private Conteudo(SortedMap<Integer, byte[]> porId) {
+            this.ids = new int[porId.size()];
+            this.itens = new byte[porId.size()][];
+            int i = 0;
+            for (Map.Entry<Integer, byte[]> item : porId.entrySet()) {
+                ids[i] = item.getKey();
+                itens[i++] = item.getValue();
+            }
+        }
+
+        /**
+         * Cria uma cópia com os itens de "novos" incluídos/substituídos e os IDs "removidos" excluídos.
+         */
+        Conteudo comAlteracoes(Conteudo novos, Set<Integer> removidos) {
+            TreeMap<Integer, byte[]> porId = new TreeMap<>();
+            for (int i = 0; i < ids.length; i++) {
+                if (!removidos.contains(ids[i])) {
+                    porId.put(ids[i], itens[i]);
+                }
+            }
+            for (int i = 0; i < novos.ids.length; i++) {
+                porId.put(novos.ids[i], novos.itens[i]);
+            }
+            return new Conteudo(porId);
+        }
+
+        byte[] lista() {
+            byte[] pronta = lista;
+            if (pronta == null) {
+                pronta = concatenar(0, ids.length, false, null);
+                lista = pronta;
+            }
+            return pronta;
+        }
+
+        /**
+         * Monta {"itens":[...],"proximoCursor":...} com os itens de ID maior que ultimoId.
+         */
+        byte[] pagina(int ultimoId, int tamanho, PaginacaoKeyset paginacao) {
+            int busca = Arrays.binarySearch(ids, ultimoId);
+            int inicio = busca >= 0 ? busca + 1 : -busca - 1;
+            int fim = Math.min(inicio + tamanho, ids.length);
+            String proximoCursor = fim < ids.length ? paginacao.codificarCursor(ids[fim - 1]) : null;
+            return concatenar(inicio, fim, true, proximoCursor);
+        }
+
+        private byte[] concatenar(int inicio, int fim, boolean paginado, String proximoCursor) {
+            int capacidade = 64;
+            for (int i = inicio; i < fim; i++) {
+                capacidade += itens[i].length + 1;
+            }
+            ByteArrayOutputStream saida = new ByteArrayOutputStream(capacidade);
+            if (paginado) {
+                saida.writeBytes("{\"itens\":".getBytes(StandardCharsets.UTF_8));
+            }
+            saida.write('[');
+            for (int i = inicio; i < fim; i++) {
+                if (i > inicio) {
+                    saida.write(',');
+                }
+                saida.writeBytes(itens[i]);
+            }
+            saida.write(']');
+            if (paginado) {
+                // O cursor é Base64 URL-safe: não precisa de escape
+                String cursor = proximoCursor == null ? "null" : "\"" + proximoCursor + "\"";
+                saida.writeBytes((",\"proximoCursor\":" + cursor + "}").getBytes(StandardCharsets.UTF_8));
+            }
+            return saida.toByteArray();
+        }
+    }
+}
@@ -5,10 +5,18 @@ import br.edu.ifsc.sistemafeiracoletiva.dto.CategoriaOutputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.Categoria;
 import br.edu.ifsc.sistemafeiracoletiva.repository.CategoriaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -21,11 +29,18 @@ public class CategoriaService {
     @Autowired
     private CategoriaRepository repository;
 
+    @Autowired
+    private ApplicationEventPublisher eventos; // Avisa o snapshot do catálogo
+
+    // Nome normalizado (sem acentos, minúsculo) -> categoria; mantido por salvar/salvarTodos/deletar
+    private final Map<String, Categoria> porNome = new ConcurrentHashMap<>();
+
     /**
-     * Lista todos os categorias, convertendo as entidades para DTOs antes de devolver.
+     * Lista todas as categorias em ordem de ID.
+     * Usado pelo CatalogoSnapshotService; o GET de listagem é servido pelo snapshot.
      */
-    public List<CategoriaOutputDTO> listar() {
-        return repository.findAll()
+    List<CategoriaOutputDTO> listarTodas() {
+        return repository.findAll(Sort.by("id"))
                 .stream()
                 .map(this::toOutputDTO)
                 .collect(Collectors.toList());
@@ -48,11 +63,52 @@ public class CategoriaService {
     }
 
     /**
-     * Busca uma categoria por ID e devolve um entidade de categoria.
+     * Busca uma categoria pelo nome (sem diferenciar maiúsculas e acentos) e devolve um entidade de categoria.
      */
     public Categoria buscarEntidadePorNome(String nome) {
-        return repository.findByNome(nome)
-                .orElseThrow(() -> new RuntimeException("Categoria não encontrado"));
+        return buscarEntidadesPorNome(Collections.singletonList(nome)).get(chave(nome));
+    }
+
+    /**
+     * Resolve de uma vez as categorias citadas (ex: produtos de uma oferta).
+     * Nomes já conhecidos saem do cache; os demais são buscados em uma única consulta IN.
+     *
+     * @param nomes nomes das categorias, com repetições.
+     * @return mapa do nome normalizado (ver {@link #chave(String)}) para a categoria.
+     * @throws RuntimeException se algum nome não corresponder a uma categoria cadastrada.
+     */
+    public Map<String, Categoria> buscarEntidadesPorNome(Collection<String> nomes) {
+        Map<String, Categoria> encontradas = new HashMap<>();
+        Map<String, String> faltantes = new LinkedHashMap<>(); // chave -> nome como veio
+        for (String nome : nomes) {
+            String chave = chave(nome);
+            Categoria categoria = porNome.get(chave);
+            if (categoria != null) {
+                encontradas.put(chave, copiar(categoria));
+            } else {
+                faltantes.putIfAbsent(chave, nome);
+            }
+        }
+
+        if (!faltantes.isEmpty()) {
+            for (Categoria categoria : repository.findByNomeIn(faltantes.values())) {
+                porNome.put(chave(categoria.getNome()), copiar(categoria));
+                encontradas.put(chave(categoria.getNome()), categoria);
+            }
+            for (String chave : faltantes.keySet()) {
+                if (!encontradas.containsKey(chave)) {
+                    throw new RuntimeException("Categoria não encontrado");
+                }
+            }
+        }
+        return encontradas;
+    }
+
+    /**
+     * Chave de busca por nome: sem acentos, minúscula e sem espaços nas pontas.
+     */
+    public static String chave(String nome) {
+        return NormalizadorTexto.normalizar(nome).trim();
     }
 
     /**
@@ -65,6 +121,8 @@ public class CategoriaService {
             categoria.setId(id);
         }
         Categoria salvo = repository.save(categoria);
+        atualizarCache(salvo);
+        eventos.publishEvent(new CatalogoAlteradoEvent(CatalogoAlteradoEvent.Agregado.CATEGORIA, salvo.getId()));
         return toOutputDTO(salvo);
     }
 
@@ -76,10 +134,14 @@ public class CategoriaService {
                 .map(this::toEntity)
                 .collect(Collectors.toList());
 
-        return repository.saveAll(categorias)
+        List<CategoriaOutputDTO> salvos = repository.saveAll(categorias)
                 .stream()
+                .peek(this::atualizarCache)
                 .map(this::toOutputDTO)
                 .collect(Collectors.toList());
+        eventos.publishEvent(CatalogoAlteradoEvent.emLote(CatalogoAlteradoEvent.Agregado.CATEGORIA,
+                salvos.stream().map(CategoriaOutputDTO::getId).toList()));
+        return salvos;
     }
 
     /**
@@ -87,6 +149,8 @@ public class CategoriaService {
      */
     public void deletar(int id) {
         repository.deleteById(id);
+        porNome.values().removeIf(c -> c.getId() == id);
+        eventos.publishEvent(new CatalogoAlteradoEvent(CatalogoAlteradoEvent.Agregado.CATEGORIA, id));
     }
 
     /**
@@ -96,6 +160,24 @@ public class CategoriaService {
         return repository.existsById(id);
     }
 
+    /**
+     * Troca a entrada da categoria no cache de nomes (o nome pode ter mudado na atualização).
+     */
+    private void atualizarCache(Categoria salvo) {
+        porNome.values().removeIf(c -> c.getId().equals(salvo.getId()));
+        porNome.put(chave(salvo.getNome()), copiar(salvo));
+    }
+
+    /**
+     * Cópia desanexada: o cache nunca entrega a mesma instância a duas transações.
+     */
+    private Categoria copiar(Categoria c) {
+        Categoria copia = new Categoria();
+        copia.setId(c.getId());
+        copia.setNome(c.getNome());
+        return copia;
+    }
+
     /**
      * Converte uma entidade Categoria para DTO de saída.
      */
@@ -0,0 +1,231 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Etapa;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Avança as etapas das publicações quando os prazos vencem:
+ * ✅ EXPOSICAO -> PAGAMENTO no dia seguinte a dt_final_exposicao.
+ * ✅ PAGAMENTO -> FINALIZADO (todas as participações pagas) ou INCOMPLETO no dia seguinte a dt_final_pagamento.
+ * ✅ A próxima transição vem de MIN(data) nos índices (etapa, data): sem nada vencido, o ciclo custa
+ * duas leituras de índice e não disputa a lease.
+ * ✅ UPDATEs por lote de IDs, sem carregar entidades, uma transação por lote.
+ * ✅ Uma instância por vez (lease "ciclo-etapas" em leases_agendador); o UPDATE também confere a etapa,
+ * então repetir um lote não muda nada.
+ * ✅ Um EtapaAlteradaEvent por publicação e, depois do commit de cada lote, um CatalogoAlteradoEvent com os IDs
+ * do lote: publicacao_view e snapshot regravam só essas publicações, sem segurar as travas FOR UPDATE.
+ */
+@Slf4j
+@Service
+public class CicloEtapasService {
+
+    static final String LEASE = "ciclo-etapas";
+
+    /**
+     * Publicações alteradas por transação.
+     * Defina no application.properties:
+     * publicacao.etapas.lote=1000
+     */
+    @Value("${publicacao.etapas.lote:1000}")
+    private int tamanhoLote;
+
+    /**
+     * Duração da lease do ciclo (ms), renovada a cada lote: outra instância assume se esta parar.
+     * Defina no application.properties:
+     * publicacao.etapas.lease=120000
+     */
+    @Value("${publicacao.etapas.lease:120000}")
+    private long duracaoLease;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private LeaseAgendadorService leases;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private TransactionTemplate transacao;
+    private Timer tempoCiclo;
+
+    @PostConstruct
+    void inicializar() {
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.tempoCiclo = Timer.builder("publicacao.etapas.ciclo")
+                .description("Tempo de um ciclo com transições de etapa aplicadas")
+                .register(registry);
+    }
+
+    /**
+     * Ciclo periódico.
+     * Defina no application.properties:
+     * publicacao.etapas.intervalo=60000
+     */
+    @Scheduled(fixedDelayString = "${publicacao.etapas.intervalo:60000}")
+    public void avancar() {
+        avancar(LocalDate.now());
+    }
+
+    /**
+     * Aplica todas as transições vencidas até a data informada.
+     * @param hoje data de referência: prazos anteriores a ela estão vencidos.
+     * @return quantidade de transições aplicadas (0 se nada venceu ou outra instância detém a lease).
+     */
+    public int avancar(LocalDate hoje) {
+        LocalDate proxima = proximaTransicao();
+        if (proxima == null || !proxima.isBefore(hoje)) {
+            return 0;
+        }
+        if (!leases.adquirir(LEASE, Duration.ofMillis(duracaoLease))) {
+            log.debug("Ciclo de etapas em execução em outra instância.");
+            return 0;
+        }
+        try {
+            int transicoes = tempoCiclo.record(() -> encerrarExposicoes(hoje) + encerrarPagamentos(hoje));
+            log.info("Ciclo de etapas: {} transições aplicadas.", transicoes);
+            return transicoes;
+        } finally {
+            leases.liberar(LEASE);
+        }
+    }
+
+    /**
+     * Data do prazo mais antigo ainda não processado (nula se não houver publicação em EXPOSICAO ou PAGAMENTO).
+     */
+    public LocalDate proximaTransicao() {
+        LocalDate exposicao = jdbc.queryForObject("SELECT MIN(dt_final_exposicao) FROM publicacoes WHERE etapa = ?",
+                LocalDate.class, Etapa.EXPOSICAO.name());
+        LocalDate pagamento = jdbc.queryForObject("SELECT MIN(dt_final_pagamento) FROM publicacoes WHERE etapa = ?",
+                LocalDate.class, Etapa.PAGAMENTO.name());
+        if (exposicao == null || pagamento == null) {
+            return exposicao == null ? pagamento : exposicao;
+        }
+        return exposicao.isBefore(pagamento) ? exposicao : pagamento;
+    }
+
+    /**
+     * EXPOSICAO -> PAGAMENTO, em lotes ordenados pelo prazo.
+     */
+    private int encerrarExposicoes(LocalDate hoje) {
+        int total = 0;
+        int feitas;
+        do {
+            if (!renovarLease()) {
+                break;
+            }
+            List<Integer> lote = transacao.execute(s -> {
+                List<Integer> ids = travarVencidas(Etapa.EXPOSICAO, "dt_final_exposicao", hoje);
+                mudarEtapa(ids, Etapa.EXPOSICAO, Etapa.PAGAMENTO);
+                return ids;
+            });
+            avisarCatalogo(lote);
+            feitas = lote.size();
+            total += feitas;
+        } while (feitas == tamanhoLote);
+        return total;
+    }
+
+    /**
+     * PAGAMENTO -> FINALIZADO ou INCOMPLETO, em lotes ordenados pelo prazo.
+     * As participações não pagas são lidas com FOR SHARE: um pagamento em andamento termina antes
+     * (e é contado), ou espera o commit e é recusado por ver a publicação já encerrada.
+     */
+    private int encerrarPagamentos(LocalDate hoje) {
+        int total = 0;
+        int feitas;
+        do {
+            if (!renovarLease()) {
+                break;
+            }
+            List<Integer> lote = transacao.execute(s -> {
+                List<Integer> ids = travarVencidas(Etapa.PAGAMENTO, "dt_final_pagamento", hoje);
+                if (ids.isEmpty()) {
+                    return ids;
+                }
+                Set<Integer> comPendencia = new HashSet<>(jdbc.queryForList(
+                        "SELECT DISTINCT id_publicacao FROM participantes WHERE id_publicacao IN (" + marcadores(ids.size())
+                                + ") AND status_pago = FALSE AND status_cancelado = FALSE FOR SHARE",
+                        Integer.class, ids.toArray()));
+                mudarEtapa(ids.stream().filter(comPendencia::contains).toList(), Etapa.PAGAMENTO, Etapa.INCOMPLETO);
+                mudarEtapa(ids.stream().filter(id -> !comPendencia.contains(id)).toList(), Etapa.PAGAMENTO, Etapa.FINALIZADO);
+                return ids;
+            });
+            avisarCatalogo(lote);
+            feitas = lote.size();
+            total += feitas;
+        } while (feitas == tamanhoLote);
+        return total;
+    }
+
+    /**
+     * Próximo lote de publicações vencidas na etapa, travadas até o fim da transação.
+     * Percorre o índice (etapa, coluna de prazo).
+     */
+    private List<Integer> travarVencidas(Etapa etapa, String colunaPrazo, LocalDate hoje) {
+        return jdbc.queryForList("SELECT id FROM publicacoes WHERE etapa = ? AND " + colunaPrazo + " < ?"
+                        + " ORDER BY " + colunaPrazo + ", id LIMIT ? FOR UPDATE",
+                Integer.class, etapa.name(), hoje, tamanhoLote);
+    }
+
+    private void mudarEtapa(List<Integer> ids, Etapa anterior, Etapa nova) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Object[] args = new Object[ids.size() + 2];
+        args[0] = nova.name();
+        args[1] = anterior.name();
+        for (int i = 0; i < ids.size(); i++) {
+            args[i + 2] = ids.get(i);
+        }
+        jdbc.update("UPDATE publicacoes SET etapa = ? WHERE etapa = ? AND id IN (" + marcadores(ids.size()) + ")", args);
+        ids.forEach(id -> eventos.publishEvent(new EtapaAlteradaEvent(id, anterior, nova)));
+        registry.counter("publicacao.etapas.transicoes", "etapa", nova.name()).increment(ids.size());
+    }
+
+    /**
+     * Chamado fora da transação do lote: os ouvintes rodam na hora, cada um na sua transação.
+     */
+    private void avisarCatalogo(List<Integer> ids) {
+        if (!ids.isEmpty()) {
+            // Um evento por lote, com os IDs: view e snapshot regravam só essas publicações
+            eventos.publishEvent(CatalogoAlteradoEvent.emLote(CatalogoAlteradoEvent.Agregado.PUBLICACAO, ids));
+        }
+    }
+
+    private boolean renovarLease() {
+        if (leases.adquirir(LEASE, Duration.ofMillis(duracaoLease))) {
+            return true;
+        }
+        log.warn("Lease do ciclo de etapas perdida; o ciclo continua na instância que a detém.");
+        return false;
+    }
+
+    private static String marcadores(int quantidade) {
+        return String.join(",", Collections.nCopies(quantidade, "?"));
+    }
+}
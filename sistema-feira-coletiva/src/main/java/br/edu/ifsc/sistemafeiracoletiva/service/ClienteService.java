@@ -2,13 +2,17 @@ package br.edu.ifsc.sistemafeiracoletiva.service;
 
 import br.edu.ifsc.sistemafeiracoletiva.dto.ClienteInputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.dto.ClienteOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.PaginaOutputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.Cliente;
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.Vendedor;
 import br.edu.ifsc.sistemafeiracoletiva.repository.ClienteRepository;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -23,18 +27,24 @@ public class ClienteService {
     @Autowired  // Injeta automaticamente uma instância de ClienteRepository
     private ClienteRepository repository;
 
+    @Autowired
+    private PaginacaoKeyset paginacao;
+
     @Autowired
     private PasswordEncoder passwordEncoder; // injeta o BCrypt configurado no SecurityConfig
 
+    @Autowired
+    private ApplicationEventPublisher eventos; // Invalida o principal em cache após o commit da alteração/remoção
+
 
     /**
-     * Lista todos os clientes, convertendo as entidades para DTOs antes de devolver.
+     * Lista os clientes em páginas ordenadas por ID (paginação por cursor).
+     * @param after cursor devolvido na página anterior (nulo para a primeira página).
+     * @param limit tamanho da página (limitado por paginacao.tamanho-maximo).
      */
-    public List<ClienteOutputDTO> listar() {
-        return repository.findAll()
-                .stream()
-                .map(this::toOutputDTO)
-                .collect(Collectors.toList());
+    public PaginaOutputDTO<ClienteOutputDTO> listar(String after, Integer limit) {
+        return paginacao.paginar(after, limit, repository::findByIdGreaterThanOrderByIdAsc,
+                Cliente::getId, this::toOutputDTO);
     }
 
     /**
@@ -67,29 +77,37 @@ public class ClienteService {
      * Salva um novo cliente ou atualiza um cliente existente.
      * Retorna o DTO da entidade salva.
      */
+    @Transactional
     public ClienteOutputDTO salvar(ClienteInputDTO dto, Integer id) {
         Cliente cliente = toEntity(dto);
+        List<String> emails = new ArrayList<>();
         if (id != null) {
             cliente.setId(id); // Atualização
+            // O email pode mudar: descarta também o principal do email antigo
+            repository.findById(id).ifPresent(antigo -> emails.add(antigo.getEmail()));
         }
         // Criptografa a senha ANTES de salvar
         String senhaCriptografada = passwordEncoder.encode(cliente.getSenha());
         cliente.setSenha(senhaCriptografada);
 
         Cliente salvo = repository.save(cliente);
+        emails.add(salvo.getEmail()); // Também no cadastro: o email pode ser de uma conta removida
+        eventos.publishEvent(ContaAlteradaEvent.de(emails));
         return toOutputDTO(salvo);
     }
 
     /**
      * Salva uma lista de clientes (ex: cadastro em lote).
      */
+    @Transactional
     public List<ClienteOutputDTO> salvarTodos(List<ClienteInputDTO> dtos) {
         List<Cliente> clientes = dtos.stream()
                 .map(this::toEntity)
                 .collect(Collectors.toList());
 
-        return repository.saveAll(clientes)
-                .stream()
+        List<Cliente> salvos = repository.saveAll(clientes);
+        eventos.publishEvent(ContaAlteradaEvent.de(salvos.stream().map(Cliente::getEmail).toList()));
+        return salvos.stream()
                 .map(this::toOutputDTO)
                 .collect(Collectors.toList());
     }
@@ -97,8 +115,12 @@ public class ClienteService {
     /**
      * Remove um cliente pelo ID.
      */
+    @Transactional
     public void deletar(int id) {
-        repository.deleteById(id);
+        repository.findById(id).ifPresent(c -> {
+            repository.delete(c);
+            eventos.publishEvent(ContaAlteradaEvent.de(List.of(c.getEmail())));
+        });
     }
 
     /**
@@ -0,0 +1,20 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Evento publicado pelo ClienteService quando contas são cadastradas, alteradas ou removidas.
+ * Ouvido pelo PrincipalCacheService após o commit, para que o banco já tenha os dados novos
+ * quando um token antigo for conferido.
+ *
+ * @param emails emails afetados (o antigo e o novo, se o email mudou).
+ */
+public record ContaAlteradaEvent(Set<String> emails) {
+
+    public static ContaAlteradaEvent de(Collection<String> emails) {
+        return new ContaAlteradaEvent(emails.stream().filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet()));
+    }
+}
@@ -0,0 +1,25 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Evento publicado quando só o estoque de ofertas mudou (participação, descarga das reservas
+ * ou liberação de estoque). Diferente do CatalogoAlteradoEvent, a publicacao_view e o snapshot
+ * são atualizados depois do commit, sem segurar as travas de linha da escrita.
+ *
+ * @param ofertas IDs das ofertas cujo estoque mudou.
+ * @param origem quem alterou o estoque.
+ */
+public record EstoqueAlteradoEvent(Set<Integer> ofertas, Origem origem) {
+
+    public enum Origem {
+        PARTICIPACAO, // Participação gravada direto no banco (ParticipanteService)
+        DESCARGA, // Reservas em memória gravadas no banco (ReservaEstoqueService)
+        LIBERACAO // Estoque devolvido por participações não pagas (LiberacaoEstoqueService)
+    }
+
+    public static EstoqueAlteradoEvent de(Collection<Integer> ofertas, Origem origem) {
+        return new EstoqueAlteradoEvent(Set.copyOf(ofertas), origem);
+    }
+}
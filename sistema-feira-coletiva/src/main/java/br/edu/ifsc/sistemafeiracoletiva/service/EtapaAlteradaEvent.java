@@ -0,0 +1,14 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Etapa;
+
+/**
+ * Evento publicado pelo CicloEtapasService para cada publicação que mudou de etapa,
+ * dentro da transação que aplicou a mudança.
+ *
+ * @param idPublicacao publicação que avançou.
+ * @param anterior etapa antes da mudança.
+ * @param nova etapa atual.
+ */
+public record EtapaAlteradaEvent(Integer idPublicacao, Etapa anterior, Etapa nova) {
+}
@@ -0,0 +1,313 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.dto.ParticipanteInputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.PedidoInputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.TicketParticipacaoOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Etapa;
+import br.edu.ifsc.sistemafeiracoletiva.repository.PublicacaoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Fila de participações para os picos de abertura de uma publicação:
+ * ✅ A requisição só faz validações baratas, entra na fila da publicação e recebe 202 com o ticket.
+ * ✅ Uma fila limitada por publicação, em ordem de chegada: o estoque é alocado para quem chegou primeiro.
+ * ✅ Uma única thread grava lotes de cada fila em rodízio (ParticipanteService.criarParticipacoesEmLote),
+ * usando uma conexão por lote em vez de uma por requisição.
+ * Os tickets ficam em memória: participações ainda na fila se perdem se o processo cair sem encerrar.
+ */
+@Slf4j
+@Service
+public class FilaParticipacaoService {
+
+    enum Status {
+        AGUARDANDO,
+        CONCLUIDA,
+        RECUSADA,
+        FALHOU
+    }
+
+    /**
+     * Quantidade máxima de participações aguardando por publicação (fila cheia = 503).
+     * Defina no application.properties:
+     * fila.participacao.capacidade=1000
+     */
+    @Value("${fila.participacao.capacidade:1000}")
+    private int capacidade;
+
+    /**
+     * Participações gravadas por transação.
+     * Defina no application.properties:
+     * fila.participacao.lote=50
+     */
+    @Value("${fila.participacao.lote:50}")
+    private int tamanhoLote;
+
+    /**
+     * Tempo que o resultado de um ticket encerrado fica disponível para consulta (ms).
+     * Defina no application.properties:
+     * fila.participacao.retencao=3600000
+     */
+    @Value("${fila.participacao.retencao:3600000}")
+    private long retencao;
+
+    @Autowired
+    private ParticipanteService participanteService;
+
+    @Autowired
+    private PublicacaoRepository publicacaoRepository;
+
+    @Autowired
+    @Qualifier("filaParticipacaoExecutor")
+    private ThreadPoolExecutor filaParticipacaoExecutor; // Thread única de escrita (FilaParticipacaoExecutorConfig)
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private final Map<Integer, BlockingQueue<Ticket>> filas = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final Set<String> aguardando = ConcurrentHashMap.newKeySet(); // cliente:publicação na fila
+    private final Semaphore avisos = new Semaphore(0); // Acorda a thread de escrita
+    private volatile boolean ativa = true;
+    private Timer tempoLote;
+
+    @PostConstruct
+    void inicializar() {
+        this.tempoLote = Timer.builder("participacao.fila.lote")
+                .description("Tempo de gravação de um lote de participações")
+                .register(registry);
+        Gauge.builder("participacao.fila", filas, f -> f.values().stream().mapToInt(BlockingQueue::size).sum())
+                .description("Participações aguardando gravação")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        filaParticipacaoExecutor.execute(this::gravar);
+    }
+
+    /**
+     * Para de aceitar participações e espera a thread de escrita esvaziar as filas.
+     */
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        ativa = false;
+        avisos.release();
+        filaParticipacaoExecutor.shutdown();
+        if (!filaParticipacaoExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Fila de participações encerrada com itens pendentes.");
+        }
+    }
+
+    /**
+     * Valida a participação sem abrir transação e a coloca na fila da publicação.
+     *
+     * @param dto participação com seus pedidos.
+     * @return ticket com status AGUARDANDO.
+     * @throws IllegalArgumentException se os dados estiverem incompletos ou a publicação não estiver em EXPOSICAO.
+     * @throws ResponseStatusException 409 se o cliente já tiver uma participação na fila desta publicação,
+     * 503 se a fila da publicação estiver cheia ou a aplicação estiver encerrando.
+     */
+    public TicketParticipacaoOutputDTO enfileirar(ParticipanteInputDTO dto) {
+        validar(dto);
+        if (!ativa) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "A fila de participações está encerrando.");
+        }
+        BlockingQueue<Ticket> fila = filaDaPublicacao(dto.getIdPublicacao());
+
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), dto);
+        if (!aguardando.add(ticket.chaveCliente())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Este cliente já tem uma participação aguardando na fila desta publicação.");
+        }
+        tickets.put(ticket.id, ticket);
+        if (!fila.offer(ticket)) {
+            tickets.remove(ticket.id);
+            aguardando.remove(ticket.chaveCliente());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Muitas participações aguardando nesta publicação. Tente novamente em instantes.");
+        }
+        if (filas.get(dto.getIdPublicacao()) != fila && fila.remove(ticket)) {
+            // A fila foi descartada (publicação saiu de EXPOSICAO) entre a busca e o offer
+            tickets.remove(ticket.id);
+            aguardando.remove(ticket.chaveCliente());
+            throw new IllegalArgumentException("A fila de participações atende apenas publicações em exposição.");
+        }
+        avisos.release();
+        return ticket.toOutputDTO();
+    }
+
+    /**
+     * Situação de um ticket.
+     */
+    public Optional<TicketParticipacaoOutputDTO> buscarPorId(String id) {
+        return Optional.ofNullable(tickets.get(id)).map(Ticket::toOutputDTO);
+    }
+
+    /**
+     * Publicação que saiu de EXPOSICAO: descarta a fila se estiver vazia, para que a próxima participação
+     * confira a etapa de novo. Uma fila com itens continua até esvaziar; o lote é recusado na gravação.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarEtapa(EtapaAlteradaEvent evento) {
+        if (evento.anterior() == Etapa.EXPOSICAO) {
+            filas.computeIfPresent(evento.idPublicacao(), (id, fila) -> fila.isEmpty() ? null : fila);
+        }
+    }
+
+    /**
+     * Laço da thread de escrita: um lote de cada publicação por volta, até as filas esvaziarem.
+     */
+    private void gravar() {
+        while (ativa || filas.values().stream().anyMatch(f -> !f.isEmpty())) {
+            boolean gravou = false;
+            for (Map.Entry<Integer, BlockingQueue<Ticket>> fila : filas.entrySet()) {
+                List<Ticket> lote = new ArrayList<>(tamanhoLote);
+                fila.getValue().drainTo(lote, tamanhoLote);
+                if (!lote.isEmpty()) {
+                    processar(fila.getKey(), lote);
+                    gravou = true;
+                }
+            }
+            if (!gravou && avisos.drainPermits() == 0) {
+                try {
+                    avisos.tryAcquire(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Grava o lote em uma transação. Se o lote inteiro for desfeito (ex: falha no commit),
+     * grava as participações uma a uma para que só a problemática fique sem gravar.
+     */
+    private void processar(Integer idPublicacao, List<Ticket> lote) {
+        try {
+            List<ParticipanteService.ResultadoParticipacao> resultados = tempoLote.record(() ->
+                    participanteService.criarParticipacoesEmLote(idPublicacao, lote.stream().map(t -> t.dto).toList()));
+            for (int i = 0; i < lote.size(); i++) {
+                lote.get(i).concluir(resultados.get(i));
+            }
+        } catch (IllegalArgumentException e) {
+            // Publicação não está mais em exposição: o lote inteiro é recusado
+            lote.forEach(t -> t.encerrar(Status.RECUSADA, e.getMessage()));
+            filas.computeIfPresent(idPublicacao, (id, fila) -> fila.isEmpty() ? null : fila);
+        } catch (RuntimeException e) {
+            log.warn("Lote de {} participações da publicação {} desfeito: {}. Gravando uma a uma.",
+                    lote.size(), idPublicacao, e.getMessage());
+            for (Ticket ticket : lote) {
+                try {
+                    Integer idParticipante = participanteService.criarParticipacao(ticket.dto).getId();
+                    ticket.concluir(new ParticipanteService.ResultadoParticipacao(idParticipante, null));
+                } catch (IllegalArgumentException erro) {
+                    ticket.concluir(new ParticipanteService.ResultadoParticipacao(null, erro.getMessage()));
+                } catch (RuntimeException erro) {
+                    log.error("Erro ao gravar participação do ticket {}: {}", ticket.id, erro.getMessage(), erro);
+                    ticket.encerrar(Status.FALHOU, erro.getMessage());
+                }
+            }
+        } finally {
+            lote.forEach(t -> aguardando.remove(t.chaveCliente()));
+        }
+    }
+
+    private BlockingQueue<Ticket> filaDaPublicacao(Integer idPublicacao) {
+        BlockingQueue<Ticket> fila = filas.get(idPublicacao);
+        if (fila != null) {
+            return fila;
+        }
+        // Primeira participação da publicação: confere a etapa uma vez (a gravação confere de novo)
+        Etapa etapa = publicacaoRepository.findEtapaById(idPublicacao)
+                .orElseThrow(() -> new IllegalArgumentException("Publicação não encontrada"));
+        if (etapa != Etapa.EXPOSICAO) {
+            throw new IllegalArgumentException("A fila de participações atende apenas publicações em exposição.");
+        }
+        return filas.computeIfAbsent(idPublicacao, id -> new ArrayBlockingQueue<>(capacidade));
+    }
+
+    private void validar(ParticipanteInputDTO dto) {
+        if (dto.getIdCliente() == null || dto.getIdPublicacao() == null) {
+            throw new IllegalArgumentException("Cliente e publicação são obrigatórios.");
+        }
+        if (dto.getPedidos() == null || dto.getPedidos().isEmpty()) {
+            throw new IllegalArgumentException("Deve haver pelo menos um pedido na participação.");
+        }
+        for (PedidoInputDTO pedido : dto.getPedidos()) {
+            if (pedido.getIdProduto() == null || pedido.getQtdProdutos() == null || pedido.getQtdProdutos() <= 0) {
+                throw new IllegalArgumentException("Cada pedido precisa do produto e de uma quantidade maior que zero.");
+            }
+        }
+    }
+
+    /**
+     * Remove os tickets encerrados há mais tempo que a retenção configurada.
+     * Roda agendado, fora do caminho do enfileirar: o pico de participações não paga a varredura dos tickets.
+     * Defina no application.properties:
+     * fila.participacao.intervalo-limpeza=60000
+     */
+    @Scheduled(fixedDelayString = "${fila.participacao.intervalo-limpeza:60000}")
+    public void descartarEncerrados() {
+        LocalDateTime limite = LocalDateTime.now().minus(Duration.ofMillis(retencao));
+        tickets.values().removeIf(t -> t.concluidaEm != null && t.concluidaEm.isBefore(limite));
+    }
+
+    /**
+     * Participação na fila e seu resultado.
+     */
+    private static final class Ticket {
+        private final String id;
+        private final ParticipanteInputDTO dto;
+        private final LocalDateTime recebidaEm = LocalDateTime.now();
+        private volatile Status status = Status.AGUARDANDO;
+        private volatile Integer idParticipante;
+        private volatile String mensagem;
+        private volatile LocalDateTime concluidaEm;
+
+        private Ticket(String id, ParticipanteInputDTO dto) {
+            this.id = id;
+            this.dto = dto;
+        }
+
+        private String chaveCliente() {
+            return dto.getIdCliente() + ":" + dto.getIdPublicacao();
+        }
+
+        private void concluir(ParticipanteService.ResultadoParticipacao resultado) {
+            this.idParticipante = resultado.idParticipante();
+            encerrar(resultado.erro() == null ? Status.CONCLUIDA : Status.RECUSADA, resultado.erro());
+        }
+
+        private void encerrar(Status status, String mensagem) {
+            this.mensagem = mensagem;
+            this.concluidaEm = LocalDateTime.now();
+            this.status = status; // Por último: quem lê AGUARDANDO -> encerrado já vê os demais campos
+        }
+
+        private TicketParticipacaoOutputDTO toOutputDTO() {
+            return new TicketParticipacaoOutputDTO(id, dto.getIdPublicacao(), dto.getIdCliente(), status.name(),
+                    idParticipante, mensagem, recebidaEm, concluidaEm);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.ChaveIdempotencia;
+import br.edu.ifsc.sistemafeiracoletiva.repository.ChaveIdempotenciaRepository;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Guarda as respostas das requisições enviadas com Idempotency-Key:
+ * ✅ Mapa em memória com prazo de validade, limitado em tamanho.
+ * ✅ Tabela chaves_idempotencia como fallback (reinício da aplicação, entradas fora da memória).
+ * ✅ Reivindica a chave no banco (INSERT da linha com status 0) antes de executar: um reenvio simultâneo,
+ * mesmo em outra instância, não executa a operação duas vezes.
+ * ✅ Guarda o hash do corpo: a mesma chave com outro corpo é recusada (422) em vez de repetir outra resposta.
+ */
+@Slf4j
+@Service
+public class IdempotenciaService {
+
+    private static final int EM_ANDAMENTO = 0; // Status da linha reivindicada, antes da resposta
+
+    // Reivindica a chave; sem efeito se a linha já existe
+    private static final String REIVINDICAR_SQL = "INSERT IGNORE INTO chaves_idempotencia (id, status, hash_corpo, criada_em)"
+            + " VALUES (?, " + EM_ANDAMENTO + ", ?, ?)";
+
+    // Assume uma linha vencida ou abandonada em andamento (instância que caiu no meio da requisição)
+    private static final String ASSUMIR_SQL = "UPDATE chaves_idempotencia SET status = " + EM_ANDAMENTO + ","
+            + " hash_corpo = ?, content_type = NULL, location = NULL, corpo = NULL, criada_em = ?"
+            + " WHERE id = ? AND (criada_em < ? OR (status = " + EM_ANDAMENTO + " AND criada_em < ?))";
+
+    /**
+     * Tempo que uma resposta fica disponível para reenvios (ms).
+     * Defina no application.properties:
+     * idempotencia.ttl=86400000
+     */
+    @Value("${idempotencia.ttl:86400000}")
+    private long ttl;
+
+    /**
+     * Tempo máximo (ms) de uma chave em andamento; depois disso a instância é dada como perdida
+     * e um reenvio pode executar a operação.
+     * Defina no application.properties:
+     * idempotencia.em-andamento-max=300000
+     */
+    @Value("${idempotencia.em-andamento-max:300000}")
+    private long emAndamentoMax;
+
+    /**
+     * Quantidade máxima de respostas mantidas em memória (as demais ficam só no banco).
+     * Defina no application.properties:
+     * idempotencia.memoria-max=10000
+     */
+    @Value("${idempotencia.memoria-max:10000}")
+    private int memoriaMax;
+
+    @Autowired
+    private ChaveIdempotenciaRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final Map<String, Registro> registros = new ConcurrentHashMap<>();
+
+    /**
+     * Resposta guardada para uma chave.
+     */
+    public record Resposta(int status, String contentType, String location, byte[] corpo) {
+    }
+
+    /**
+     * Resposta concluída em memória, com o hash do corpo da requisição original.
+     */
+    private record Registro(Resposta resposta, String hashCorpo, long expiraEm) {
+
+        boolean expirado(long agora) {
+            return expiraEm < agora;
+        }
+    }
+
+    /**
+     * Calcula o ID da chave: SHA-256 do escopo (método, caminho e usuário) e da chave enviada,
+     * para que a mesma chave em endpoints ou usuários diferentes não se misture.
+     */
+    public String identificar(String escopo, String chave) {
+        return sha256((escopo + "\n" + chave).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * SHA-256 (hex) do corpo da requisição, comparado nos reenvios.
+     */
+    public String hashCorpo(byte[] corpo) {
+        return sha256(corpo);
+    }
+
+    /**
+     * Devolve a resposta já guardada para o ID ou, se não houver, reivindica o ID no banco.
+     * Quem recebe Optional.empty() deve chamar concluir ou liberar ao terminar.
+     *
+     * @param hashCorpo hash do corpo desta requisição (hashCorpo).
+     * @throws ResponseStatusException 409 se outra requisição com a mesma chave ainda estiver em andamento,
+     * 422 se a chave já foi usada com outro corpo.
+     */
+    public Optional<Resposta> buscarOuIniciar(String id, String hashCorpo) {
+        long agora = System.currentTimeMillis();
+        Registro atual = registros.get(id);
+        if (atual != null && !atual.expirado(agora)) {
+            return Optional.of(conferir(atual, hashCorpo));
+        }
+
+        LocalDateTime criadaEm = LocalDateTime.now();
+        if (jdbc.update(REIVINDICAR_SQL, id, hashCorpo, criadaEm) == 1) {
+            return Optional.empty();
+        }
+
+        // Linha existente: resposta gravada (por esta ou outra instância), em andamento, ou vencida
+        Optional<ChaveIdempotencia> gravada = repository.findById(id);
+        if (gravada.isPresent() && !vencida(gravada.get(), agora)) {
+            ChaveIdempotencia c = gravada.get();
+            if (c.getStatus() == EM_ANDAMENTO) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Uma requisição com esta Idempotency-Key ainda está em andamento.");
+            }
+            Registro registro = new Registro(new Resposta(c.getStatus(), c.getContentType(), c.getLocation(), c.getCorpo()),
+                    c.getHashCorpo(), expiracao(c.getCriadaEm()));
+            Resposta resposta = conferir(registro, hashCorpo);
+            guardarEmMemoria(id, registro);
+            return Optional.of(resposta);
+        }
+
+        // Vencida, abandonada ou removida entre o INSERT e a leitura: só uma instância consegue assumir
+        int assumidas = jdbc.update(ASSUMIR_SQL, hashCorpo, criadaEm, id,
+                criadaEm.minus(Duration.ofMillis(ttl)), criadaEm.minus(Duration.ofMillis(emAndamentoMax)));
+        if (assumidas == 1 || jdbc.update(REIVINDICAR_SQL, id, hashCorpo, criadaEm) == 1) {
+            registros.remove(id);
+            return Optional.empty();
+        }
+        throw new ResponseStatusException(HttpStatus.CONFLICT,
+                "Uma requisição com esta Idempotency-Key ainda está em andamento.");
+    }
+
+    /**
+     * Guarda a resposta da requisição (memória e banco) e encerra o "em andamento".
+     */
+    public void concluir(String id, String hashCorpo, Resposta resposta) {
+        ChaveIdempotencia gravada = repository.save(new ChaveIdempotencia(
+                id, hashCorpo, resposta.status(), resposta.contentType(), resposta.location(), resposta.corpo()));
+        Registro registro = new Registro(resposta, hashCorpo, expiracao(gravada.getCriadaEm()));
+        if (registros.size() < memoriaMax) {
+            registros.put(id, registro);
+        } else {
+            registros.remove(id); // Memória cheia: o reenvio lê do banco
+        }
+    }
+
+    /**
+     * Encerra o "em andamento" sem guardar resposta (erro interno): o cliente pode reenviar.
+     */
+    public void liberar(String id) {
+        jdbc.update("DELETE FROM chaves_idempotencia WHERE id = ? AND status = " + EM_ANDAMENTO, id);
+    }
+
+    /**
+     * Remove as respostas vencidas da memória e do banco.
+     * Defina no application.properties:
+     * idempotencia.intervalo-limpeza=600000
+     */
+    @Scheduled(fixedDelayString = "${idempotencia.intervalo-limpeza:600000}")
+    @Transactional
+    public void limpar() {
+        long agora = System.currentTimeMillis();
+        registros.values().removeIf(r -> r.expirado(agora));
+        int removidas = repository.deleteByCriadaEmBefore(LocalDateTime.now().minus(Duration.ofMillis(ttl)));
+        if (removidas > 0) {
+            log.info("Idempotência: {} respostas vencidas removidas.", removidas);
+        }
+    }
+
+    /**
+     * Resposta guardada, se o corpo for o mesmo da requisição original.
+     * Linhas gravadas antes do hash do corpo (hash nulo) não são conferidas.
+     */
+    private Resposta conferir(Registro registro, String hashCorpo) {
+        if (registro.hashCorpo() != null && !Objects.equals(registro.hashCorpo(), hashCorpo)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Esta Idempotency-Key já foi usada com outro corpo de requisição.");
+        }
+        return registro.resposta();
+    }
+
+    private boolean vencida(ChaveIdempotencia c, long agora) {
+        long limite = c.getStatus() == EM_ANDAMENTO
+                ? c.getCriadaEm().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + emAndamentoMax
+                : expiracao(c.getCriadaEm());
+        return limite < agora;
+    }
+
+    private void guardarEmMemoria(String id, Registro registro) {
+        if (registros.size() < memoriaMax) {
+            registros.putIfAbsent(id, registro);
+        }
+    }
+
+    private long expiracao(LocalDateTime criadaEm) {
+        return criadaEm.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + ttl;
+    }
+
+    private static String sha256(byte[] dados) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(dados));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível na JVM.", e);
+        }
+    }
+}
@@ -0,0 +1,560 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.dto.ErroImportacaoDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.ImportacaoOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.OfertaInputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.ProdutoInputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Categoria;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Oferta;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Produto;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.UnidadeDeMedida;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Vendedor;
+import br.edu.ifsc.sistemafeiracoletiva.repository.CategoriaRepository;
+import br.edu.ifsc.sistemafeiracoletiva.repository.OfertaRepository;
+import br.edu.ifsc.sistemafeiracoletiva.repository.VendedorRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Importação em massa de produtos e ofertas a partir de NDJSON (um objeto JSON por linha)
+ * ou CSV (primeira linha com os nomes dos campos).
+ * ✅ O corpo da requisição vai direto para um arquivo temporário, até importacao.tamanho-maximo bytes
+ * (acima disso, 413); a requisição responde 202 na hora.
+ * ✅ O arquivo é lido linha a linha em segundo plano: cada registro é validado e os válidos são
+ * gravados em blocos (importacao.tamanho-bloco), um commit por bloco, com o contexto de persistência
+ * limpo entre os blocos. O heap e os locks não crescem com o tamanho do arquivo.
+ * ✅ Erros são informados por linha e o andamento pode ser consultado (GET /api/importacoes/{id}).
+ */
+@Slf4j
+@Service
+public class ImportacaoService {
+
+    /**
+     * O que está sendo importado, com o DTO de entrada de cada linha.
+     */
+    public enum Tipo {
+        PRODUTOS(ProdutoInputDTO.class),
+        OFERTAS(OfertaInputDTO.class);
+
+        private final Class<?> dto;
+
+        Tipo(Class<?> dto) {
+            this.dto = dto;
+        }
+    }
+
+    enum Formato {
+        NDJSON,
+        CSV;
+
+        /**
+         * Formato pelo Content-Type (application/x-ndjson ou text/csv).
+         * @throws ResponseStatusException 415 para outros tipos.
+         */
+        static Formato doContentType(String contentType) {
+            if (contentType != null) {
+                MediaType tipo = MediaType.parseMediaType(contentType);
+                if (tipo.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+                    return NDJSON;
+                }
+                if (tipo.isCompatibleWith(MediaType.valueOf("text/csv"))) {
+                    return CSV;
+                }
+            }
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                    "Envie o arquivo como application/x-ndjson ou text/csv.");
+        }
+    }
+
+    enum Status {
+        AGUARDANDO,
+        PROCESSANDO,
+        CONCLUIDA,
+        FALHOU
+    }
+
+    /**
+     * Registros gravados por transação.
+     * Defina no application.properties:
+     * importacao.tamanho-bloco=500
+     */
+    @Value("${importacao.tamanho-bloco:500}")
+    private int tamanhoBloco;
+
+    /**
+     * Quantidade máxima de erros guardados por importação (os demais só são contados).
+     * Defina no application.properties:
+     * importacao.max-erros=1000
+     */
+    @Value("${importacao.max-erros:1000}")
+    private int maxErros;
+
+    /**
+     * Tamanho máximo do arquivo recebido (bytes); a cópia é interrompida ao passar dele.
+     * Defina no application.properties:
+     * importacao.tamanho-maximo=104857600
+     */
+    @Value("${importacao.tamanho-maximo:104857600}")
+    private long tamanhoMaximo;
+
+    /**
+     * Tempo que o resultado de uma importação encerrada fica disponível para consulta (ms).
+     * Defina no application.properties:
+     * importacao.retencao=3600000
+     */
+    @Value("${importacao.retencao:3600000}")
+    private long retencao;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator; // Regras das anotações dos DTOs de entrada
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private OfertaRepository ofertaRepository;
+
+    @Autowired
+    private VendedorRepository vendedorRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventos; // Avisa o snapshot do catálogo
+
+    @Autowired
+    @Qualifier("importacaoExecutor")
+    private ThreadPoolExecutor importacaoExecutor; // Pool limitado (ImportacaoExecutorConfig)
+
+    private final Map<String, Importacao> importacoes = new ConcurrentHashMap<>();
+    private TransactionTemplate transacao;
+
+    @PostConstruct
+    void inicializar() {
+        this.transacao = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Guarda o corpo da requisição e agenda a importação.
+     *
+     * @param tipo o que está sendo importado.
+     * @param contentType application/x-ndjson ou text/csv.
+     * @param corpo corpo da requisição (lido até o fim, sem ficar em memória).
+     * @return andamento inicial da importação (status AGUARDANDO).
+     * @throws ResponseStatusException 415 se o formato não for suportado,
+     * 413 se o arquivo passar de importacao.tamanho-maximo, 503 se a fila de importações estiver cheia.
+     */
+    public ImportacaoOutputDTO iniciar(Tipo tipo, String contentType, InputStream corpo) {
+        Formato formato = Formato.doContentType(contentType);
+        descartarEncerradas();
+
+        Path arquivo = gravarTemporario(corpo);
+        Importacao importacao = new Importacao(UUID.randomUUID().toString(), tipo, formato, tamanho(arquivo));
+        importacoes.put(importacao.id, importacao);
+
+        try {
+            importacaoExecutor.execute(() -> processar(importacao, arquivo));
+        } catch (RejectedExecutionException e) {
+            importacoes.remove(importacao.id);
+            apagar(arquivo);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Muitas importações em andamento. Tente novamente mais tarde.");
+        }
+        return importacao.toOutputDTO();
+    }
+
+    /**
+     * Andamento de uma importação.
+     */
+    public Optional<ImportacaoOutputDTO> buscarPorId(String id) {
+        return Optional.ofNullable(importacoes.get(id)).map(Importacao::toOutputDTO);
+    }
+
+    /**
+     * Lê o arquivo linha a linha, validando cada registro e gravando os válidos em blocos.
+     */
+    private void processar(Importacao importacao, Path arquivo) {
+        importacao.status = Status.PROCESSANDO;
+        Referencias referencias = new Referencias();
+        List<Registro> bloco = new ArrayList<>(tamanhoBloco);
+
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            List<String> cabecalho = null;
+            String linha;
+            long numero = 0;
+            while ((linha = leitor.readLine()) != null) {
+                numero++;
+                importacao.bytesLidos.addAndGet(linha.getBytes(StandardCharsets.UTF_8).length + 1L);
+                if (linha.isBlank()) {
+                    continue;
+                }
+                if (importacao.formato == Formato.CSV && cabecalho == null) {
+                    cabecalho = lerCamposCsv(linha);
+                    continue;
+                }
+
+                importacao.linhasLidas.incrementAndGet();
+                try {
+                    JsonNode valores = importacao.formato == Formato.NDJSON
+                            ? objectMapper.readTree(linha)
+                            : csvParaJson(cabecalho, lerCamposCsv(linha));
+                    Object dto = objectMapper.treeToValue(valores, importacao.tipo.dto);
+                    List<String> erros = validar(dto, referencias);
+                    if (erros.isEmpty()) {
+                        bloco.add(new Registro(numero, dto));
+                    } else {
+                        importacao.registrarErro(numero, String.join("; ", erros));
+                    }
+                } catch (JsonProcessingException | IllegalArgumentException e) {
+                    String detalhe = e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage();
+                    importacao.registrarErro(numero, "Registro inválido: " + detalhe);
+                }
+
+                if (bloco.size() >= tamanhoBloco) {
+                    gravar(importacao, bloco);
+                    bloco.clear();
+                }
+            }
+            gravar(importacao, bloco);
+            importacao.status = Status.CONCLUIDA;
+        } catch (IOException | RuntimeException e) {
+            log.error("Importação {} interrompida.", importacao.id, e);
+            importacao.registrarErro(null, "Importação interrompida: " + e.getMessage());
+            importacao.status = Status.FALHOU;
+        } finally {
+            importacao.concluidaEm = LocalDateTime.now();
+            apagar(arquivo);
+            if (!importacao.ofertasAlteradas.isEmpty()) {
+                // Só as ofertas criadas ou que ganharam produtos são regravadas na view e no snapshot
+                eventos.publishEvent(CatalogoAlteradoEvent.emLote(CatalogoAlteradoEvent.Agregado.OFERTA,
+                        importacao.ofertasAlteradas));
+            }
+        }
+    }
+
+    /**
+     * Grava um bloco em uma transação própria e limpa o contexto de persistência.
+     * Se o banco recusar o bloco, todas as linhas dele são informadas como erro e a importação continua.
+     */
+    private void gravar(Importacao importacao, List<Registro> bloco) {
+        if (bloco.isEmpty()) {
+            return;
+        }
+        List<Integer> ofertas = new ArrayList<>();
+        try {
+            transacao.executeWithoutResult(status -> {
+                for (Registro registro : bloco) {
+                    Object entidade = toEntity(registro.dto());
+                    entityManager.persist(entidade);
+                    ofertas.add(entidade instanceof Produto p ? p.getOferta().getId() : ((Oferta) entidade).getId());
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            importacao.linhasImportadas.addAndGet(bloco.size());
+            importacao.ofertasAlteradas.addAll(ofertas);
+        } catch (RuntimeException e) {
+            log.warn("Importação {}: bloco das linhas {} a {} não gravado.", importacao.id,
+                    bloco.get(0).linha(), bloco.get(bloco.size() - 1).linha(), e);
+            String mensagem = "Bloco não gravado: " + e.getMessage();
+            bloco.forEach(registro -> importacao.registrarErro(registro.linha(), mensagem));
+        }
+    }
+
+    /**
+     * Mesmas anotações dos DTOs de entrada (Bean Validation), além da unidade de medida
+     * e da existência das entidades referenciadas.
+     */
+    private List<String> validar(Object dto, Referencias referencias) {
+        List<String> erros = new ArrayList<>(validator.validate(dto).stream()
+                .sorted(Comparator.comparing(violacao -> violacao.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .toList());
+        if (dto instanceof ProdutoInputDTO p) {
+            if (p.getUnidadeMedida() != null && !p.getUnidadeMedida().isBlank() && converterUnidade(p.getUnidadeMedida()) == null) {
+                erros.add("Unidade de medida inválida: " + p.getUnidadeMedida());
+            }
+            if (p.getIdCategoria() != null && !referencias.categoria(p.getIdCategoria())) {
+                erros.add("Categoria não encontrado");
+            }
+            if (p.getIdOferta() != null && !referencias.oferta(p.getIdOferta())) {
+                erros.add("Oferta não encontrado");
+            }
+        } else if (dto instanceof OfertaInputDTO o) {
+            if (o.getIdVendedor() != null && !referencias.vendedor(o.getIdVendedor())) {
+                erros.add("Vendedor não encontrado");
+            }
+        }
+        return erros;
+    }
+
+    private UnidadeDeMedida converterUnidade(String unidade) {
+        try {
+            return UnidadeDeMedida.valueOf(unidade.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Converte o DTO já validado. Categoria, oferta e vendedor entram como referência (sem SELECT).
+     */
+    private Object toEntity(Object dto) {
+        if (dto instanceof ProdutoInputDTO p) {
+            Produto produto = new Produto(
+                    p.getNome(),
+                    entityManager.getReference(Categoria.class, p.getIdCategoria()),
+                    converterUnidade(p.getUnidadeMedida()),
+                    p.getMedida(),
+                    p.getPreco(),
+                    p.getQtdEstoque()
+            );
+            produto.setOferta(entityManager.getReference(Oferta.class, p.getIdOferta()));
+            return produto;
+        }
+        OfertaInputDTO o = (OfertaInputDTO) dto;
+        Oferta oferta = new Oferta();
+        oferta.setTitulo(o.getTitulo());
+        oferta.setDescricao(o.getDescricao());
+        oferta.setVendedor(entityManager.getReference(Vendedor.class, o.getIdVendedor()));
+        oferta.calcularQtdEstoqueTotal(); // Sem produtos: 0, como no cadastro unitário
+        return oferta;
+    }
+
+    /**
+     * Monta o objeto JSON de uma linha CSV a partir do cabeçalho (campo vazio = nulo).
+     */
+    private ObjectNode csvParaJson(List<String> cabecalho, List<String> campos) {
+        if (campos.size() != cabecalho.size()) {
+            throw new IllegalArgumentException("esperados " + cabecalho.size() + " campos, encontrados " + campos.size());
+        }
+        ObjectNode objeto = objectMapper.createObjectNode();
+        for (int i = 0; i < cabecalho.size(); i++) {
+            String valor = campos.get(i);
+            if (valor.isEmpty()) {
+                objeto.putNull(cabecalho.get(i));
+            } else {
+                objeto.put(cabecalho.get(i), valor); // Números em texto são convertidos pelo Jackson
+            }
+        }
+        return objeto;
+    }
+
+    /**
+     * Separa os campos de uma linha CSV (vírgula; aspas duplas com "" como escape).
+     * Campos entre aspas não podem conter quebra de linha.
+     */
+    static List<String> lerCamposCsv(String linha) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ',') {
+                campos.add(atual.toString().trim());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        if (entreAspas) {
+            throw new IllegalArgumentException("aspas não fechadas");
+        }
+        campos.add(atual.toString().trim());
+        return campos;
+    }
+
+    /**
+     * Copia o corpo para um arquivo temporário, parando (e apagando o arquivo) ao passar de importacao.tamanho-maximo.
+     */
+    private Path gravarTemporario(InputStream corpo) {
+        Path arquivo = null;
+        try {
+            arquivo = Files.createTempFile("importacao-", ".tmp");
+            try (OutputStream saida = Files.newOutputStream(arquivo)) {
+                byte[] buffer = new byte[8192];
+                long copiados = 0;
+                int lidos;
+                while ((lidos = corpo.read(buffer)) != -1) {
+                    copiados += lidos;
+                    if (copiados > tamanhoMaximo) {
+                        throw new ResponseStatusException(HttpStatus.CONTENT_TOO_LARGE,
+                                "O arquivo da importação passa de " + tamanhoMaximo + " bytes.");
+                    }
+                    saida.write(buffer, 0, lidos);
+                }
+            }
+            return arquivo;
+        } catch (ResponseStatusException e) {
+            apagar(arquivo);
+            throw e;
+        } catch (IOException e) {
+            apagar(arquivo);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Falha ao receber o arquivo da importação.");
+        }
+    }
+
+    private long tamanho(Path arquivo) {
+        try {
+            return Files.size(arquivo);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void apagar(Path arquivo) {
+        if (arquivo == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar o arquivo temporário {}.", arquivo, e);
+        }
+    }
+
+    /**
+     * Esquece importações encerradas há mais de importacao.retencao ms.
+     */
+    private void descartarEncerradas() {
+        LocalDateTime limite = LocalDateTime.now().minus(Duration.ofMillis(retencao));
+        importacoes.values().removeIf(i -> i.concluidaEm != null && i.concluidaEm.isBefore(limite));
+    }
+
+    /**
+     * Linha válida aguardando a gravação do bloco.
+     */
+    private record Registro(long linha, Object dto) {
+    }
+
+    /**
+     * Existência das entidades referenciadas, consultada uma vez por ID durante a importação.
+     */
+    private final class Referencias {
+        private final Map<Integer, Boolean> categorias = new HashMap<>();
+        private final Map<Integer, Boolean> ofertas = new HashMap<>();
+        private final Map<Integer, Boolean> vendedores = new HashMap<>();
+
+        boolean categoria(Integer id) {
+            return existe(categorias, id, categoriaRepository::existsById);
+        }
+
+        boolean oferta(Integer id) {
+            return existe(ofertas, id, ofertaRepository::existsById);
+        }
+
+        boolean vendedor(Integer id) {
+            return existe(vendedores, id, vendedorRepository::existsById);
+        }
+
+        private boolean existe(Map<Integer, Boolean> conhecidos, Integer id, Function<Integer, Boolean> consulta) {
+            return conhecidos.computeIfAbsent(id, consulta);
+        }
+    }
+
+    /**
+     * Estado de uma importação, atualizado pela thread de processamento e lido pelo polling.
+     */
+    private final class Importacao {
+        private final String id;
+        private final Tipo tipo;
+        private final Formato formato;
+        private final long bytesTotal;
+        private final LocalDateTime iniciadaEm = LocalDateTime.now();
+        private final AtomicLong bytesLidos = new AtomicLong();
+        private final AtomicLong linhasLidas = new AtomicLong();
+        private final AtomicLong linhasImportadas = new AtomicLong();
+        private final AtomicLong linhasComErro = new AtomicLong();
+        private final List<ErroImportacaoDTO> erros = new ArrayList<>();
+        private final Set<Integer> ofertasAlteradas = new HashSet<>(); // Só a thread de processamento usa
+        private volatile Status status = Status.AGUARDANDO;
+        private volatile LocalDateTime concluidaEm;
+
+        private Importacao(String id, Tipo tipo, Formato formato, long bytesTotal) {
+            this.id = id;
+            this.tipo = tipo;
+            this.formato = formato;
+            this.bytesTotal = bytesTotal;
+        }
+
+        private void registrarErro(Long linha, String mensagem) {
+            if (linha != null) {
+                linhasComErro.incrementAndGet();
+            }
+            synchronized (erros) {
+                if (erros.size() < maxErros) {
+                    erros.add(new ErroImportacaoDTO(linha, mensagem));
+                }
+            }
+        }
+
+        private ImportacaoOutputDTO toOutputDTO() {
+            int percentual = bytesTotal == 0 ? 100 : (int) Math.min(100, bytesLidos.get() * 100 / bytesTotal);
+            List<ErroImportacaoDTO> copia;
+            synchronized (erros) {
+                copia = new ArrayList<>(erros);
+            }
+            return new ImportacaoOutputDTO(id, tipo.name(), formato.name(), status.name(), percentual,
+                    linhasLidas.get(), linhasImportadas.get(), linhasComErro.get(), copia, iniciadaEm, concluidaEm);
+        }
+    }
+}
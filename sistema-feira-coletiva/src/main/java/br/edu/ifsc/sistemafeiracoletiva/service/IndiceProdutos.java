@@ -0,0 +1,50 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Produto;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Produtos de uma oferta indexados por ID para validar os pedidos de uma participação.
+ * IDs em um int[] ordenado (busca binária, sem boxing) e produtos no array paralelo:
+ * cada item do pedido é resolvido em O(log n), sem varrer a lista de produtos.
+ */
+final class IndiceProdutos {
+
+    private final int[] ids;
+    private final Produto[] produtos;
+
+    private IndiceProdutos(int[] ids, Produto[] produtos) {
+        this.ids = ids;
+        this.produtos = produtos;
+    }
+
+    /**
+     * Monta o índice; a lista não precisa estar ordenada.
+     */
+    static IndiceProdutos de(List<Produto> lista) {
+        Produto[] produtos = lista.toArray(new Produto[0]);
+        Arrays.sort(produtos, (a, b) -> Integer.compare(a.getId(), b.getId()));
+        int[] ids = new int[produtos.length];
+        for (int i = 0; i < produtos.length; i++) {
+            ids[i] = produtos[i].getId();
+        }
+        return new IndiceProdutos(ids, produtos);
+    }
+
+    /**
+     * @return o produto com o ID, ou null se não pertencer à oferta.
+     */
+    Produto buscar(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        int posicao = Arrays.binarySearch(ids, id);
+        return posicao >= 0 ? produtos[posicao] : null;
+    }
+
+    int tamanho() {
+        return ids.length;
+    }
+}
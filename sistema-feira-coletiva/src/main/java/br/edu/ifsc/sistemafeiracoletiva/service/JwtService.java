@@ -1,18 +1,27 @@
 package br.edu.ifsc.sistemafeiracoletiva.service;
 
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Cliente;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Serviço responsável por:
  * ✅ Gerar tokens JWT.
- * ✅ Validar tokens JWT.
- * ✅ Extrair informações do token (ex: email).
+ * ✅ Verificar tokens JWT (assinatura e expiração) e devolver suas claims.
+ * ✅ Manter em memória os tokens já verificados, evitando refazer o HMAC a cada requisição.
  */
 @Service // Torna a classe gerenciada pelo Spring (injeção automática onde precisar)
 public class JwtService {
@@ -35,62 +44,126 @@ public class JwtService {
     private Long jwtExpiration;
 
     /**
-     * Gera um token JWT para o email do usuário autenticado.
-     * @param email do cliente autenticado.
+     * Quantidade máxima de tokens verificados mantidos em cache.
+     * Defina no application.properties:
+     * jwt.cache.max-entradas=10000
+     */
+    @Value("${jwt.cache.max-entradas:10000}")
+    private int maxEntradasCache;
+
+    // Chave e parser são imutáveis e thread-safe: criados uma única vez na inicialização
+    private Key chaveAssinatura;
+    private JwtParser parser;
+
+    // Tokens já verificados, indexados pelo digest SHA-256 do token
+    private final Map<String, TokenVerificado> tokensVerificados = new ConcurrentHashMap<>();
+
+    // Evita varrer o cache a cada requisição quando ele está cheio
+    private volatile long proximaLimpeza = 0L;
+
+    /**
+     * Entrada do cache: claims já verificadas e o instante (ms) em que o token expira.
+     */
+    private record TokenVerificado(Claims claims, long expiraEm) {
+    }
+
+    @PostConstruct
+    void inicializar() {
+        this.chaveAssinatura = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(chaveAssinatura)
+                .build();
+    }
+
+    /**
+     * Gera um token JWT para o cliente autenticado.
+     * Além do email, o token leva id, nome e role para montar o principal sem consultar o banco.
+     * @param cliente cliente autenticado.
      * @return token JWT gerado.
      */
-    public String generateToken(String email) {
+    public String generateToken(Cliente cliente) {
         Date now = new Date(); // Data atual
         Date expiryDate = new Date(now.getTime() + jwtExpiration); // Data de expiração
 
-        // Chave de assinatura
-        Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-
         // Criação do token
         return Jwts.builder()
-                .setSubject(email) // Guarda o email como subject
+                .setSubject(cliente.getEmail()) // Guarda o email como subject
+                .claim(PrincipalCacheService.CLAIM_ID, cliente.getId())
+                .claim(PrincipalCacheService.CLAIM_NOME, cliente.getNome())
+                .claim(PrincipalCacheService.CLAIM_ROLE, PrincipalCacheService.ROLE_CLIENTE)
                 .setIssuedAt(now)  // Data de emissão
                 .setExpiration(expiryDate) // Data de expiração
-                .signWith(key, SignatureAlgorithm.HS256) // Algoritmo de assinatura
+                .signWith(chaveAssinatura, SignatureAlgorithm.HS256) // Algoritmo de assinatura
                 .compact(); // Converte para String
     }
 
     /**
-     * Valida se o token JWT é válido e não expirado.
+     * Verifica o token JWT (assinatura e expiração) uma única vez e devolve suas claims.
+     * Tokens já verificados são servidos do cache até expirarem, sem refazer o HMAC.
      * @param token JWT recebido.
-     * @return true se válido, false se inválido ou expirado.
+     * @return claims do token, ou vazio se inválido, mal formado ou expirado.
      */
-    public boolean validateToken(String token) {
-        try {
-            Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    public Optional<Claims> verificarToken(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
 
-            // Faz o parse do token para verificar assinatura e expiração
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
+        String digest = digest(token);
+        long agora = System.currentTimeMillis();
+
+        TokenVerificado emCache = tokensVerificados.get(digest);
+        if (emCache != null) {
+            if (emCache.expiraEm() > agora) {
+                return Optional.of(emCache.claims());
+            }
+            tokensVerificados.remove(digest, emCache); // Token expirou desde a última verificação
+            return Optional.empty();
+        }
 
-            return true;
+        try {
+            // Faz o parse do token para verificar assinatura e expiração
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            armazenar(digest, claims, agora);
+            return Optional.of(claims);
         } catch (JwtException | IllegalArgumentException e) {
             // Token inválido, expirado ou mal formado
-            return false;
+            return Optional.empty();
         }
     }
 
     /**
-     * Extrai o email do usuário a partir do token JWT.
-     * @param token JWT recebido.
-     * @return email contido no subject do token.
+     * Guarda as claims verificadas no cache, respeitando o limite de entradas.
      */
-    public String extractEmail(String token) {
-        Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    private void armazenar(String digest, Claims claims, long agora) {
+        Date expiracao = claims.getExpiration();
+        if (expiracao == null) {
+            return; // Sem expiração não há como saber quando remover a entrada
+        }
 
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        if (tokensVerificados.size() >= maxEntradasCache) {
+            if (agora < proximaLimpeza) {
+                return;
+            }
+            tokensVerificados.values().removeIf(t -> t.expiraEm() <= agora);
+            proximaLimpeza = agora + 1000;
+            if (tokensVerificados.size() >= maxEntradasCache) {
+                return; // Cache cheio de tokens válidos: apenas não armazena este
+            }
+        }
+
+        tokensVerificados.put(digest, new TokenVerificado(claims, expiracao.getTime()));
+    }
 
-        return claims.getSubject();
+    /**
+     * Calcula o digest SHA-256 do token, usado como chave do cache.
+     */
+    private String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível na JVM.", e);
+        }
     }
 }
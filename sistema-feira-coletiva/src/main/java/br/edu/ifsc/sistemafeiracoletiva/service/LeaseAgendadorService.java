@@ -0,0 +1,59 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Leases das tarefas agendadas (leases_agendador), para que cada tarefa rode em uma instância por vez:
+ * ✅ Adquirir e renovar são o mesmo UPDATE condicional: só passa se a lease estiver livre, vencida ou já for desta instância.
+ * ✅ Vencimento calculado com o relógio do banco, então instâncias com relógios diferentes não se confundem.
+ * Deve ser chamado fora de transação: cada comando é confirmado na hora (autocommit).
+ */
+@Slf4j
+@Service
+public class LeaseAgendadorService {
+
+    private final String instancia = nomeDaMaquina() + ":" + UUID.randomUUID();
+    private final Set<String> criadas = ConcurrentHashMap.newKeySet(); // Linhas que já existem no banco
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    /**
+     * Adquire ou renova a lease da tarefa por mais a duração informada.
+     * @return true se esta instância detém a lease até o novo vencimento.
+     */
+    public boolean adquirir(String nome, Duration duracao) {
+        if (!criadas.contains(nome)) {
+            jdbc.update("INSERT IGNORE INTO leases_agendador (nome, dono, expira_em) VALUES (?, NULL, NOW(3))", nome);
+            criadas.add(nome);
+        }
+        return jdbc.update("UPDATE leases_agendador SET dono = ?, expira_em = TIMESTAMPADD(MICROSECOND, ?, NOW(3))"
+                        + " WHERE nome = ? AND (dono IS NULL OR dono = ? OR expira_em < NOW(3))",
+                instancia, duracao.toMillis() * 1000, nome, instancia) == 1;
+    }
+
+    /**
+     * Libera a lease, se for desta instância, para que outra instância não precise esperar o vencimento.
+     */
+    public void liberar(String nome) {
+        jdbc.update("UPDATE leases_agendador SET dono = NULL WHERE nome = ? AND dono = ?", nome, instancia);
+    }
+
+    private static String nomeDaMaquina() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "desconhecida";
+        }
+    }
+}
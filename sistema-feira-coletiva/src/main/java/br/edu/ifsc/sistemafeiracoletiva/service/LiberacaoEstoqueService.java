@@ -0,0 +1,211 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Etapa;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Devolve o estoque das participações não pagas quando o prazo de pagamento termina:
+ * ✅ Processa as publicações em INCOMPLETO (CicloEtapasService) que ainda têm participações não pagas e não canceladas.
+ * ✅ Páginas por cursor (id > último) no índice (id_publicacao, status_pago, status_cancelado), uma transação por página:
+ * participações e pedidos travados, devolução somada por produto e oferta, UPDATEs em lote.
+ * ✅ Pode parar a qualquer momento: cada página confirmada marca as participações como canceladas,
+ * então a próxima execução continua de onde parou.
+ * ✅ Pedido ainda com estoque_pendente (reserva em memória não descarregada) só perde a marca:
+ * o estoque dele nunca saiu de produtos.qtd_estoque.
+ * ✅ Uma instância por vez (lease "liberacao-estoque") e métricas de vazão (estoque.liberacao.*).
+ */
+@Slf4j
+@Service
+public class LiberacaoEstoqueService {
+
+    static final String LEASE = "liberacao-estoque";
+
+    /**
+     * Participações canceladas por transação.
+     * Defina no application.properties:
+     * estoque.liberacao.pagina=500
+     */
+    @Value("${estoque.liberacao.pagina:500}")
+    private int tamanhoPagina;
+
+    /**
+     * Duração da lease da liberação (ms), renovada a cada página.
+     * Defina no application.properties:
+     * estoque.liberacao.lease=120000
+     */
+    @Value("${estoque.liberacao.lease:120000}")
+    private long duracaoLease;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private LeaseAgendadorService leases;
+
+    @Autowired
+    private PublicacaoTotaisService totais;
+
+    @Autowired
+    private ApplicationEventPublisher eventos; // Saldos em memória e snapshot do catálogo
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private TransactionTemplate transacao;
+    private Timer tempoPagina;
+    private Counter participacoesCanceladas;
+    private Counter unidadesDevolvidas;
+
+    /**
+     * Resultado de uma página.
+     */
+    private record Pagina(int participacoes, int unidades, Integer ultimoId) {
+    }
+
+    @PostConstruct
+    void inicializar() {
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.tempoPagina = Timer.builder("estoque.liberacao.pagina")
+                .description("Tempo para cancelar uma página de participações não pagas")
+                .register(registry);
+        this.participacoesCanceladas = Counter.builder("estoque.liberacao.participacoes")
+                .description("Participações não pagas canceladas")
+                .register(registry);
+        this.unidadesDevolvidas = Counter.builder("estoque.liberacao.unidades")
+                .description("Unidades devolvidas ao estoque dos produtos")
+                .register(registry);
+    }
+
+    /**
+     * Execução periódica.
+     * Defina no application.properties:
+     * estoque.liberacao.intervalo=60000
+     */
+    @Scheduled(fixedDelayString = "${estoque.liberacao.intervalo:60000}")
+    public void liberar() {
+        List<Integer> publicacoes = jdbc.queryForList("SELECT pub.id FROM publicacoes pub WHERE pub.etapa = ?"
+                + " AND EXISTS (SELECT 1 FROM participantes pa WHERE pa.id_publicacao = pub.id"
+                + " AND pa.status_pago = FALSE AND pa.status_cancelado = FALSE) ORDER BY pub.id",
+                Integer.class, Etapa.INCOMPLETO.name());
+        if (publicacoes.isEmpty()) {
+            return;
+        }
+        if (!leases.adquirir(LEASE, Duration.ofMillis(duracaoLease))) {
+            log.debug("Liberação de estoque em execução em outra instância.");
+            return;
+        }
+        try {
+            for (Integer idPublicacao : publicacoes) {
+                if (!liberarPublicacao(idPublicacao)) {
+                    break;
+                }
+            }
+        } finally {
+            leases.liberar(LEASE);
+        }
+    }
+
+    /**
+     * Cancela as participações não pagas da publicação, página por página.
+     * @return false se a lease foi perdida no meio (a publicação continua na próxima execução).
+     */
+    boolean liberarPublicacao(Integer idPublicacao) {
+        long inicio = System.nanoTime();
+        int participacoes = 0;
+        int unidades = 0;
+        Integer cursor = 0;
+        Pagina pagina;
+        do {
+            if (!leases.adquirir(LEASE, Duration.ofMillis(duracaoLease))) {
+                log.warn("Lease da liberação de estoque perdida na publicação {}.", idPublicacao);
+                return false;
+            }
+            Integer depoisDe = cursor;
+            pagina = tempoPagina.record(() -> transacao.execute(s -> cancelarPagina(idPublicacao, depoisDe)));
+            participacoes += pagina.participacoes();
+            unidades += pagina.unidades();
+            cursor = pagina.ultimoId();
+        } while (pagina.participacoes() == tamanhoPagina);
+
+        double segundos = Math.max((System.nanoTime() - inicio) / 1_000_000_000.0, 0.001);
+        log.info("Publicação {}: {} participações não pagas canceladas, {} unidades devolvidas em {} s ({} participações/s).",
+                idPublicacao, participacoes, unidades, String.format("%.2f", segundos), Math.round(participacoes / segundos));
+        return true;
+    }
+
+    /**
+     * Uma página: trava as próximas participações não pagas (cursor por ID) e seus pedidos,
+     * devolve o estoque, marca as participações como canceladas e desconta os totais da publicação.
+     */
+    private Pagina cancelarPagina(Integer idPublicacao, Integer depoisDe) {
+        List<Integer> ids = jdbc.queryForList("SELECT id FROM participantes WHERE id_publicacao = ?"
+                        + " AND status_pago = FALSE AND status_cancelado = FALSE AND id > ? ORDER BY id LIMIT ? FOR UPDATE",
+                Integer.class, idPublicacao, depoisDe, tamanhoPagina);
+        if (ids.isEmpty()) {
+            return new Pagina(0, 0, depoisDe);
+        }
+        String emIds = " IN (" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")";
+
+        Map<Integer, Integer> porProduto = new TreeMap<>(); // Ordem de ID: trava as linhas na mesma ordem da descarga
+        Map<Integer, Integer> porOferta = new TreeMap<>();
+        Set<Integer> ofertas = new HashSet<>();
+        List<PublicacaoTotaisService.ItemPedido> itens = new ArrayList<>();
+        jdbc.query("SELECT pe.id_produto, pr.id_oferta, pe.qtd_produto, pe.valor_total_item, pe.estoque_pendente"
+                + " FROM pedidos pe JOIN produtos pr ON pr.id = pe.id_produto WHERE pe.id_participante" + emIds
+                + " FOR UPDATE OF pe", (RowCallbackHandler) rs -> { // Só os pedidos: produtos são travados no UPDATE, em ordem
+            int idProduto = rs.getInt(1);
+            int qtd = rs.getInt(3);
+            ofertas.add(rs.getInt(2));
+            itens.add(new PublicacaoTotaisService.ItemPedido(idProduto, qtd, rs.getBigDecimal(4)));
+            if (!rs.getBoolean(5)) {
+                porProduto.merge(idProduto, qtd, Integer::sum);
+                porOferta.merge(rs.getInt(2), qtd, Integer::sum);
+            }
+        }, ids.toArray());
+
+        jdbc.batchUpdate("UPDATE produtos SET qtd_estoque = qtd_estoque + ? WHERE id = ?", deltas(porProduto));
+        jdbc.batchUpdate("UPDATE ofertas SET qtd_estoque_total = qtd_estoque_total + ? WHERE id = ?", deltas(porOferta));
+        jdbc.update("UPDATE pedidos SET estoque_pendente = FALSE WHERE estoque_pendente = TRUE AND id_participante" + emIds,
+                ids.toArray());
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.addAll(ids);
+        jdbc.update("UPDATE participantes SET status_cancelado = TRUE, data_cancelamento = ? WHERE id" + emIds, args.toArray());
+        totais.registrarCancelamentos(idPublicacao, ids.size(), itens);
+
+        // Saldo das ofertas mudou (inclusive pelos pedidos pendentes): recarrega a memória e o catálogo após o commit
+        eventos.publishEvent(EstoqueAlteradoEvent.de(ofertas, EstoqueAlteradoEvent.Origem.LIBERACAO));
+
+        int unidades = porProduto.values().stream().mapToInt(Integer::intValue).sum();
+        participacoesCanceladas.increment(ids.size());
+        unidadesDevolvidas.increment(unidades);
+        return new Pagina(ids.size(), unidades, ids.get(ids.size() - 1));
+    }
+
+    private static List<Object[]> deltas(Map<Integer, Integer> porId) {
+        List<Object[]> linhas = new ArrayList<>(porId.size());
+        porId.forEach((id, qtd) -> linhas.add(new Object[]{qtd, id}));
+        return linhas;
+    }
+}
@@ -0,0 +1,94 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitador de taxa por chave (ex: email ou IP) no modelo token bucket.
+ * Cada chave tem um balde com capacidade fixa, recarregado continuamente a uma taxa por minuto.
+ * Acima de MAX_CHAVES baldes, os cheios são descartados no máximo uma vez por segundo; enquanto o limite
+ * continuar estourado, chaves novas dividem um único balde de excedente (nunca ficam sem limite).
+ */
+public class LimitadorTaxa {
+
+    private static final int MAX_CHAVES = 100_000;
+    private static final long INTERVALO_LIMPEZA_MS = 1000;
+
+    private final int capacidade;
+    private final double tokensPorMs;
+    private final Map<String, Balde> baldes = new ConcurrentHashMap<>();
+    private final Balde excedente; // Chaves novas quando o limite de baldes está estourado
+    private final AtomicLong proximaLimpeza = new AtomicLong();
+
+    public LimitadorTaxa(int capacidade, int recargaPorMinuto) {
+        this.capacidade = capacidade;
+        this.tokensPorMs = recargaPorMinuto / 60_000.0;
+        this.excedente = new Balde(System.currentTimeMillis());
+    }
+
+    /**
+     * Tenta consumir um token do balde da chave.
+     * @param chave identificador limitado (email, IP...).
+     * @return true se havia token disponível, false se a chave excedeu a taxa.
+     */
+    public boolean tentarConsumir(String chave) {
+        if (chave == null) {
+            return true;
+        }
+        long agora = System.currentTimeMillis();
+        Balde balde = baldes.get(chave);
+        if (balde == null) {
+            if (baldes.size() >= MAX_CHAVES && !limpar(agora)) {
+                return excedente.consumir(agora);
+            }
+            balde = baldes.computeIfAbsent(chave, k -> new Balde(agora));
+        }
+        return balde.consumir(agora);
+    }
+
+    /**
+     * Descarta os baldes cheios (chaves sem uso recente), no máximo uma vez por INTERVALO_LIMPEZA_MS
+     * e por uma thread só: chaves rotacionadas não fazem cada tentativa varrer o mapa inteiro.
+     *
+     * @return true se depois da limpeza há espaço para um balde novo.
+     */
+    private boolean limpar(long agora) {
+        long prevista = proximaLimpeza.get();
+        if (agora >= prevista && proximaLimpeza.compareAndSet(prevista, agora + INTERVALO_LIMPEZA_MS)) {
+            baldes.values().removeIf(b -> b.cheio(agora));
+        }
+        return baldes.size() < MAX_CHAVES;
+    }
+
+    private final class Balde {
+        private double tokens;
+        private long ultimaRecarga;
+
+        private Balde(long agora) {
+            this.tokens = capacidade;
+            this.ultimaRecarga = agora;
+        }
+
+        private synchronized boolean consumir(long agora) {
+            recarregar(agora);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+
+        private synchronized boolean cheio(long agora) {
+            recarregar(agora);
+            return tokens >= capacidade;
+        }
+
+        private void recarregar(long agora) {
+            if (agora > ultimaRecarga) {
+                tokens = Math.min(capacidade, tokens + (agora - ultimaRecarga) * tokensPorMs);
+                ultimaRecarga = agora;
+            }
+        }
+    }
+}
@@ -5,6 +5,8 @@ import br.edu.ifsc.sistemafeiracoletiva.dto.LocalDeRetiradaOutputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.LocalDeRetirada;
 import br.edu.ifsc.sistemafeiracoletiva.repository.LocalDeRetiradaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -20,11 +22,15 @@ public class    LocalDeRetiradaService {
     @Autowired
     private LocalDeRetiradaRepository repository;
 
+    @Autowired
+    private ApplicationEventPublisher eventos; // Avisa o snapshot do catálogo
+
     /**
-     * Lista todos os locais de retirada, convertendo as entidades para DTOs antes de devolver.
+     * Lista todos os locais de retirada em ordem de ID.
+     * Usado pelo CatalogoSnapshotService; o GET de listagem é servido pelo snapshot.
      */
-    public List<LocalDeRetiradaOutputDTO> listar() {
-        return repository.findAll()
+    List<LocalDeRetiradaOutputDTO> listarTodos() {
+        return repository.findAll(Sort.by("id"))
                 .stream()
                 .map(this::toOutputDTO)
                 .collect(Collectors.toList());
@@ -56,6 +62,7 @@ public class    LocalDeRetiradaService {
             localDeRetirada.setId(id);
         }
         LocalDeRetirada salvo = repository.save(localDeRetirada);
+        eventos.publishEvent(new CatalogoAlteradoEvent(CatalogoAlteradoEvent.Agregado.LOCAL_DE_RETIRADA, salvo.getId()));
         return toOutputDTO(salvo);
     }
 
@@ -67,10 +74,13 @@ public class    LocalDeRetiradaService {
                 .map(this::toEntity)
                 .collect(Collectors.toList());
 
-        return repository.saveAll(locaisDeRetirada)
+        List<LocalDeRetiradaOutputDTO> salvos = repository.saveAll(locaisDeRetirada)
                 .stream()
                 .map(this::toOutputDTO)
                 .collect(Collectors.toList());
+        eventos.publishEvent(CatalogoAlteradoEvent.emLote(CatalogoAlteradoEvent.Agregado.LOCAL_DE_RETIRADA,
+                salvos.stream().map(LocalDeRetiradaOutputDTO::getId).toList()));
+        return salvos;
     }
 
     /**
@@ -78,6 +88,7 @@ public class    LocalDeRetiradaService {
      */
     public void deletar(int id) {
         repository.deleteById(id);
+        eventos.publishEvent(new CatalogoAlteradoEvent(CatalogoAlteradoEvent.Agregado.LOCAL_DE_RETIRADA, id));
     }
 
     /**
@@ -6,14 +6,27 @@ import br.edu.ifsc.sistemafeiracoletiva.model.domain.Categoria;
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.Oferta;
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.Produto;
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.Vendedor;
+import br.edu.ifsc.sistemafeiracoletiva.repository.OfertaCatalogoProjection;
 import br.edu.ifsc.sistemafeiracoletiva.repository.OfertaRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -24,43 +37,129 @@ import java.util.stream.Collectors;
 @Service
 public class OfertaService {
 
+    private static final int TAMANHO_BLOCO_STREAM = 500;
+
     @Autowired
     private OfertaRepository repository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PaginacaoKeyset paginacao;
+
+    @Autowired
+    private ApplicationEventPublisher eventos; // Avisa o snapshot do catálogo
+
     @Autowired
     private VendedorService vendedorService;
 
     @Autowired
     private CategoriaService categoriaService;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transacaoLeitura;
+
+    @PostConstruct
+    void inicializar() {
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+    }
+
     /**
-     * Lista todos os ofertas, convertendo as entidades para DTOs antes de devolver.
+     * Lista as ofertas em páginas ordenadas por ID (paginação por cursor).
+     * @param after cursor devolvido na página anterior (nulo para a primeira página).
+     * @param limit tamanho da página (limitado por paginacao.tamanho-maximo).
      */
-    public List<OfertaOutputDTO> listar() {
-        return repository.findAll()
-                .stream()
-                .map(this::toOutputDTO)
-                .collect(Collectors.toList());
+    public PaginaOutputDTO<OfertaOutputDTO> listar(String after, Integer limit) {
+        return paginacao.paginar(after, limit, repository::findByIdGreaterThanOrderByIdAsc,
+                Oferta::getId, this::toOutputDTO);
     }
 
     /**
      * ✅ NOVO: Lista todas as ofertas que estão com o status de disponibilidade TRUE.
+     * Lê as linhas planas do catálogo em uma única consulta e monta os DTOs em memória,
+     * sem carregar vendedor, produtos e categorias de forma lazy.
      */
     public List<OfertaOutputDTO> listarOfertasDisponiveis() {
-        return repository.findByStatusDisponibilidadeTrue()
-                .stream()
-                .map(this::toOutputDTO)
-                .collect(Collectors.toList());
+        return montarCatalogo(repository.findCatalogoDisponivel());
     }
 
     /**
-     * Lista todos os ofertas e seus produtos, convertendo as entidades para DTOs antes de devolver.
+     * Ofertas disponíveis entre as informadas, no formato de listarOfertasDisponiveis (uma consulta).
+     * Oferta indisponível ou removida não volta na lista.
      */
-    public List<OfertaSeusProdutosOutputDTO> listarOfertasProdutos() {
-        return repository.findAll()
-                .stream()
+    public List<OfertaOutputDTO> listarOfertasDisponiveis(Collection<Integer> ids) {
+        return montarCatalogo(repository.findCatalogoDisponivelByIdIn(ids));
+    }
+
+    private List<OfertaOutputDTO> montarCatalogo(List<OfertaCatalogoProjection> linhas) {
+        Map<Integer, OfertaOutputDTO> ofertas = new LinkedHashMap<>();
+
+        for (OfertaCatalogoProjection linha : linhas) {
+            OfertaOutputDTO oferta = ofertas.computeIfAbsent(linha.getOfertaId(), id -> new OfertaOutputDTO(
+                    id,
+                    linha.getTitulo(),
+                    linha.getDescricao(),
+                    linha.getQtdEstoqueTotal(),
+                    linha.getStatusDisponibilidade(),
+                    new VendedorOutputDTO(
+                            linha.getVendedorId(),
+                            linha.getVendedorNome(),
+                            linha.getVendedorEmail(),
+                            linha.getVendedorTelefone(),
+                            linha.getVendedorChavePix()
+                    ),
+                    new ArrayList<>()
+            ));
+
+            if (linha.getProdutoId() != null) { // Oferta sem produtos vem com as colunas de produto nulas
+                oferta.getProdutos().add(new ProdutoOutputDTO(
+                        linha.getProdutoId(),
+                        linha.getProdutoNome(),
+                        new CategoriaOutputDTO(linha.getCategoriaId(), linha.getCategoriaNome()),
+                        linha.getUnidadeMedida().toString(),
+                        linha.getMedida(),
+                        linha.getPreco(),
+                        linha.getQtdEstoque()
+                ));
+            }
+        }
+
+        return new ArrayList<>(ofertas.values());
+    }
+
+    /**
+     * Percorre todas as ofertas e seus produtos, entregando cada DTO ao consumidor assim que é montado
+     * (ex: escrita direta na resposta HTTP), sem montar a lista completa em memória.
+     * Lê em blocos por cursor de ID, cada bloco em uma transação curta (IDs e depois o grafo desses IDs):
+     * a conexão volta ao pool antes de o bloco ser entregue a um cliente possivelmente lento.
+     */
+    public void percorrerOfertasProdutos(Consumer<OfertaSeusProdutosOutputDTO> consumidor) {
+        int ultimoId = 0;
+        List<OfertaSeusProdutosOutputDTO> bloco;
+        do {
+            int depoisDe = ultimoId;
+            bloco = transacaoLeitura.execute(status -> lerBlocoOfertasProdutos(depoisDe));
+            bloco.forEach(consumidor);
+            if (!bloco.isEmpty()) {
+                ultimoId = bloco.get(bloco.size() - 1).getId();
+            }
+        } while (bloco.size() == TAMANHO_BLOCO_STREAM);
+    }
+
+    private List<OfertaSeusProdutosOutputDTO> lerBlocoOfertasProdutos(int depoisDe) {
+        List<Integer> ids = repository.findIdsByIdGreaterThan(depoisDe, Limit.of(TAMANHO_BLOCO_STREAM));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<OfertaSeusProdutosOutputDTO> dtos = repository.findComVendedorEProdutosByIdIn(ids).stream()
                 .map(this::toOutputMoreProdutosDTO)
-                .collect(Collectors.toList());
+                .toList();
+        entityManager.clear(); // O contexto pode ser o da requisição (open-in-view): não acumula os blocos lidos
+        return dtos;
     }
 
     /**
@@ -98,6 +197,7 @@ public class OfertaService {
         }
         oferta.calcularQtdEstoqueTotal();
         Oferta salvo = repository.save(oferta);
+        eventos.publishEvent(new CatalogoAlteradoEvent(CatalogoAlteradoEvent.Agregado.OFERTA, salvo.getId()));
         return toOutputDTO(salvo);
     }
 
@@ -105,7 +205,9 @@ public class OfertaService {
      * ✅ NOVO: Salva diretamente uma entidade Oferta (útil para atualizar o status).
      */
     public Oferta salvarEntidade(Oferta oferta) {
-        return repository.save(oferta);
+        Oferta salvo = repository.save(oferta);
+        eventos.publishEvent(new CatalogoAlteradoEvent(CatalogoAlteradoEvent.Agregado.OFERTA, salvo.getId()));
+        return salvo;
     }
 
     /**
@@ -116,10 +218,13 @@ public class OfertaService {
                 .map(this::toEntity)
                 .collect(Collectors.toList());
 
-        return repository.saveAll(ofertas)
+        List<OfertaOutputDTO> salvos = repository.saveAll(ofertas)
                 .stream()
                 .map(this::toOutputDTO)
                 .collect(Collectors.toList());
+        eventos.publishEvent(CatalogoAlteradoEvent.emLote(CatalogoAlteradoEvent.Agregado.OFERTA,
+                salvos.stream().map(OfertaOutputDTO::getId).toList()));
+        return salvos;
     }
 
     @Transactional
@@ -128,9 +233,13 @@ public class OfertaService {
         Oferta oferta = new Oferta(dto.getTitulo(), dto.getDescricao(), v);
         Integer qtdEstoqueTotal = 0;
 
+        // Todas as categorias citadas pelos produtos em uma só consulta (ou direto do cache)
+        Map<String, Categoria> categorias = categoriaService.buscarEntidadesPorNome(dto.getProdutos().stream()
+                .map(ProdutoParaOfertaInputDTO::getCategoria)
+                .toList());
+
         for (ProdutoParaOfertaInputDTO produtoDto : dto.getProdutos()) {
-            // Busca ou cria a categoria
-            Categoria categoria = categoriaService.buscarEntidadePorNome(produtoDto.getCategoria());
+            Categoria categoria = categorias.get(CategoriaService.chave(produtoDto.getCategoria()));
 
             Produto produto = new Produto(
                     produtoDto.getNome(),
@@ -147,7 +256,9 @@ public class OfertaService {
         oferta.setQtdEstoqueTotal(qtdEstoqueTotal);
         oferta.setStatusDisponibilidade(true);
 
-        return repository.save(oferta);
+        Oferta salvo = repository.save(oferta);
+        eventos.publishEvent(new CatalogoAlteradoEvent(CatalogoAlteradoEvent.Agregado.OFERTA, salvo.getId()));
+        return salvo;
     }
 
     /**
@@ -155,6 +266,7 @@ public class OfertaService {
      */
     public void deletar(int id) {
         repository.deleteById(id);
+        eventos.publishEvent(new CatalogoAlteradoEvent(CatalogoAlteradoEvent.Agregado.OFERTA, id));
     }
 
     /**
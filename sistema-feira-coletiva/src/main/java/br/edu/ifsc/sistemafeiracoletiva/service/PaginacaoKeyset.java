@@ -0,0 +1,113 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.dto.PaginaOutputDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Paginação por cursor (keyset) sobre o ID das entidades.
+ * Cada página é buscada com "id > cursor ORDER BY id LIMIT n", sem OFFSET,
+ * então o custo da consulta não cresce com a posição da página.
+ * O cursor é opaco para o frontend (ID codificado em Base64 URL-safe).
+ */
+@Component
+public class PaginacaoKeyset {
+
+    private static final String PREFIXO_CURSOR = "id:";
+
+    /**
+     * Tamanho da página quando o parâmetro "limit" não é informado.
+     * Defina no application.properties:
+     * paginacao.tamanho-padrao=50
+     */
+    @Value("${paginacao.tamanho-padrao:50}")
+    private int tamanhoPadrao;
+
+    /**
+     * Tamanho máximo aceito no parâmetro "limit" (valores maiores são reduzidos a ele).
+     * Defina no application.properties:
+     * paginacao.tamanho-maximo=200
+     */
+    @Value("${paginacao.tamanho-maximo:200}")
+    private int tamanhoMaximo;
+
+    /**
+     * Busca uma página e converte as entidades para DTOs.
+     *
+     * @param after cursor recebido do frontend (nulo ou vazio = primeira página).
+     * @param limit tamanho pedido (nulo = tamanho padrão).
+     * @param consulta consulta do repository: (último ID, limite) -> entidades com ID maior, em ordem crescente.
+     * @param id extrai o ID da entidade.
+     * @param conversor converte a entidade para DTO.
+     * @return página com os itens e o cursor da próxima página.
+     * @throws ResponseStatusException 400 se o cursor ou o limite forem inválidos.
+     */
+    public <E, D> PaginaOutputDTO<D> paginar(String after, Integer limit,
+                                             BiFunction<Integer, Limit, List<E>> consulta,
+                                             Function<E, Integer> id,
+                                             Function<E, D> conversor) {
+        int tamanho = tamanhoPagina(limit);
+
+        // Busca um item a mais para saber se existe próxima página sem fazer COUNT
+        List<E> entidades = consulta.apply(decodificarCursor(after), Limit.of(tamanho + 1));
+
+        boolean temProxima = entidades.size() > tamanho;
+        List<E> pagina = temProxima ? entidades.subList(0, tamanho) : entidades;
+
+        String proximoCursor = temProxima ? codificarCursor(id.apply(pagina.get(pagina.size() - 1))) : null;
+        List<D> itens = pagina.stream()
+                .map(conversor)
+                .collect(Collectors.toList());
+
+        return new PaginaOutputDTO<>(itens, proximoCursor);
+    }
+
+    /**
+     * Resolve o tamanho da página respeitando o máximo configurado.
+     */
+    public int tamanhoPagina(Integer limit) {
+        if (limit == null) {
+            return Math.min(tamanhoPadrao, tamanhoMaximo);
+        }
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O parâmetro limit deve ser maior que zero.");
+        }
+        return Math.min(limit, tamanhoMaximo);
+    }
+
+    /**
+     * Converte o cursor recebido no último ID já entregue (0 para a primeira página).
+     */
+    public Integer decodificarCursor(String after) {
+        if (after == null || after.isBlank()) {
+            return 0;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIXO_CURSOR)) {
+                throw new IllegalArgumentException(valor);
+            }
+            return Integer.valueOf(valor.substring(PREFIXO_CURSOR.length()));
+        } catch (IllegalArgumentException e) { // Inclui NumberFormatException
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor de paginação inválido.");
+        }
+    }
+
+    /**
+     * Gera o cursor opaco a partir do último ID da página.
+     */
+    public String codificarCursor(Integer ultimoId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIXO_CURSOR + ultimoId).getBytes(StandardCharsets.UTF_8));
+    }
+}
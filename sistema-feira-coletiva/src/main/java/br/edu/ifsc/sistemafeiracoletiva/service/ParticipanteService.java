@@ -2,14 +2,27 @@ package br.edu.ifsc.sistemafeiracoletiva.service;
 
 import br.edu.ifsc.sistemafeiracoletiva.dto.*;
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.*;
+import br.edu.ifsc.sistemafeiracoletiva.repository.ClienteRepository;
+import br.edu.ifsc.sistemafeiracoletiva.repository.OfertaRepository;
 import br.edu.ifsc.sistemafeiracoletiva.repository.ParticipanteRepository;
+import br.edu.ifsc.sistemafeiracoletiva.repository.ProdutoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -23,20 +36,36 @@ public class ParticipanteService {
     @Autowired
     private ParticipanteRepository repository;
     @Autowired
+    private PaginacaoKeyset paginacao;
+    @Autowired
     private ClienteService clienteService; // Para buscar o Cliente
     @Autowired
     private PublicacaoService publicacaoService; // Para buscar a Publicacao
     @Autowired
     private OfertaService ofertaService; // Para acessar produtos via oferta
+    @Autowired
+    private ClienteRepository clienteRepository; // Clientes do lote em uma consulta
+    @Autowired
+    private ProdutoRepository produtoRepository; // Reserva de estoque
+    @Autowired
+    private OfertaRepository ofertaRepository; // Estoque total da oferta
+    @Autowired
+    private ReservaEstoqueService reservaEstoque; // Saldo em memória das publicações em EXPOSICAO
+    @Autowired
+    private PublicacaoTotaisService totais; // Totais da publicação, na mesma transação
+    @Autowired
+    private ApplicationEventPublisher eventos; // Avisa o snapshot do catálogo
+    @PersistenceContext
+    private EntityManager entityManager;
 
     /**
-     * Lista todas as participações, convertendo as entidades para DTOs.
-     * @return Lista de ParticipanteOutputDTO.
+     * Lista as participações em páginas ordenadas por ID (paginação por cursor).
+     * @param after cursor devolvido na página anterior (nulo para a primeira página).
+     * @param limit tamanho da página (limitado por paginacao.tamanho-maximo).
      */
-    public List<ParticipanteOutputDTO> listar() {
-        return repository.findAll().stream()
-                .map(this::toOutputDTO)
-                .collect(Collectors.toList());
+    public PaginaOutputDTO<ParticipanteOutputDTO> listar(String after, Integer limit) {
+        return paginacao.paginar(after, limit, repository::findByIdGreaterThanOrderByIdAsc,
+                Participante::getId, this::toOutputDTO);
     }
 
     /**
@@ -60,13 +89,17 @@ public class ParticipanteService {
     }
 
     /**
-     * Salva uma nova participação com seus pedidos.
+     * Salva uma nova participação com seus pedidos, reservando o estoque dos produtos.
+     * Em publicações em EXPOSICAO, com a reserva em memória ligada, a reserva é feita no ReservaEstoqueService
+     * e descontada do banco depois, em lote. Nos demais casos é um UPDATE condicional por produto (só decrementa se houver saldo),
+     * em ordem crescente de ID para que participações concorrentes travem as linhas na mesma ordem.
+     * Se algum produto não tiver saldo, a exceção desfaz a transação inteira: nada é reservado.
      *
      * @param dto DTO de entrada com informações do participante e seus pedidos.
      * @return ParticipanteOutputDTO salvo.
      * @throws IllegalArgumentException se o cliente ou publicação não existirem,
-     * ou se a oferta não estiver disponível, ou se o produto não for da oferta da publicação,
-     * ou se a quantidade pedida for maior que o estoque disponível (neste caso, apenas informamos, não decrementamos).
+     * ou se o produto não for da oferta da publicação,
+     * ou se a quantidade pedida for maior que o estoque disponível.
      */
     @Transactional
     public ParticipanteOutputDTO criarParticipacao(ParticipanteInputDTO dto) {
@@ -79,44 +112,200 @@ public class ParticipanteService {
             throw new IllegalArgumentException("Este cliente já possui uma participação registrada para esta publicação.");
         }
 
-        // Criar a entidade Participante
-        Participante participante = new Participante(cliente, publicacao);
+        // Produtos da oferta (com categoria) carregados uma vez e indexados por ID
+        IndiceProdutos produtos = IndiceProdutos.de(produtoRepository.findByOfertaIdOrderByIdAsc(ofertaAssociada.getId()));
 
-        // Processar cada pedido
-        for (PedidoInputDTO pedidoDto : dto.getPedidos()) {
-            // Buscar o produto dentro da oferta da publicação
-            // Iteramos sobre os produtos da oferta para encontrar o correto
-            Produto produto = ofertaAssociada.getProdutos().stream()
-                    .filter(p -> p.getId().equals(pedidoDto.getIdProduto()))
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalArgumentException(
-                            "Produto com ID " + pedidoDto.getIdProduto() + " não encontrado na oferta da publicação."
-                    ));
-
-            // ✅ Lógica de verificação de estoque (não decrementa, apenas informa)
-            if (pedidoDto.getQtdProdutos() > produto.getQtdEstoque()) {
-                log.warn("Tentativa de pedir mais do que o estoque disponível para o produto {}. Pedido: {}, Estoque: {}",
-                        produto.getNome(), pedidoDto.getQtdProdutos(), produto.getQtdEstoque());
-                // Poderíamos lançar uma exceção ou ajustar a quantidade aqui se o requisito mudasse
+        Map<Integer, Integer> qtdPorProduto = somarPorProduto(dto.getPedidos(), produtos);
+
+        // ✅ Reserva atômica: o saldo em memória ou o UPDATE condicional decide, não o valor lido acima
+        if (publicacao.getEtapa() == Etapa.EXPOSICAO) {
+            reservaEstoque.carregarOferta(ofertaAssociada.getId());
+        }
+        Set<Integer> reservadosEmMemoria = new HashSet<>();
+        int qtdReservadaNoBanco = 0;
+        for (Map.Entry<Integer, Integer> item : qtdPorProduto.entrySet()) {
+            boolean emMemoria = reservaEstoque.controla(item.getKey());
+            boolean reservado = emMemoria
+                    ? reservaEstoque.reservar(item.getKey(), item.getValue())
+                    : produtoRepository.reservarEstoque(item.getKey(), item.getValue()) == 1;
+            if (!reservado) {
+                Produto produto = produtos.buscar(item.getKey());
+                log.warn("Estoque insuficiente para o produto {}. Pedido: {}", produto.getNome(), item.getValue());
                 throw new IllegalArgumentException(
-                        "Quantidade solicitada para o produto '" + produto.getNome() + "' excede o estoque disponível. Estoque: " + produto.getQtdEstoque()
+                        "Quantidade solicitada para o produto '" + produto.getNome() + "' excede o estoque disponível."
                 );
             }
+            if (emMemoria) {
+                reservadosEmMemoria.add(item.getKey());
+            } else {
+                qtdReservadaNoBanco += item.getValue();
+            }
+        }
+        if (qtdReservadaNoBanco > 0) {
+            ofertaRepository.ajustarEstoqueTotal(ofertaAssociada.getId(), -qtdReservadaNoBanco);
+        }
 
-            // Criar a entidade Pedido
+        // Os UPDATEs em massa limpam o contexto: as entidades são referenciadas de novo pelo ID
+        Participante participante = new Participante(
+                entityManager.getReference(Cliente.class, cliente.getId()),
+                entityManager.getReference(Publicacao.class, publicacao.getId()));
+
+        // Criar um Pedido por item, com o preço unitário do produto no momento do pedido
+        for (PedidoInputDTO pedidoDto : dto.getPedidos()) {
+            Produto produto = produtos.buscar(pedidoDto.getIdProduto());
             Pedido pedido = new Pedido(
-                    produto,
+                    entityManager.getReference(Produto.class, produto.getId()),
                     pedidoDto.getQtdProdutos(),
-                    produto.getPreco(), // Copia o preço unitário do produto no momento do pedido
+                    produto.getPreco(),
                     participante // O participante ao qual este pedido pertence
             );
+            pedido.setEstoquePendente(reservadosEmMemoria.contains(produto.getId())); // Descontado na próxima descarga
             participante.addPedido(pedido); // Adiciona o pedido e atualiza os totais do participante
         }
 
         Participante salvo = repository.save(participante);
+        totais.registrarParticipacoes(publicacao.getId(), List.of(salvo)); // Por último: trava a linha dos totais só até o commit
+        if (qtdReservadaNoBanco > 0) {
+            // Reservas em memória avisam o catálogo na descarga
+            eventos.publishEvent(EstoqueAlteradoEvent.de(List.of(ofertaAssociada.getId()), EstoqueAlteradoEvent.Origem.PARTICIPACAO));
+        }
         return toOutputDTO(salvo);
     }
 
+    /**
+     * Resultado de uma participação gravada em lote: ID da participação criada ou motivo da recusa.
+     */
+    public record ResultadoParticipacao(Integer idParticipante, String erro) {
+    }
+
+    /**
+     * Grava em uma única transação um lote de participações da mesma publicação (fila de participações).
+     * As participações são avaliadas na ordem da lista: a que não passa na validação ou não tem estoque
+     * é recusada sozinha, sem afetar as demais. Publicação, produtos, clientes e participações existentes
+     * são lidos uma vez por lote, e os INSERTs saem agrupados no commit.
+     * O estoque é reservado em memória (ReservaEstoqueService) ou, com ela desligada, por UPDATE condicional.
+     *
+     * @param idPublicacao publicação de todas as participações do lote.
+     * @param dtos participações na ordem de chegada.
+     * @return um resultado por participação, na mesma ordem da lista.
+     * @throws IllegalArgumentException se a publicação não estiver em EXPOSICAO (lote inteiro recusado).
+     */
+    @Transactional
+    public List<ResultadoParticipacao> criarParticipacoesEmLote(Integer idPublicacao, List<ParticipanteInputDTO> dtos) {
+        Publicacao publicacao = publicacaoService.buscarEntidadePorId(idPublicacao);
+        if (publicacao.getEtapa() != Etapa.EXPOSICAO) {
+            throw new IllegalArgumentException("A publicação não está mais em exposição.");
+        }
+        Integer idOferta = publicacao.getOferta().getId();
+        boolean emMemoria = reservaEstoque.carregarOferta(idOferta);
+        IndiceProdutos produtos = IndiceProdutos.de(produtoRepository.findByOfertaIdOrderByIdAsc(idOferta));
+
+        Set<Integer> idsClientes = dtos.stream()
+                .map(ParticipanteInputDTO::getIdCliente)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, Cliente> clientes = clienteRepository.findAllById(idsClientes).stream()
+                .collect(Collectors.toMap(Cliente::getId, Function.identity()));
+        Set<Integer> jaParticipam = new HashSet<>(repository.findIdsClientesPorPublicacao(idPublicacao, idsClientes));
+
+        List<ResultadoParticipacao> resultados = new ArrayList<>(dtos.size());
+        List<Participante> gravadas = new ArrayList<>(dtos.size());
+        int qtdReservadaNoBanco = 0;
+        for (ParticipanteInputDTO dto : dtos) {
+            try {
+                Cliente cliente = clientes.get(dto.getIdCliente());
+                if (cliente == null) {
+                    throw new IllegalArgumentException("Cliente não encontrado");
+                }
+                if (jaParticipam.contains(cliente.getId())) {
+                    throw new IllegalArgumentException("Este cliente já possui uma participação registrada para esta publicação.");
+                }
+                Map<Integer, Integer> qtdPorProduto = somarPorProduto(dto.getPedidos(), produtos);
+                boolean reservado = emMemoria
+                        ? reservaEstoque.reservarTodos(qtdPorProduto)
+                        : reservaEstoque.reservarNoBanco(qtdPorProduto);
+                if (!reservado) {
+                    throw new IllegalArgumentException("Quantidade solicitada excede o estoque disponível.");
+                }
+                if (!emMemoria) {
+                    qtdReservadaNoBanco += qtdPorProduto.values().stream().mapToInt(Integer::intValue).sum();
+                }
+
+                Participante participante = new Participante(cliente, publicacao);
+                for (PedidoInputDTO pedidoDto : dto.getPedidos()) {
+                    Produto produto = produtos.buscar(pedidoDto.getIdProduto());
+                    Pedido pedido = new Pedido(produto, pedidoDto.getQtdProdutos(), produto.getPreco(), participante);
+                    pedido.setEstoquePendente(emMemoria); // Reservado em memória: descontado na próxima descarga
+                    participante.addPedido(pedido);
+                }
+                Participante salvo = repository.save(participante);
+                gravadas.add(salvo);
+                resultados.add(new ResultadoParticipacao(salvo.getId(), null));
+                jaParticipam.add(cliente.getId());
+            } catch (IllegalArgumentException e) {
+                resultados.add(new ResultadoParticipacao(null, e.getMessage()));
+            }
+        }
+        totais.registrarParticipacoes(idPublicacao, gravadas); // Um incremento por lote
+        if (qtdReservadaNoBanco > 0) {
+            ofertaRepository.ajustarEstoqueTotal(idOferta, -qtdReservadaNoBanco);
+            eventos.publishEvent(EstoqueAlteradoEvent.de(List.of(idOferta), EstoqueAlteradoEvent.Origem.PARTICIPACAO));
+        }
+        return resultados;
+    }
+
+    /**
+     * Marca a participação como paga e soma o valor nos totais da publicação.
+     * A linha da participação é travada para que pagamentos simultâneos não somem o valor duas vezes;
+     * pagar de novo uma participação já paga não altera nada.
+     *
+     * @param id ID da participação.
+     * @return participação atualizada, ou vazio se não existir.
+     * @throws IllegalArgumentException se o prazo de pagamento da publicação já tiver terminado
+     * (ou a participação já tiver sido cancelada).
+     */
+    @Transactional
+    public Optional<ParticipanteOutputDTO> registrarPagamento(int id) {
+        Optional<Participante> encontrada = repository.findParaAtualizarById(id);
+        if (encontrada.isEmpty()) {
+            return Optional.empty();
+        }
+        Participante participante = encontrada.get();
+        Etapa etapa = participante.getPublicacao().getEtapa();
+        if (etapa == Etapa.FINALIZADO || etapa == Etapa.INCOMPLETO || Boolean.TRUE.equals(participante.getStatusCancelado())) {
+            throw new IllegalArgumentException("O prazo de pagamento desta publicação já terminou.");
+        }
+        if (!Boolean.TRUE.equals(participante.getStatusPago())) {
+            participante.setStatusPago(Boolean.TRUE);
+            totais.registrarPagamento(participante.getPublicacao().getId(), participante.getValorTotal());
+        }
+        return Optional.of(toOutputDTO(participante));
+    }
+
+    /**
+     * Valida os itens do pedido em uma passada e soma as quantidades por produto (ordenado por ID).
+     * @throws IllegalArgumentException se não houver itens, a quantidade não for positiva
+     * ou o produto não for da oferta da publicação.
+     */
+    private Map<Integer, Integer> somarPorProduto(List<PedidoInputDTO> pedidos, IndiceProdutos produtos) {
+        if (pedidos == null || pedidos.isEmpty()) {
+            throw new IllegalArgumentException("Deve haver pelo menos um pedido na participação.");
+        }
+        Map<Integer, Integer> qtdPorProduto = new TreeMap<>();
+        for (PedidoInputDTO pedidoDto : pedidos) {
+            if (pedidoDto.getQtdProdutos() == null || pedidoDto.getQtdProdutos() <= 0) {
+                throw new IllegalArgumentException("A quantidade pedida deve ser maior que zero.");
+            }
+            Produto produto = produtos.buscar(pedidoDto.getIdProduto());
+            if (produto == null) {
+                throw new IllegalArgumentException(
+                        "Produto com ID " + pedidoDto.getIdProduto() + " não encontrado na oferta da publicação.");
+            }
+            qtdPorProduto.merge(produto.getId(), pedidoDto.getQtdProdutos(), Integer::sum);
+        }
+        return qtdPorProduto;
+    }
+
     /**
      * Converte uma entidade Participante para DTO de saída.
      * @param p Entidade Participante.
@@ -147,6 +336,7 @@ public class ParticipanteService {
                 p.getValorTotal(),
                 p.getQtdTotalProdutos(),
                 p.getStatusPago(),
+                p.getStatusCancelado(),
                 p.getDataParticipacao(),
                 clienteOutputDTO,
                 publicacaoResumoDTO,
@@ -0,0 +1,143 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.dto.ClienteAutenticadoDTO;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Cliente;
+import br.edu.ifsc.sistemafeiracoletiva.repository.ClienteRepository;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serviço responsável por resolver o principal autenticado a partir das claims do JWT.
+ * ✅ Monta o principal com os dados do token (id, nome, role), sem ida ao banco.
+ * ✅ Mantém os principais em um cache em memória com TTL.
+ * ✅ Consulta o banco apenas para tokens emitidos antes de uma alteração/remoção da conta.
+ * ✅ Invalida após o commit da alteração (ContaAlteradaEvent): a consulta ao banco já vê a linha nova.
+ */
+@Service
+public class PrincipalCacheService {
+
+    public static final String CLAIM_ID = "id";
+    public static final String CLAIM_NOME = "nome";
+    public static final String CLAIM_ROLE = "role";
+    public static final String ROLE_CLIENTE = "CLIENTE";
+
+    @Autowired
+    private ClienteRepository clienteRepository; // Usado apenas quando o token está desatualizado
+
+    /**
+     * Tempo (ms) que um principal permanece em cache.
+     * Defina no application.properties:
+     * jwt.principal-cache.ttl=300000
+     */
+    @Value("${jwt.principal-cache.ttl:300000}")
+    private long ttl;
+
+    @Value("${jwt.expiration}")
+    private Long jwtExpiration;
+
+    // email -> principal resolvido
+    private final Map<String, Entrada> principais = new ConcurrentHashMap<>();
+
+    // email -> instante (ms) da última alteração ou remoção da conta
+    private final Map<String, Long> alteracoes = new ConcurrentHashMap<>();
+
+    private record Entrada(ClienteAutenticadoDTO principal, long expiraEm) {
+    }
+
+    /**
+     * Resolve o principal de um token já verificado.
+     * @param claims claims do JWT.
+     * @return principal autenticado, ou null se a conta foi removida.
+     */
+    public ClienteAutenticadoDTO resolver(Claims claims) {
+        String email = claims.getSubject();
+        long agora = System.currentTimeMillis();
+        Long marca = alteracoes.get(email);
+
+        Entrada emCache = principais.get(email);
+        if (emCache != null && emCache.expiraEm() > agora) {
+            return emCache.principal();
+        }
+
+        ClienteAutenticadoDTO principal = tokenAtualizado(claims)
+                ? doToken(claims)
+                : doBanco(email);
+
+        if (principal != null) {
+            // Conta removida não fica em cache: um novo cadastro com o mesmo email vale na hora
+            Entrada entrada = new Entrada(principal, agora + ttl);
+            principais.put(email, entrada);
+            if (!Objects.equals(alteracoes.get(email), marca)) {
+                principais.remove(email, entrada); // Invalidada durante a leitura: o principal pode ser o antigo
+            }
+        }
+        return principal;
+    }
+
+    /**
+     * Descarta os principais das contas alteradas, depois do commit (ou na hora, sem transação).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarConta(ContaAlteradaEvent evento) {
+        evento.emails().forEach(this::invalidar);
+    }
+
+    /**
+     * Descarta o principal em cache de uma conta alterada ou removida.
+     * Tokens emitidos antes deste instante passam a ser conferidos no banco.
+     * @param email email da conta.
+     */
+    public void invalidar(String email) {
+        if (email == null) {
+            return;
+        }
+        long agora = System.currentTimeMillis();
+        alteracoes.put(email, agora);
+        principais.remove(email);
+
+        // Marcações mais antigas que a validade do token já não afetam nenhum token ativo
+        alteracoes.values().removeIf(instante -> instante + jwtExpiration < agora);
+    }
+
+    /**
+     * Indica se as claims do token podem ser usadas diretamente como principal.
+     */
+    private boolean tokenAtualizado(Claims claims) {
+        if (claims.get(CLAIM_ID) == null) {
+            return false; // Token emitido antes das claims de principal
+        }
+        Long alteradoEm = alteracoes.get(claims.getSubject());
+        if (alteradoEm == null) {
+            return true;
+        }
+        Date emitidoEm = claims.getIssuedAt();
+        return emitidoEm != null && emitidoEm.getTime() > alteradoEm;
+    }
+
+    private ClienteAutenticadoDTO doToken(Claims claims) {
+        return new ClienteAutenticadoDTO(
+                claims.get(CLAIM_ID, Integer.class),
+                claims.get(CLAIM_NOME, String.class),
+                claims.getSubject(),
+                claims.get(CLAIM_ROLE, String.class)
+        );
+    }
+
+    private ClienteAutenticadoDTO doBanco(String email) {
+        return clienteRepository.findByEmail(email)
+                .map(this::toPrincipal)
+                .orElse(null);
+    }
+
+    private ClienteAutenticadoDTO toPrincipal(Cliente c) {
+        return new ClienteAutenticadoDTO(c.getId(), c.getNome(), c.getEmail(), ROLE_CLIENTE);
+    }
+}
@@ -5,6 +5,7 @@ import br.edu.ifsc.sistemafeiracoletiva.model.domain.*;
 import br.edu.ifsc.sistemafeiracoletiva.repository.ProdutoRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.Arrays;
@@ -23,18 +24,22 @@ public class ProdutoService {
     @Autowired
     private ProdutoRepository repository;
     @Autowired
+    private PaginacaoKeyset paginacao;
+    @Autowired
+    private ApplicationEventPublisher eventos; // Avisa o snapshot do catálogo
+    @Autowired
     private CategoriaService categoriaService;
     @Autowired
     private OfertaService ofertaService;
 
     /**
-     * Lista todos os produtos, convertendo as entidades para DTOs antes de devolver.
+     * Lista os produtos em páginas ordenadas por ID (paginação por cursor).
+     * @param after cursor devolvido na página anterior (nulo para a primeira página).
+     * @param limit tamanho da página (limitado por paginacao.tamanho-maximo).
      */
-    public List<ProdutoOutputDTO> listar() {
-        return repository.findAll()
-                .stream()
-                .map(this::toOutputDTO)
-                .collect(Collectors.toList());
+    public PaginaOutputDTO<ProdutoOutputDTO> listar(String after, Integer limit) {
+        return paginacao.paginar(after, limit, repository::findByIdGreaterThanOrderByIdAsc,
+                Produto::getId, this::toOutputDTO);
     }
 
     /**
@@ -57,6 +62,7 @@ public class ProdutoService {
             produto.setId(id); // Atualização
         }
         Produto salvo = repository.save(produto);
+        eventos.publishEvent(new CatalogoAlteradoEvent(CatalogoAlteradoEvent.Agregado.OFERTA, oferta.getId())); // Produto aparece dentro da oferta no catálogo
         return toOutputDTO(salvo);
     }
 
@@ -68,17 +74,24 @@ public class ProdutoService {
                 .map(this::toEntity)
                 .collect(Collectors.toList());
 
-        return repository.saveAll(produtos)
+        List<ProdutoOutputDTO> salvos = repository.saveAll(produtos)
                 .stream()
                 .map(this::toOutputDTO)
                 .collect(Collectors.toList());
+        eventos.publishEvent(CatalogoAlteradoEvent.emLote(CatalogoAlteradoEvent.Agregado.OFERTA,
+                produtos.stream().map(p -> p.getOferta().getId()).toList()));
+        return salvos;
     }
 
     /**
      * Remove uma produto pelo ID.
      */
     public void deletar(int id) {
+        Integer ofertaId = repository.findById(id)
+                .map(p -> p.getOferta().getId())
+                .orElse(null);
         repository.deleteById(id);
+        eventos.publishEvent(new CatalogoAlteradoEvent(CatalogoAlteradoEvent.Agregado.OFERTA, ofertaId));
     }
 
     /**
@@ -2,14 +2,20 @@ package br.edu.ifsc.sistemafeiracoletiva.service;
 
 import br.edu.ifsc.sistemafeiracoletiva.dto.*;
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.*;
+import br.edu.ifsc.sistemafeiracoletiva.repository.ParticipanteRepository;
+import br.edu.ifsc.sistemafeiracoletiva.repository.PedidoRepository;
 import br.edu.ifsc.sistemafeiracoletiva.repository.PublicacaoRepository;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -22,6 +28,16 @@ public class PublicacaoService {
     @Autowired
     private PublicacaoRepository repository;
     @Autowired
+    private ParticipanteRepository participanteRepository;
+    @Autowired
+    private PedidoRepository pedidoRepository;
+    @Autowired
+    private PaginacaoKeyset paginacao;
+    @Autowired
+    private ApplicationEventPublisher eventos; // Avisa o snapshot do catálogo
+    @Autowired
+    private PublicacaoTotaisService totais; // Totais de participações da publicação
+    @Autowired
     private OfertaService ofertaService;
     @Autowired
     private LocalDeRetiradaService localDeRetiradaService;
@@ -29,27 +45,24 @@ public class PublicacaoService {
     private ClienteService clienteService; // Para converter Cliente em DTO
 
     /**
-     * Lista todas as publicações, convertendo as entidades para DTOs antes de devolver.
-     * Retorna o DTO sem os detalhes dos participantes.
+     * Lista todas as publicações em ordem de ID (sem participantes).
+     * Usado pelo CatalogoSnapshotService; o GET /api/publicacoes é servido pelo snapshot.
      */
-    public List<PublicacaoOutputDTO> listar() {
-        return repository.findAll()
+    List<PublicacaoOutputDTO> listarTodas() {
+        return repository.findAllByOrderByIdAsc()
                 .stream()
-                .map(this::toOutputDTO) // Usa o DTO sem participantes
+                .map(this::toOutputDTO)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Lista as publicações referentes a um vendedor específico.
-     * Retorna o DTO sem os detalhes dos participantes.
-     *
-     * @param vendedorId O ID do vendedor.
-     * @return Uma lista de DTOs de publicações.
+     * Lista as publicações pelos IDs (sem participantes), montadas a partir das entidades.
+     * Usado para manter o PublicacaoViewService; os GETs de publicações leem a publicacao_view.
      */
-    public List<PublicacaoOutputDTO> listarPorVendedor(Integer vendedorId) {
-        return repository.findByOfertaVendedorId(vendedorId)
+    List<PublicacaoOutputDTO> listarPorIds(Collection<Integer> ids) {
+        return repository.findByIdInOrderByIdAsc(ids)
                 .stream()
-                .map(this::toOutputDTO) // Usa o DTO sem participantes
+                .map(this::toOutputDTO)
                 .collect(Collectors.toList());
     }
 
@@ -72,13 +85,37 @@ public class PublicacaoService {
 
     /**
      * ✅ NOVO: Busca uma publicação por ID e devolve um Optional<PublicacaoDetalhesOutputDTO>,
-     * incluindo a lista de participantes e seus pedidos.
+     * incluindo uma página de participantes e seus pedidos.
+     * Sempre três consultas, qualquer que seja o número de participantes: publicação com oferta e produtos,
+     * página de participantes com cliente e pedidos da página com produto e categoria.
      * @param id ID da publicação.
+     * @param after cursor da página de participantes anterior (nulo para a primeira página).
+     * @param limit quantidade de participantes (limitado por paginacao.tamanho-maximo).
      * @return Optional de PublicacaoDetalhesOutputDTO.
      */
-    @Transactional // Necessário para carregar lazy relations (participantes, pedidos)
-    public Optional<PublicacaoDetalhesOutputDTO> buscarPorIdComParticipantes(int id) {
-        return repository.findById(id).map(this::toPublicacaoDetalhesOutputDTO);
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public Optional<PublicacaoDetalhesOutputDTO> buscarPorIdComParticipantes(int id, String after, Integer limit) {
+        Optional<Publicacao> publicacao = repository.findComOfertaById(id);
+        if (publicacao.isEmpty()) {
+            return Optional.empty();
+        }
+
+        PaginaOutputDTO<Participante> participantes = paginacao.paginar(after, limit,
+                (ultimoId, limite) -> participanteRepository.findByPublicacaoIdAndIdGreaterThanOrderByIdAsc(id, ultimoId, limite),
+                Participante::getId, Function.identity());
+
+        Map<Integer, List<Pedido>> pedidosPorParticipante = participantes.getItens().isEmpty()
+                ? Map.of()
+                : pedidoRepository.findByParticipanteIdInOrderByParticipanteIdAscIdAsc(
+                        participantes.getItens().stream().map(Participante::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(pedido -> pedido.getParticipante().getId())); // ID do proxy, sem consulta
+
+        List<ParticipanteResumoPublicacaoOutputDTO> participantesDTO = participantes.getItens().stream()
+                .map(p -> toParticipanteResumoPublicacaoOutputDTO(p, pedidosPorParticipante.getOrDefault(p.getId(), List.of())))
+                .collect(Collectors.toList());
+
+        return Optional.of(toPublicacaoDetalhesOutputDTO(publicacao.get(), participantesDTO, participantes.getProximoCursor()));
     }
 
     /**
@@ -111,6 +148,10 @@ public class PublicacaoService {
         }
 
         Publicacao salvo = repository.save(publicacao);
+        if (id == null) {
+            totais.criar(List.of(salvo.getId())); // Publicação nova começa com os totais zerados
+        }
+        eventos.publishEvent(new CatalogoAlteradoEvent(CatalogoAlteradoEvent.Agregado.PUBLICACAO, salvo.getId()));
         return toOutputDTO(salvo); // Retorna o DTO sem participantes
     }
 
@@ -123,15 +164,20 @@ public class PublicacaoService {
                 .map(this::toEntity)
                 .collect(Collectors.toList());
 
-        return repository.saveAll(publicacoes)
+        List<PublicacaoOutputDTO> salvas = repository.saveAll(publicacoes)
                 .stream()
                 .map(this::toOutputDTO) // Retorna o DTO sem participantes
                 .collect(Collectors.toList());
+        List<Integer> ids = salvas.stream().map(PublicacaoOutputDTO::getId).toList();
+        totais.criar(ids);
+        eventos.publishEvent(CatalogoAlteradoEvent.emLote(CatalogoAlteradoEvent.Agregado.PUBLICACAO, ids));
+        return salvas;
     }
 
     /**
      * Remove uma publicacao pelo ID.
      */
+    @Transactional
     public void deletar(int id) {
         Publicacao publicacao = repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Publicação não encontrada para exclusão."));
@@ -144,6 +190,8 @@ public class PublicacaoService {
         // ofertaService.salvarEntidade(oferta);
 
         repository.deleteById(id);
+        totais.remover(id);
+        eventos.publishEvent(new CatalogoAlteradoEvent(CatalogoAlteradoEvent.Agregado.PUBLICACAO, id));
     }
 
     /**
@@ -176,9 +224,11 @@ public class PublicacaoService {
     }
 
     /**
-     * ✅ NOVO: Converte uma entidade Publicacao para PublicacaoDetalhesOutputDTO (com participantes).
+     * ✅ NOVO: Converte uma entidade Publicacao para PublicacaoDetalhesOutputDTO (com uma página de participantes).
      */
-    private PublicacaoDetalhesOutputDTO toPublicacaoDetalhesOutputDTO(Publicacao p) {
+    private PublicacaoDetalhesOutputDTO toPublicacaoDetalhesOutputDTO(Publicacao p,
+                                                                      List<ParticipanteResumoPublicacaoOutputDTO> participantesDTO,
+                                                                      String proximoCursorParticipantes) {
         LocalDeRetiradaOutputDTO dtoLocalDeRetirada = new LocalDeRetiradaOutputDTO(
                 p.getLocalDeRetirada().getId(),
                 p.getLocalDeRetirada().getNome(),
@@ -187,11 +237,6 @@ public class PublicacaoService {
 
         OfertaOutputDTO dtoOferta = ofertaService.toOutputDTO(p.getOferta());
 
-        // Converte a lista de participantes e seus pedidos
-        List<ParticipanteResumoPublicacaoOutputDTO> participantesDTO = p.getParticipantes().stream()
-                .map(this::toParticipanteResumoPublicacaoOutputDTO)
-                .collect(Collectors.toList());
-
         return new PublicacaoDetalhesOutputDTO(
                 p.getId(),
                 p.getDtFinalExposicao(),
@@ -199,14 +244,16 @@ public class PublicacaoService {
                 p.getEtapa().name(),
                 dtoLocalDeRetirada,
                 dtoOferta,
-                participantesDTO // ✅ Adicionado
+                participantesDTO, // ✅ Adicionado
+                proximoCursorParticipantes
         );
     }
 
     /**
-     * ✅ NOVO: Converte uma entidade Participante para DTO de resumo para PublicacaoDetalhesOutputDTO.
+     * ✅ NOVO: Converte uma entidade Participante (com os pedidos já carregados) para DTO de resumo para PublicacaoDetalhesOutputDTO.
      */
-    private ParticipanteResumoPublicacaoOutputDTO toParticipanteResumoPublicacaoOutputDTO(Participante participante) {
+    private ParticipanteResumoPublicacaoOutputDTO toParticipanteResumoPublicacaoOutputDTO(Participante participante,
+                                                                                         List<Pedido> pedidos) {
         // Reutiliza ClienteOutputDTO
         ClienteOutputDTO clienteOutputDTO = new ClienteOutputDTO(
                 participante.getCliente().getId(),
@@ -216,7 +263,7 @@ public class PublicacaoService {
         );
 
         // Converte a lista de pedidos do participante
-        List<PedidoOutputDTO> pedidosOutputDTO = participante.getPedidos().stream()
+        List<PedidoOutputDTO> pedidosOutputDTO = pedidos.stream()
                 .map(this::toPedidoOutputDTO) // Reutiliza o método de conversão de Pedido
                 .collect(Collectors.toList());
 
@@ -225,6 +272,7 @@ public class PublicacaoService {
                 participante.getValorTotal(),
                 participante.getQtdTotalProdutos(),
                 participante.getStatusPago(),
+                participante.getStatusCancelado(),
                 participante.getDataParticipacao(),
                 clienteOutputDTO,
                 pedidosOutputDTO
@@ -0,0 +1,214 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.dto.PublicacaoTotaisOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.TotalProdutoPublicacaoOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Participante;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Pedido;
+import br.edu.ifsc.sistemafeiracoletiva.repository.PublicacaoRepository;
+import br.edu.ifsc.sistemafeiracoletiva.repository.PublicacaoTotaisRepository;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Mantém os totais das publicações (publicacao_totais e publicacao_produto_totais):
+ * ✅ Incrementos com INSERT ... ON DUPLICATE KEY UPDATE na transação da participação, pagamento ou cancelamento:
+ * os totais nunca ficam fora de sincronia com os participantes.
+ * ✅ Chamado no fim da transação, para segurar a trava da linha da publicação só até o commit;
+ * um lote da fila de participações soma tudo antes e faz um único incremento.
+ * ✅ A linha zerada é criada junto com a publicação; na subida da aplicação só as publicações
+ * sem totais (ex: gravadas antes desta tabela existir) são calculadas, sem apagar nada.
+ */
+@Slf4j
+@Service
+public class PublicacaoTotaisService {
+
+    private static final String SOMAR_PUBLICACAO_SQL = "INSERT INTO publicacao_totais (id_publicacao, qtd_participantes,"
+            + " qtd_participantes_pagos, qtd_produtos, valor_total, valor_pago, atualizado_em) VALUES (?, ?, ?, ?, ?, ?, ?)"
+            + " ON DUPLICATE KEY UPDATE qtd_participantes = qtd_participantes + VALUES(qtd_participantes),"
+            + " qtd_participantes_pagos = qtd_participantes_pagos + VALUES(qtd_participantes_pagos),"
+            + " qtd_produtos = qtd_produtos + VALUES(qtd_produtos), valor_total = valor_total + VALUES(valor_total),"
+            + " valor_pago = valor_pago + VALUES(valor_pago), atualizado_em = VALUES(atualizado_em)";
+
+    private static final String CRIAR_SQL = "INSERT IGNORE INTO publicacao_totais (id_publicacao, qtd_participantes,"
+            + " qtd_participantes_pagos, qtd_produtos, valor_total, valor_pago, atualizado_em) VALUES (?, 0, 0, 0, 0, 0, ?)";
+
+    private static final String SOMAR_PRODUTO_SQL = "INSERT INTO publicacao_produto_totais (id_publicacao, id_produto,"
+            + " qtd_reservada, valor_total) VALUES (?, ?, ?, ?)"
+            + " ON DUPLICATE KEY UPDATE qtd_reservada = qtd_reservada + VALUES(qtd_reservada),"
+            + " valor_total = valor_total + VALUES(valor_total)";
+
+    @Autowired
+    private PublicacaoTotaisRepository repository;
+
+    @Autowired
+    private PublicacaoRepository publicacaoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc; // Usa a conexão da transação JPA em andamento
+
+    /**
+     * Item de pedido considerado nos totais.
+     */
+    public record ItemPedido(Integer idProduto, int qtd, BigDecimal valor) {
+    }
+
+    /**
+     * Quantidade e valor somados de um produto.
+     */
+    private static final class Soma {
+        private int qtd;
+        private BigDecimal valor = BigDecimal.ZERO;
+    }
+
+    /**
+     * Calcula os totais só das publicações que ainda não têm linha em publicacao_totais.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void preencherSeNecessario() {
+        int publicacoes = preencherFaltantes();
+        if (publicacoes > 0) {
+            log.info("publicacao_totais preenchida para {} publicações sem totais.", publicacoes);
+        }
+    }
+
+    /**
+     * Cria a linha zerada dos totais das publicações novas, na transação que as gravou.
+     */
+    public void criar(Collection<Integer> idsPublicacao) {
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        jdbc.batchUpdate(CRIAR_SQL, idsPublicacao.stream().map(id -> new Object[]{id, agora}).toList());
+    }
+
+    /**
+     * Soma participações novas de uma publicação (uma participação ou um lote da fila).
+     * Deve rodar na transação que grava as participações. Os valores vêm das entidades em memória,
+     * então não depende dos INSERTs dos participantes, que o Hibernate pode descarregar só no commit.
+     */
+    public void registrarParticipacoes(Integer idPublicacao, Collection<Participante> participantes) {
+        if (participantes.isEmpty()) {
+            return;
+        }
+        int pagos = 0;
+        BigDecimal valorPago = BigDecimal.ZERO;
+        List<ItemPedido> itens = new ArrayList<>();
+        for (Participante p : participantes) {
+            if (Boolean.TRUE.equals(p.getStatusPago())) {
+                pagos++;
+                valorPago = valorPago.add(p.getValorTotal());
+            }
+            for (Pedido pedido : p.getPedidos()) {
+                itens.add(new ItemPedido(pedido.getProduto().getId(), pedido.getQtdProdutos(), pedido.getValorTotalItem()));
+            }
+        }
+        somar(idPublicacao, participantes.size(), pagos, valorPago, itens, 1);
+    }
+
+    /**
+     * Desconta participações não pagas que foram canceladas.
+     * @param participantes quantidade de participações canceladas.
+     * @param itens pedidos dessas participações.
+     */
+    public void registrarCancelamentos(Integer idPublicacao, int participantes, List<ItemPedido> itens) {
+        if (participantes > 0) {
+            somar(idPublicacao, participantes, 0, BigDecimal.ZERO, itens, -1);
+        }
+    }
+
+    /**
+     * Soma uma participação que acabou de ser paga.
+     */
+    public void registrarPagamento(Integer idPublicacao, BigDecimal valor) {
+        jdbc.update(SOMAR_PUBLICACAO_SQL, idPublicacao, 0, 1, 0, BigDecimal.ZERO, valor, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Remove os totais de uma publicação excluída.
+     */
+    public void remover(Integer idPublicacao) {
+        jdbc.update("DELETE FROM publicacao_produto_totais WHERE id_publicacao = ?", idPublicacao);
+        jdbc.update("DELETE FROM publicacao_totais WHERE id_publicacao = ?", idPublicacao);
+    }
+
+    /**
+     * Totais de uma publicação, lidos só das tabelas de totais.
+     * @return totais (zerados se ainda não houve participação), ou vazio se a publicação não existir.
+     */
+    public Optional<PublicacaoTotaisOutputDTO> buscarPorId(Integer idPublicacao) {
+        List<TotalProdutoPublicacaoOutputDTO> produtos = repository.findProdutosPorPublicacao(idPublicacao).stream()
+                .map(p -> new TotalProdutoPublicacaoOutputDTO(p.getIdProduto(), p.getNome(), p.getQtdReservada(), p.getValorTotal()))
+                .toList();
+        return repository.findById(idPublicacao)
+                .map(t -> new PublicacaoTotaisOutputDTO(t.getIdPublicacao(), t.getQtdParticipantes(),
+                        t.getQtdParticipantesPagos(), t.getQtdProdutos(), t.getValorTotal(), t.getValorPago(),
+                        t.getAtualizadoEm(), produtos))
+                .or(() -> publicacaoRepository.existsById(idPublicacao)
+                        ? Optional.of(new PublicacaoTotaisOutputDTO(idPublicacao, 0, 0, 0, BigDecimal.ZERO,
+                        BigDecimal.ZERO, null, produtos))
+                        : Optional.empty());
+    }
+
+    /**
+     * Soma (sinal 1) ou desconta (sinal -1) as participações: um incremento na publicação
+     * e um por produto, em ordem de ID do produto para que transações concorrentes travem na mesma ordem.
+     */
+    private void somar(Integer idPublicacao, int participantes, int pagos, BigDecimal valorPago,
+                       List<ItemPedido> itens, int sinal) {
+        int qtdProdutos = 0;
+        BigDecimal valor = BigDecimal.ZERO;
+        Map<Integer, Soma> porProduto = new TreeMap<>();
+        for (ItemPedido item : itens) {
+            qtdProdutos += item.qtd();
+            valor = valor.add(item.valor());
+            Soma soma = porProduto.computeIfAbsent(item.idProduto(), id -> new Soma());
+            soma.qtd += item.qtd();
+            soma.valor = soma.valor.add(item.valor());
+        }
+        BigDecimal fator = BigDecimal.valueOf(sinal);
+        jdbc.update(SOMAR_PUBLICACAO_SQL, idPublicacao, sinal * participantes, sinal * pagos, sinal * qtdProdutos,
+                valor.multiply(fator), valorPago.multiply(fator), Timestamp.valueOf(LocalDateTime.now()));
+
+        List<Object[]> linhas = new ArrayList<>(porProduto.size());
+        porProduto.forEach((idProduto, soma) ->
+                linhas.add(new Object[]{idPublicacao, idProduto, sinal * soma.qtd, soma.valor.multiply(fator)}));
+        jdbc.batchUpdate(SOMAR_PRODUTO_SQL, linhas);
+    }
+
+    /**
+     * Calcula as duas tabelas a partir de participantes e pedidos (sem as participações canceladas),
+     * com INSERT ... SELECT agrupado, só para as publicações sem linha em publicacao_totais.
+     * Os produtos vêm primeiro: depois do INSERT dos totais a publicação deixa de estar faltando.
+     * @return quantidade de publicações preenchidas.
+     */
+    private int preencherFaltantes() {
+        jdbc.update("INSERT INTO publicacao_produto_totais (id_publicacao, id_produto, qtd_reservada, valor_total)"
+                + " SELECT pa.id_publicacao, pe.id_produto, SUM(pe.qtd_produto), SUM(pe.valor_total_item)"
+                + " FROM pedidos pe JOIN participantes pa ON pa.id = pe.id_participante AND pa.status_cancelado = FALSE"
+                + " WHERE NOT EXISTS (SELECT 1 FROM publicacao_totais t WHERE t.id_publicacao = pa.id_publicacao)"
+                + " GROUP BY pa.id_publicacao, pe.id_produto"
+                + " ON DUPLICATE KEY UPDATE qtd_reservada = VALUES(qtd_reservada), valor_total = VALUES(valor_total)");
+        return jdbc.update("INSERT INTO publicacao_totais (id_publicacao, qtd_participantes, qtd_participantes_pagos, qtd_produtos,"
+                + " valor_total, valor_pago, atualizado_em)"
+                + " SELECT pub.id, COUNT(pa.id), COALESCE(SUM(CASE WHEN pa.status_pago THEN 1 ELSE 0 END), 0),"
+                + " COALESCE(SUM(pa.qtd_total_produtos), 0), COALESCE(SUM(pa.valor_total), 0),"
+                + " COALESCE(SUM(CASE WHEN pa.status_pago THEN pa.valor_total ELSE 0 END), 0), NOW()"
+                + " FROM publicacoes pub LEFT JOIN participantes pa ON pa.id_publicacao = pub.id AND pa.status_cancelado = FALSE"
+                + " WHERE NOT EXISTS (SELECT 1 FROM publicacao_totais t WHERE t.id_publicacao = pub.id)"
+                + " GROUP BY pub.id");
+    }
+}
@@ -0,0 +1,209 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.dto.PublicacaoOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.PublicacaoView;
+import br.edu.ifsc.sistemafeiracoletiva.repository.PublicacaoRepository;
+import br.edu.ifsc.sistemafeiracoletiva.repository.PublicacaoViewRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mantém a publicacao_view: o JSON pronto de cada publicação (com local de retirada, oferta,
+ * vendedor, produtos e categorias) em uma tabela sem joins.
+ * ✅ Atualizada antes do commit da transação que alterou publicação, oferta, produto, local de retirada,
+ * vendedor ou categoria (CatalogoAlteradoEvent), então a view nunca fica atrás dos dados.
+ * ✅ Só as publicações afetadas são regravadas, inclusive nas alterações em lote (o evento traz os IDs).
+ * ✅ Alterações só de estoque (EstoqueAlteradoEvent) são regravadas depois do commit, em transação própria,
+ * sem segurar as travas de linha de quem participou ou liberou estoque.
+ * ✅ Preenchida na subida da aplicação se estiver incompleta (ex: primeira execução).
+ */
+@Slf4j
+@Service
+public class PublicacaoViewService {
+
+    private static final int TAMANHO_BLOCO = 500; // IDs por consulta na regravação
+
+    @Autowired
+    private PublicacaoViewRepository repository;
+
+    @Autowired
+    private PublicacaoRepository publicacaoRepository;
+
+    @Autowired
+    private PublicacaoService publicacaoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Preenche a view se a quantidade de linhas não bate com a de publicações.
+     * Roda antes do CatalogoSnapshotService, que monta as publicações a partir desta tabela.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void preencherSeNecessario() {
+        long publicacoes = publicacaoRepository.count();
+        if (repository.count() != publicacoes) {
+            log.info("Montando a publicacao_view ({} publicações).", publicacoes);
+            reconstruir();
+        }
+    }
+
+    /**
+     * Regrava as linhas afetadas dentro da transação da escrita (ou em uma transação própria, se não houver).
+     * Roda antes dos demais ouvintes do evento, que leem a view.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    @Transactional
+    public void aoAlterarCatalogo(CatalogoAlteradoEvent evento) {
+        if (evento.ids() == null) {
+            reconstruir(); // Não se sabe quais registros mudaram
+            return;
+        }
+        for (List<Integer> ids : emBlocos(evento.ids())) {
+            Set<Integer> afetadas = new HashSet<>();
+            switch (evento.agregado()) {
+                case PUBLICACAO -> afetadas.addAll(ids);
+                case OFERTA -> {
+                    afetadas.addAll(publicacaoRepository.findIdsPorOfertas(ids));
+                    afetadas.addAll(repository.findIdsPorOfertas(ids)); // Oferta excluída
+                }
+                case VENDEDOR -> {
+                    afetadas.addAll(publicacaoRepository.findIdsPorVendedores(ids));
+                    afetadas.addAll(repository.findIdsPorVendedores(ids));
+                }
+                case LOCAL_DE_RETIRADA -> {
+                    afetadas.addAll(publicacaoRepository.findIdsPorLocaisDeRetirada(ids));
+                    afetadas.addAll(repository.findIdsPorLocaisDeRetirada(ids));
+                }
+                case CATEGORIA -> afetadas.addAll(publicacaoRepository.findIdsPorCategorias(ids));
+            }
+            regravar(afetadas);
+        }
+    }
+
+    /**
+     * Regrava as publicações das ofertas cujo estoque mudou, depois do commit e em transação própria.
+     * Roda antes do CatalogoSnapshotService, que relê estas linhas.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void aoAlterarEstoque(EstoqueAlteradoEvent evento) {
+        for (List<Integer> ofertas : emBlocos(evento.ofertas())) {
+            regravar(publicacaoRepository.findIdsPorOfertas(ofertas));
+        }
+    }
+
+    /**
+     * Publicações de um vendedor como array JSON, lido só da publicacao_view.
+     * @return bytes do array, ou null se o vendedor não tiver publicações.
+     */
+    public byte[] listarPorVendedor(Integer vendedorId) {
+        List<String> documentos = repository.findDocumentosPorVendedor(vendedorId);
+        if (documentos.isEmpty()) {
+            return null;
+        }
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        saida.write('[');
+        for (int i = 0; i < documentos.size(); i++) {
+            if (i > 0) {
+                saida.write(',');
+            }
+            saida.writeBytes(documentos.get(i).getBytes(StandardCharsets.UTF_8));
+        }
+        saida.write(']');
+        return saida.toByteArray();
+    }
+
+    /**
+     * Todas as linhas da view em ordem de ID (usado pelo CatalogoSnapshotService).
+     */
+    List<PublicacaoView> listarTodas() {
+        return repository.findAllByOrderByIdPublicacaoAsc();
+    }
+
+    /**
+     * Linhas da view das ofertas informadas.
+     */
+    List<PublicacaoView> listarPorOfertas(Collection<Integer> ofertaIds) {
+        return repository.findByIdOfertaInOrderByIdPublicacaoAsc(ofertaIds);
+    }
+
+    /**
+     * Linhas da view das publicações informadas (as que não existem mais não voltam).
+     */
+    List<PublicacaoView> buscarPorIds(Collection<Integer> publicacaoIds) {
+        return repository.findAllById(publicacaoIds);
+    }
+
+    /**
+     * Regrava as linhas das publicações informadas; as que não existem mais são apagadas.
+     */
+    private void regravar(Collection<Integer> publicacaoIds) {
+        if (publicacaoIds.isEmpty()) {
+            return;
+        }
+        Set<Integer> removidos = new HashSet<>(publicacaoIds);
+        List<PublicacaoView> linhas = new ArrayList<>();
+        for (PublicacaoOutputDTO dto : publicacaoService.listarPorIds(publicacaoIds)) {
+            removidos.remove(dto.getId());
+            linhas.add(toView(dto));
+        }
+        if (!removidos.isEmpty()) {
+            repository.deleteByIdPublicacaoIn(removidos);
+        }
+        repository.saveAll(linhas);
+    }
+
+    /**
+     * Divide os IDs em blocos para manter o IN das consultas pequeno (ex: importação de muitas ofertas).
+     */
+    private static List<List<Integer>> emBlocos(Collection<Integer> ids) {
+        List<Integer> todos = new ArrayList<>(ids);
+        List<List<Integer>> blocos = new ArrayList<>();
+        for (int i = 0; i < todos.size(); i += TAMANHO_BLOCO) {
+            blocos.add(todos.subList(i, Math.min(i + TAMANHO_BLOCO, todos.size())));
+        }
+        return blocos;
+    }
+
+    private void reconstruir() {
+        repository.deleteAllInBatch();
+        repository.saveAll(publicacaoService.listarTodas().stream().map(this::toView).toList());
+    }
+
+    private PublicacaoView toView(PublicacaoOutputDTO dto) {
+        try {
+            return new PublicacaoView(
+                    dto.getId(),
+                    dto.getOferta().getId(),
+                    dto.getOferta().getVendedor().getId(),
+                    dto.getLocalDeRetirada().getId(),
+                    objectMapper.writeValueAsString(dto)
+            );
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar a publicação " + dto.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,464 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Etapa;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reserva de estoque em memória para os produtos das publicações em EXPOSICAO:
+ * ✅ Saldo por produto protegido por travas listradas: a participação não trava a linha do produto no banco.
+ * ✅ Pedido reservado aqui é gravado com estoque_pendente = TRUE; a descarga periódica soma esses pedidos
+ * e desconta os totais de produtos e ofertas em lote.
+ * ✅ Na inicialização aplica o que ficou pendente e recarrega os saldos a partir do banco.
+ * ✅ Ofertas que não têm mais publicação em EXPOSICAO saem da memória e voltam ao UPDATE condicional.
+ * Saldo em memória = qtd_estoque - pedidos pendentes já gravados - reservas de transações ainda abertas.
+ * Os saldos ficam no processo: com várias instâncias cada uma venderia o estoque inteiro. Por isso a reserva
+ * em memória só liga com estoque.reserva.em-memoria=true (uma única instância); desligada, o UPDATE condicional
+ * no banco decide sempre e este serviço só aplica os pedidos que ficaram pendentes.
+ */
+@Slf4j
+@Service
+public class ReservaEstoqueService {
+
+    // Saldo do produto já descontando os pedidos pendentes: a descarga não altera esse valor
+    private static final String SALDO_SQL = "SELECT p.id, p.qtd_estoque - COALESCE((SELECT SUM(pe.qtd_produto)"
+            + " FROM pedidos pe WHERE pe.id_produto = p.id AND pe.estoque_pendente = TRUE), 0) FROM produtos p";
+
+    // UPDATE condicional que também desconta os pedidos pendentes (reservados em memória e ainda não descarregados)
+    private static final String RESERVAR_SQL = "UPDATE produtos p SET p.qtd_estoque = p.qtd_estoque - ? WHERE p.id = ?"
+            + " AND p.qtd_estoque - COALESCE((SELECT SUM(pe.qtd_produto) FROM pedidos pe"
+            + " WHERE pe.id_produto = p.id AND pe.estoque_pendente = TRUE), 0) >= ?";
+
+    private static final int TRAVAS = 64;
+
+    /**
+     * Liga a reserva em memória das publicações em EXPOSICAO. Só para uma única instância da aplicação.
+     * Defina no application.properties:
+     * estoque.reserva.em-memoria=false
+     */
+    @Value("${estoque.reserva.em-memoria:false}")
+    private boolean emMemoria;
+
+    /**
+     * Quantidade máxima de pedidos aplicados por transação de descarga.
+     * Defina no application.properties:
+     * estoque.reserva.lote-descarga=5000
+     */
+    @Value("${estoque.reserva.lote-descarga:5000}")
+    private int loteDescarga;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventos; // Avisa o snapshot do catálogo após a descarga
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private final Map<Integer, Saldo> saldos = new ConcurrentHashMap<>();
+    private final Set<Integer> ofertasCarregadas = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> ofertasEncerradas = ConcurrentHashMap.newKeySet(); // Saindo da memória
+    private final ReentrantLock[] travas = new ReentrantLock[TRAVAS];
+    private TransactionTemplate transacao;
+    private Timer tempoDescarga;
+
+    /**
+     * Saldo de um produto. Alterado somente com a trava do produto.
+     */
+    private static class Saldo {
+        private int disponivel;
+        private int emVoo; // Reservado por transações ainda abertas
+        private volatile long confirmados; // Total reservado por transações confirmadas (corrige recargas concorrentes)
+    }
+
+    @PostConstruct
+    void inicializar() {
+        for (int i = 0; i < TRAVAS; i++) {
+            travas[i] = new ReentrantLock();
+        }
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.tempoDescarga = Timer.builder("estoque.reserva.descarga")
+                .description("Tempo para aplicar no banco as reservas feitas em memória")
+                .register(registry);
+        Gauge.builder("estoque.reserva.produtos", saldos, Map::size)
+                .description("Produtos com saldo controlado em memória")
+                .register(registry);
+    }
+
+    /**
+     * Aplica os pedidos que ficaram pendentes na execução anterior e carrega
+     * os saldos dos produtos de todas as publicações em EXPOSICAO.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconciliar() {
+        descarregar();
+        if (!emMemoria) {
+            return;
+        }
+        List<Integer> ofertas = jdbc.queryForList("SELECT DISTINCT id_oferta FROM publicacoes WHERE etapa = ?",
+                Integer.class, Etapa.EXPOSICAO.name());
+        if (!ofertas.isEmpty()) {
+            recarregar(" WHERE p.id_oferta IN (" + marcadores(ofertas.size()) + ")", ofertas.toArray());
+            ofertasCarregadas.addAll(ofertas);
+        }
+        log.info("Reserva de estoque em memória: {} produtos de {} ofertas.", saldos.size(), ofertas.size());
+    }
+
+    /**
+     * Passa a controlar em memória o estoque dos produtos da oferta, se ainda não controla.
+     *
+     * @return true se o estoque da oferta está em memória, false se a reserva em memória está desligada.
+     */
+    public boolean carregarOferta(Integer idOferta) {
+        if (!emMemoria) {
+            return false;
+        }
+        if (!ofertasCarregadas.contains(idOferta)) {
+            ofertasEncerradas.remove(idOferta);
+            recarregar(" WHERE p.id_oferta = ?", idOferta);
+            ofertasCarregadas.add(idOferta);
+        }
+        return true;
+    }
+
+    /**
+     * Indica se o estoque do produto é controlado em memória.
+     * Produto controlado aqui deve ser reservado sempre por este serviço, nunca direto no banco.
+     */
+    public boolean controla(Integer idProduto) {
+        return saldos.containsKey(idProduto);
+    }
+
+    /**
+     * Reserva a quantidade se houver saldo. Se a transação atual for desfeita, a reserva é devolvida;
+     * se for confirmada, o pedido gravado (estoque_pendente = TRUE) passa a representá-la até a descarga.
+     *
+     * @return true se reservou, false se o saldo não era suficiente.
+     * @throws IllegalStateException se não houver transação ativa ou o produto não estiver em memória.
+     */
+    public boolean reservar(Integer idProduto, int qtd) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("A reserva de estoque precisa de uma transação ativa.");
+        }
+        Saldo saldo = saldos.get(idProduto);
+        if (saldo == null) {
+            throw new IllegalStateException("O estoque do produto " + idProduto + " não está em memória.");
+        }
+
+        ReentrantLock trava = trava(idProduto);
+        trava.lock();
+        try {
+            if (saldo.disponivel < qtd) {
+                return false;
+            }
+            saldo.disponivel -= qtd;
+            saldo.emVoo += qtd;
+        } finally {
+            trava.unlock();
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                concluir(idProduto, saldo, qtd, status != STATUS_ROLLED_BACK);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Reserva todos os itens ou nenhum (participação com vários produtos gravada pela fila).
+     * Trava as listras envolvidas em ordem crescente, confere todos os saldos e só então desconta.
+     *
+     * @param qtdPorProduto quantidade por ID de produto.
+     * @return true se reservou tudo, false se algum produto não tinha saldo (nada é reservado).
+     * @throws IllegalStateException se não houver transação ativa ou algum produto não estiver em memória.
+     */
+    public boolean reservarTodos(Map<Integer, Integer> qtdPorProduto) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("A reserva de estoque precisa de uma transação ativa.");
+        }
+        Map<Integer, Saldo> itens = new HashMap<>();
+        for (Integer idProduto : qtdPorProduto.keySet()) {
+            Saldo saldo = saldos.get(idProduto);
+            if (saldo == null) {
+                throw new IllegalStateException("O estoque do produto " + idProduto + " não está em memória.");
+            }
+            itens.put(idProduto, saldo);
+        }
+
+        int[] listras = qtdPorProduto.keySet().stream()
+                .mapToInt(id -> Math.floorMod(id, TRAVAS))
+                .distinct()
+                .sorted()
+                .toArray();
+        for (int listra : listras) {
+            travas[listra].lock();
+        }
+        try {
+            for (Map.Entry<Integer, Integer> item : qtdPorProduto.entrySet()) {
+                if (itens.get(item.getKey()).disponivel < item.getValue()) {
+                    return false;
+                }
+            }
+            for (Map.Entry<Integer, Integer> item : qtdPorProduto.entrySet()) {
+                Saldo saldo = itens.get(item.getKey());
+                saldo.disponivel -= item.getValue();
+                saldo.emVoo += item.getValue();
+            }
+        } finally {
+            for (int i = listras.length - 1; i >= 0; i--) {
+                travas[listras[i]].unlock();
+            }
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                qtdPorProduto.forEach((idProduto, qtd) ->
+                        concluir(idProduto, itens.get(idProduto), qtd, status != STATUS_ROLLED_BACK));
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Reserva todos os itens ou nenhum direto no banco, para ofertas fora da memória.
+     * UPDATE condicional por produto em ordem crescente de ID (mesma ordem de travas em todas as transações),
+     * descontando também os pedidos pendentes; se algum produto não tiver saldo, devolve os já reservados.
+     * O estoque total da oferta fica por conta de quem chama.
+     *
+     * @param qtdPorProduto quantidade por ID de produto.
+     * @return true se reservou tudo, false se algum produto não tinha saldo (nada fica reservado).
+     */
+    public boolean reservarNoBanco(Map<Integer, Integer> qtdPorProduto) {
+        List<Map.Entry<Integer, Integer>> reservados = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> item : new TreeMap<>(qtdPorProduto).entrySet()) {
+            if (jdbc.update(RESERVAR_SQL, item.getValue(), item.getKey(), item.getValue()) == 0) {
+                jdbc.batchUpdate("UPDATE produtos SET qtd_estoque = qtd_estoque + ? WHERE id = ?", reservados.stream()
+                        .map(r -> new Object[]{r.getValue(), r.getKey()})
+                        .toList());
+                return false;
+            }
+            reservados.add(item);
+        }
+        return true;
+    }
+
+    /**
+     * Aplica no banco os pedidos pendentes, em transações de até estoque.reserva.lote-descarga pedidos.
+     * Os deltas são somados por produto e por oferta antes dos UPDATEs.
+     * Defina no application.properties:
+     * estoque.reserva.intervalo-descarga=1000
+     */
+    @Scheduled(fixedDelayString = "${estoque.reserva.intervalo-descarga:1000}")
+    public void descarregar() {
+        tempoDescarga.record(() -> {
+            Integer aplicados;
+            do {
+                aplicados = transacao.execute(status -> descarregarLote());
+            } while (aplicados != null && aplicados == loteDescarga);
+        });
+        liberarEncerradas();
+    }
+
+    /**
+     * Mantém os saldos em dia quando o estoque muda fora das reservas (edição da oferta, importação).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarCatalogo(CatalogoAlteradoEvent evento) {
+        if (evento.agregado() == CatalogoAlteradoEvent.Agregado.OFERTA) {
+            recarregarOfertas(evento.ids() == null ? ofertasCarregadas : evento.ids());
+        }
+    }
+
+    /**
+     * Mantém os saldos em dia quando o estoque muda por participação gravada direto no banco ou por liberação.
+     * A própria descarga é ignorada: ela troca pedidos pendentes por qtd_estoque sem mudar o saldo em memória,
+     * e recarregar aqui descontaria de novo as reservas confirmadas durante a leitura.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarEstoque(EstoqueAlteradoEvent evento) {
+        if (evento.origem() != EstoqueAlteradoEvent.Origem.DESCARGA) {
+            recarregarOfertas(evento.ofertas());
+        }
+    }
+
+    /**
+     * Publicação que saiu de EXPOSICAO: se a oferta não tiver outra publicação em EXPOSICAO,
+     * seus produtos saem da memória e as próximas reservas voltam ao UPDATE condicional.
+     * Os pedidos pendentes continuam sendo descarregados e o UPDATE já os desconta.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarEtapa(EtapaAlteradaEvent evento) {
+        if (evento.anterior() != Etapa.EXPOSICAO || ofertasCarregadas.isEmpty()) {
+            return;
+        }
+        List<Integer> encerrada = jdbc.queryForList("SELECT p.id_oferta FROM publicacoes p WHERE p.id = ?"
+                + " AND NOT EXISTS (SELECT 1 FROM publicacoes o WHERE o.id_oferta = p.id_oferta AND o.etapa = ?)",
+                Integer.class, evento.idPublicacao(), Etapa.EXPOSICAO.name());
+        for (Integer idOferta : encerrada) {
+            if (ofertasCarregadas.remove(idOferta)) {
+                ofertasEncerradas.add(idOferta);
+            }
+        }
+        liberarEncerradas();
+    }
+
+    @PreDestroy
+    void encerrar() {
+        try {
+            descarregar();
+        } catch (RuntimeException e) {
+            // Os pedidos continuam pendentes no banco e são aplicados na próxima inicialização
+            log.warn("Não foi possível descarregar as reservas de estoque ao encerrar: {}", e.getMessage());
+        }
+    }
+
+    private int descarregarLote() {
+        List<Integer> pedidos = new ArrayList<>();
+        Map<Integer, Integer> porProduto = new TreeMap<>(); // Ordenado por ID: trava as linhas sempre na mesma ordem
+        Map<Integer, Integer> porOferta = new TreeMap<>();
+        jdbc.query("SELECT pe.id, pe.id_produto, pr.id_oferta, pe.qtd_produto FROM pedidos pe"
+                + " JOIN produtos pr ON pr.id = pe.id_produto"
+                + " WHERE pe.estoque_pendente = TRUE ORDER BY pe.id LIMIT ? FOR UPDATE", (RowCallbackHandler) rs -> {
+            pedidos.add(rs.getInt(1));
+            porProduto.merge(rs.getInt(2), rs.getInt(4), Integer::sum);
+            porOferta.merge(rs.getInt(3), rs.getInt(4), Integer::sum);
+        }, loteDescarga);
+        if (pedidos.isEmpty()) {
+            return 0;
+        }
+
+        jdbc.batchUpdate("UPDATE produtos SET qtd_estoque = qtd_estoque - ? WHERE id = ?", deltas(porProduto));
+        jdbc.batchUpdate("UPDATE ofertas SET qtd_estoque_total = qtd_estoque_total - ? WHERE id = ?", deltas(porOferta));
+        jdbc.batchUpdate("UPDATE pedidos SET estoque_pendente = FALSE WHERE id = ?",
+                pedidos.stream().map(id -> new Object[]{id}).toList());
+
+        eventos.publishEvent(EstoqueAlteradoEvent.de(porOferta.keySet(), EstoqueAlteradoEvent.Origem.DESCARGA));
+        log.debug("Descarga de estoque: {} pedidos, {} produtos.", pedidos.size(), porProduto.size());
+        return pedidos.size();
+    }
+
+    /**
+     * Remove da memória os produtos das ofertas encerradas. Produto com reserva de transação ainda aberta
+     * fica para a próxima descarga: o pedido dela ainda não está gravado e o UPDATE condicional não o veria.
+     */
+    private void liberarEncerradas() {
+        for (Integer idOferta : ofertasEncerradas) {
+            boolean liberou = true;
+            for (Integer idProduto : jdbc.queryForList("SELECT id FROM produtos WHERE id_oferta = ?", Integer.class, idOferta)) {
+                ReentrantLock trava = trava(idProduto);
+                trava.lock();
+                try {
+                    Saldo saldo = saldos.get(idProduto);
+                    if (saldo != null && saldo.emVoo > 0) {
+                        liberou = false;
+                    } else {
+                        saldos.remove(idProduto);
+                    }
+                } finally {
+                    trava.unlock();
+                }
+            }
+            if (liberou) {
+                ofertasEncerradas.remove(idOferta);
+            }
+        }
+    }
+
+    private void concluir(Integer idProduto, Saldo saldo, int qtd, boolean confirmada) {
+        ReentrantLock trava = trava(idProduto);
+        trava.lock();
+        try {
+            saldo.emVoo -= qtd;
+            if (confirmada) {
+                saldo.confirmados += qtd;
+            } else {
+                saldo.disponivel += qtd; // Transação desfeita: devolve a reserva
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Recarrega só as ofertas que já têm saldo em memória.
+     */
+    private void recarregarOfertas(Collection<Integer> ofertas) {
+        List<Integer> carregadas = ofertas.stream().filter(ofertasCarregadas::contains).toList();
+        if (!carregadas.isEmpty()) {
+            recarregar(" WHERE p.id_oferta IN (" + marcadores(carregadas.size()) + ")", carregadas.toArray());
+        }
+    }
+
+    /**
+     * Lê os saldos do banco e ajusta os valores em memória.
+     * Reserva confirmada entre a marca e a leitura é descontada outra vez: no pior caso
+     * o saldo fica menor que o real até a próxima recarga, nunca maior.
+     */
+    private void recarregar(String filtro, Object... args) {
+        Map<Integer, Long> marcas = new HashMap<>();
+        saldos.forEach((id, saldo) -> marcas.put(id, saldo.confirmados));
+
+        jdbc.query(SALDO_SQL + filtro, (RowCallbackHandler) rs -> {
+            int idProduto = rs.getInt(1);
+            int saldoBanco = rs.getInt(2);
+
+            Saldo novo = new Saldo();
+            novo.disponivel = saldoBanco;
+            Saldo saldo = saldos.putIfAbsent(idProduto, novo);
+            if (saldo == null) {
+                return;
+            }
+            ReentrantLock trava = trava(idProduto);
+            trava.lock();
+            try {
+                long confirmadosDepois = saldo.confirmados - marcas.getOrDefault(idProduto, 0L);
+                saldo.disponivel = saldoBanco - saldo.emVoo - (int) confirmadosDepois;
+            } finally {
+                trava.unlock();
+            }
+        }, args);
+    }
+
+    private ReentrantLock trava(Integer idProduto) {
+        return travas[Math.floorMod(idProduto, TRAVAS)];
+    }
+
+    private static List<Object[]> deltas(Map<Integer, Integer> qtdPorId) {
+        return qtdPorId.entrySet().stream()
+                .map(e -> new Object[]{e.getValue(), e.getKey()})
+                .toList();
+    }
+
+    private static String marcadores(int quantidade) {
+        return String.join(", ", Collections.nCopies(quantidade, "?"));
+    }
+}
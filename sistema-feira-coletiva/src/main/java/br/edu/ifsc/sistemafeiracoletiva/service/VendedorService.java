@@ -1,17 +1,24 @@
 package br.edu.ifsc.sistemafeiracoletiva.service;
 
+import br.edu.ifsc.sistemafeiracoletiva.dto.PaginaOutputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.dto.ResumoOfertasVendedorDTO;
 import br.edu.ifsc.sistemafeiracoletiva.dto.VendedorInputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.dto.VendedorOutputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.dto.VendedorSuasOfertasOutputDTO;
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.Cliente;
 import br.edu.ifsc.sistemafeiracoletiva.model.domain.Vendedor;
+import br.edu.ifsc.sistemafeiracoletiva.repository.VendedorOfertaResumoProjection;
 import br.edu.ifsc.sistemafeiracoletiva.repository.VendedorRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -24,24 +31,37 @@ public class VendedorService {
     @Autowired
     private VendedorRepository repository;
 
+    @Autowired
+    private PaginacaoKeyset paginacao;
+
+    @Autowired
+    private ApplicationEventPublisher eventos; // Avisa o snapshot do catálogo
+
     /**
-     * Lista todos os vendedores, convertendo as entidades para DTOs antes de devolver.
+     * Lista os vendedores em páginas ordenadas por ID (paginação por cursor).
+     * @param after cursor devolvido na página anterior (nulo para a primeira página).
+     * @param limit tamanho da página (limitado por paginacao.tamanho-maximo).
      */
-    public List<VendedorOutputDTO> listar() {
-        return repository.findAll()
-                .stream()
-                .map(this::toOutputDTO)
-                .collect(Collectors.toList());
+    public PaginaOutputDTO<VendedorOutputDTO> listar(String after, Integer limit) {
+        return paginacao.paginar(after, limit, repository::findByIdGreaterThanOrderByIdAsc,
+                Vendedor::getId, this::toOutputDTO);
     }
 
     /**
-     * Lista todos os vendedores e suas ofertas, convertendo as entidades para DTOs antes de devolver.
+     * Lista os vendedores e suas ofertas em páginas ordenadas por ID (paginação por cursor).
+     * Duas consultas por página, qualquer que seja o tamanho: os IDs da página e as ofertas desses vendedores.
+     * @param after cursor devolvido na página anterior (nulo para a primeira página).
+     * @param limit tamanho da página (limitado por paginacao.tamanho-maximo).
+     * @param statusDisponibilidade filtra as ofertas pela disponibilidade (nulo = todas).
      */
-    public List<VendedorSuasOfertasOutputDTO> listarVendedoresOfertas() {
-        return repository.findAll()
-                .stream()
-                .map(this::toOutputMoreOfertasDTO)
-                .collect(Collectors.toList());
+    public PaginaOutputDTO<VendedorSuasOfertasOutputDTO> listarVendedoresOfertas(String after, Integer limit,
+                                                                              Boolean statusDisponibilidade) {
+        PaginaOutputDTO<Integer> ids = paginacao.paginar(after, limit, repository::findIdsByIdGreaterThan,
+                Function.identity(), Function.identity());
+        List<VendedorSuasOfertasOutputDTO> itens = ids.getItens().isEmpty()
+                ? new ArrayList<>()
+                : agruparPorVendedor(repository.findResumoOfertas(ids.getItens(), statusDisponibilidade));
+        return new PaginaOutputDTO<>(itens, ids.getProximoCursor());
     }
 
     /**
@@ -53,11 +73,13 @@ public class VendedorService {
     }
 
     /**
-     * Busca um vendedor por ID e devolve um Optional<VendedorSuasOfertasOutputDTO>.
+     * Busca um vendedor por ID e devolve um Optional<VendedorSuasOfertasOutputDTO> (uma consulta).
+     * @param statusDisponibilidade filtra as ofertas pela disponibilidade (nulo = todas).
      */
-    public Optional<VendedorSuasOfertasOutputDTO> buscarPorIdVendedoresOfertas(int id) {
-        return repository.findById(id)
-                .map(this::toOutputMoreOfertasDTO);
+    public Optional<VendedorSuasOfertasOutputDTO> buscarPorIdVendedoresOfertas(int id, Boolean statusDisponibilidade) {
+        return agruparPorVendedor(repository.findResumoOfertas(List.of(id), statusDisponibilidade))
+                .stream()
+                .findFirst();
     }
 
     /**
@@ -86,6 +108,7 @@ public class VendedorService {
             vendedor.setId(id); // Atualização
         }
         Vendedor salvo = repository.save(vendedor);
+        eventos.publishEvent(new CatalogoAlteradoEvent(CatalogoAlteradoEvent.Agregado.VENDEDOR, salvo.getId()));
         return toOutputDTO(salvo);
     }
 
@@ -97,10 +120,13 @@ public class VendedorService {
                 .map(this::toEntity)
                 .collect(Collectors.toList());
 
-        return repository.saveAll(vendedores)
+        List<VendedorOutputDTO> salvos = repository.saveAll(vendedores)
                 .stream()
                 .map(this::toOutputDTO)
                 .collect(Collectors.toList());
+        eventos.publishEvent(CatalogoAlteradoEvent.emLote(CatalogoAlteradoEvent.Agregado.VENDEDOR,
+                salvos.stream().map(VendedorOutputDTO::getId).toList()));
+        return salvos;
     }
 
     /**
@@ -108,6 +134,7 @@ public class VendedorService {
      */
     public void deletar(int id) {
         repository.deleteById(id);
+        eventos.publishEvent(new CatalogoAlteradoEvent(CatalogoAlteradoEvent.Agregado.VENDEDOR, id));
     }
 
     /**
@@ -125,13 +152,19 @@ public class VendedorService {
     }
 
     /**
-     * Converte uma entidade Vendedor para DTO de saída com orfetas.
+     * Monta os DTOs de vendedor com ofertas a partir das linhas planas (ordenadas por vendedor).
      */
-    private VendedorSuasOfertasOutputDTO toOutputMoreOfertasDTO(Vendedor v) {
-        List<ResumoOfertasVendedorDTO> os = v.getOfertas().stream()
-                .map(o -> new ResumoOfertasVendedorDTO(o.getId(), o.getTitulo(), o.getStatusDisponibilidade()))
-                .collect(Collectors.toList());
-        return new VendedorSuasOfertasOutputDTO(v.getId(), v.getNome(), os);
+    private List<VendedorSuasOfertasOutputDTO> agruparPorVendedor(List<VendedorOfertaResumoProjection> linhas) {
+        Map<Integer, VendedorSuasOfertasOutputDTO> vendedores = new LinkedHashMap<>();
+        for (VendedorOfertaResumoProjection linha : linhas) {
+            VendedorSuasOfertasOutputDTO vendedor = vendedores.computeIfAbsent(linha.getVendedorId(),
+                    id -> new VendedorSuasOfertasOutputDTO(id, linha.getVendedorNome(), new ArrayList<>()));
+            if (linha.getOfertaId() != null) { // Vendedor sem ofertas vem com as colunas de oferta nulas
+                vendedor.getOfertas().add(new ResumoOfertasVendedorDTO(
+                        linha.getOfertaId(), linha.getTitulo(), linha.getStatusDisponibilidade()));
+            }
+        }
+        return new ArrayList<>(vendedores.values());
     }
 
     /**
@@ -0,0 +1,88 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.service.CatalogoAlteradoEvent.Agregado;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador de versão em memória por agregado, incrementado a cada escrita feita pelos serviços
+ * (CatalogoAlteradoEvent e EstoqueAlteradoEvent). Usado para gerar ETags fortes: um GET condicional (If-None-Match)
+ * é respondido com 304 só comparando versões, sem consultar o banco.
+ */
+@Service
+public class VersaoAgregadoService {
+
+    /**
+     * Identifica esta execução da aplicação: após um restart os contadores voltam a zero,
+     * então ETags emitidas antes do restart não podem coincidir com as novas.
+     */
+    private final String instancia = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Agregado, AtomicLong> versoes = new EnumMap<>(Agregado.class);
+
+    public VersaoAgregadoService() {
+        for (Agregado agregado : Agregado.values()) {
+            versoes.put(agregado, new AtomicLong());
+        }
+    }
+
+    /**
+     * Incrementa a versão depois do commit e depois do snapshot do catálogo ser atualizado,
+     * para que uma ETag nova nunca seja emitida junto com o conteúdo antigo.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarCatalogo(CatalogoAlteradoEvent evento) {
+        versoes.get(evento.agregado()).incrementAndGet();
+    }
+
+    /**
+     * Estoque alterado muda o JSON das ofertas (e das publicações que as exibem).
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarEstoque(EstoqueAlteradoEvent evento) {
+        versoes.get(Agregado.OFERTA).incrementAndGet();
+    }
+
+    /**
+     * ETag das respostas de ofertas (ofertas e produtos, vendedor e categorias exibidos nelas).
+     */
+    public String etagOfertas() {
+        return etag(Agregado.OFERTA, Agregado.VENDEDOR, Agregado.CATEGORIA);
+    }
+
+    /**
+     * ETag das respostas de publicações (publicação, oferta embutida e local de retirada).
+     */
+    public String etagPublicacoes() {
+        return etag(Agregado.PUBLICACAO, Agregado.OFERTA, Agregado.VENDEDOR, Agregado.CATEGORIA, Agregado.LOCAL_DE_RETIRADA);
+    }
+
+    /**
+     * ETag das respostas de categorias.
+     */
+    public String etagCategorias() {
+        return etag(Agregado.CATEGORIA);
+    }
+
+    /**
+     * Monta a ETag forte ("instancia-v1.v2...") com as versões dos agregados informados.
+     */
+    public String etag(Agregado... agregados) {
+        StringBuilder etag = new StringBuilder("\"").append(instancia).append('-');
+        for (int i = 0; i < agregados.length; i++) {
+            if (i > 0) {
+                etag.append('.');
+            }
+            etag.append(versoes.get(agregados[i]).get());
+        }
+        return etag.append('"').toString();
+    }
+}
@@ -0,0 +1,43 @@
+package br.edu.ifsc.sistemafeiracoletiva.config;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de encode e matches do BCrypt para valores de security.bcrypt.custo,
+ * usado para escolher o custo pelo tempo de login aceitável.
+ * Rodar (ver pom.xml): org.openjdk.jmh.Main BCryptCustoAdaptavelEncoderBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BCryptCustoAdaptavelEncoderBenchmark {
+
+    private static final String SENHA = "senha-do-benchmark";
+
+    @Param({"8", "10", "12", "14"})
+    public int custo;
+
+    private BCryptCustoAdaptavelEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void preparar() {
+        encoder = new BCryptCustoAdaptavelEncoder(custo);
+        hash = encoder.encode(SENHA);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(SENHA);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(SENHA, hash);
+    }
+}
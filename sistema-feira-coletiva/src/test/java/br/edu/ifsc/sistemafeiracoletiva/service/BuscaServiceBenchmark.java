@@ -0,0 +1,97 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.dto.BuscaOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tempo de uma busca no índice em memória (meta: bem abaixo de 1 ms), por tamanho do catálogo.
+ * O índice é montado sem banco, com produtos gerados a partir de um vocabulário fixo.
+ * Rodar (ver pom.xml): org.openjdk.jmh.Main BuscaServiceBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BuscaServiceBenchmark {
+
+    private static final String[] PALAVRAS = {
+            "maçã", "tomate", "alface", "cenoura", "batata", "cebola", "banana", "laranja", "queijo", "mel",
+            "orgânico", "colonial", "caseiro", "fresco", "integral", "cereja", "fuji", "gala", "crioulo", "doce"
+    };
+
+    @Param({"1000", "10000", "50000"})
+    public int produtos;
+
+    private BuscaService service;
+
+    @Setup
+    public void preparar() {
+        Random aleatorio = new Random(11);
+        List<Categoria> categorias = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            Categoria c = new Categoria();
+            c.setId(i);
+            c.setNome("Categoria " + PALAVRAS[i]);
+            categorias.add(c);
+        }
+        List<Produto> lista = new ArrayList<>();
+        Oferta oferta = null;
+        for (int i = 1; i <= produtos; i++) {
+            if (i % 5 == 1) { // Cinco produtos por oferta, vinte ofertas por vendedor
+                Vendedor vendedor = new Vendedor();
+                vendedor.setId(i / 100 + 1);
+                vendedor.setNome("Vendedor " + vendedor.getId());
+                oferta = new Oferta(palavras(aleatorio, 2), palavras(aleatorio, 6), vendedor);
+                oferta.setId(i / 5 + 1);
+            }
+            Produto p = new Produto(palavras(aleatorio, 2), categorias.get(aleatorio.nextInt(categorias.size())),
+                    UnidadeDeMedida.values()[i % UnidadeDeMedida.values().length], 1.0, BigDecimal.TEN, 10);
+            p.setId(i);
+            p.setOferta(oferta);
+            lista.add(p);
+        }
+        service = new BuscaService();
+        service.carregar(lista);
+    }
+
+    /**
+     * Um termo curto, que casa por prefixo com vários termos indexados.
+     */
+    @Benchmark
+    public BuscaOutputDTO prefixo() {
+        return service.buscar("ca", null, null, null, null);
+    }
+
+    /**
+     * Dois termos que precisam casar no mesmo produto.
+     */
+    @Benchmark
+    public BuscaOutputDTO doisTermos() {
+        return service.buscar("maca fuji", null, null, null, null);
+    }
+
+    /**
+     * Sem texto, só com filtro: todos os produtos passam pela contagem das facetas.
+     */
+    @Benchmark
+    public BuscaOutputDTO semTexto() {
+        return service.buscar("", null, "UN", null, null);
+    }
+
+    private static String palavras(Random aleatorio, int quantidade) {
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < quantidade; i++) {
+            texto.append(i == 0 ? "" : " ").append(PALAVRAS[aleatorio.nextInt(PALAVRAS.length)]);
+        }
+        return texto.toString();
+    }
+}
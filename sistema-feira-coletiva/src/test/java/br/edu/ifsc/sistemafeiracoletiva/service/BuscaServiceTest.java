@@ -0,0 +1,128 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.dto.BuscaOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.FacetaDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.ResultadoBuscaDTO;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Produto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Busca de produtos: acentos, prefixo, todos os termos, relevância, facetas e reindexação só da oferta alterada.
+ * As buscas filtram pelo vendedor do teste, para não depender de outros dados do banco.
+ */
+@SpringBootTest
+@Import(DadosCatalogoTeste.class)
+class BuscaServiceTest {
+
+    @Autowired
+    private BuscaService service;
+
+    @Autowired
+    private DadosCatalogoTeste dados;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void criarDados() {
+        dados.criarComProdutos("zqbusca", 4646, 10, "Maçã Fuji", "Tomate", "Tomateiro Cereja");
+        reindexar();
+    }
+
+    @AfterEach
+    void removerDados() {
+        dados.remover(List.of());
+        reindexar(); // Tira do índice os produtos removidos
+    }
+
+    @Test
+    void acentosEMaiusculasNaoImportam() {
+        assertThat(nomes(buscar("MACA"))).containsExactly("Maçã Fuji");
+        assertThat(nomes(buscar("maçã fuji"))).containsExactly("Maçã Fuji");
+    }
+
+    @Test
+    void prefixoCasaETermoExatoVemPrimeiro() {
+        BuscaOutputDTO resultado = buscar("tomate");
+
+        assertThat(nomes(resultado)).containsExactly("Tomate", "Tomateiro Cereja");
+        assertThat(resultado.getResultados().get(0).getRelevancia())
+                .isGreaterThan(resultado.getResultados().get(1).getRelevancia());
+        assertThat(nomes(buscar("tom"))).containsExactlyInAnyOrder("Tomate", "Tomateiro Cereja");
+    }
+
+    @Test
+    void todosOsTermosPrecisamCasar() {
+        assertThat(nomes(buscar("tomat cereja"))).containsExactly("Tomateiro Cereja");
+        assertThat(buscar("maca cereja").getTotal()).isZero();
+    }
+
+    @Test
+    void facetasContamTodosOsEncontrados() {
+        BuscaOutputDTO resultado = service.buscar("zqbusca", null, null, dados.vendedor.getId(), 2);
+
+        assertThat(resultado.getTotal()).isEqualTo(3);
+        assertThat(resultado.getResultados()).hasSize(2); // O limite não afeta total nem facetas
+        assertThat(resultado.getCategorias()).extracting(FacetaDTO::getValor, FacetaDTO::getRotulo, FacetaDTO::getQuantidade)
+                .containsExactly(tuple(
+                        String.valueOf(dados.categoria.getId()), "Categoria zqbusca", 3));
+        assertThat(resultado.getUnidadesMedida()).extracting(FacetaDTO::getValor, FacetaDTO::getQuantidade)
+                .containsExactly(tuple("UN", 3));
+        assertThat(resultado.getVendedores()).extracting(FacetaDTO::getRotulo, FacetaDTO::getQuantidade)
+                .containsExactly(tuple("Vendedor zqbusca", 3));
+    }
+
+    @Test
+    void alteracaoDaOfertaReindexaSeusProdutos() {
+        Integer idFuji = idProduto("Maçã Fuji");
+        Integer idTomate = idProduto("Tomate");
+        jdbc.update("UPDATE produtos SET nome = 'Pera Williams' WHERE id = ?", idFuji);
+        jdbc.update("UPDATE produtos SET qtd_estoque = 3 WHERE id = ?", idTomate);
+
+        assertThat(nomes(buscar("pera"))).isEmpty(); // O índice só muda com o evento
+
+        reindexar();
+        assertThat(buscar("fuji").getTotal()).isZero();
+        assertThat(nomes(buscar("pera"))).containsExactly("Pera Williams");
+
+        eventos.publishEvent(EstoqueAlteradoEvent.de(List.of(dados.oferta.getId()), EstoqueAlteradoEvent.Origem.PARTICIPACAO));
+        service.aguardarAtualizacoes();
+        assertThat(buscar("tomate").getResultados().get(0).getQtdEstoque()).isEqualTo(3);
+    }
+
+    private BuscaOutputDTO buscar(String texto) {
+        return service.buscar(texto, null, null, dados.vendedor.getId(), null);
+    }
+
+    private void reindexar() {
+        eventos.publishEvent(new CatalogoAlteradoEvent(CatalogoAlteradoEvent.Agregado.OFERTA, dados.oferta.getId()));
+        service.aguardarAtualizacoes();
+    }
+
+    private Integer idProduto(String nome) {
+        return dados.oferta.getProdutos().stream()
+                .filter(p -> p.getNome().equals(nome))
+                .map(Produto::getId)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static List<String> nomes(BuscaOutputDTO resultado) {
+        return resultado.getResultados().stream().map(ResultadoBuscaDTO::getNome).toList();
+    }
+}
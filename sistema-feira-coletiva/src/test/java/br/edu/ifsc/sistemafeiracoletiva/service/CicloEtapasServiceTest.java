@@ -0,0 +1,124 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.*;
+import br.edu.ifsc.sistemafeiracoletiva.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Avanço das etapas pelos prazos: exposição vencida vai para PAGAMENTO, pagamento vencido
+ * vai para FINALIZADO ou INCOMPLETO conforme as participações, e a lease impede um segundo executor.
+ * Sem @Transactional: o ciclo grava em transações próprias, então os dados são removidos ao final.
+ */
+@SpringBootTest
+@Import(DadosCatalogoTeste.class)
+class CicloEtapasServiceTest {
+
+    private static final LocalDate HOJE = LocalDate.now();
+
+    @Autowired
+    private CicloEtapasService service;
+
+    @Autowired
+    private LeaseAgendadorService leases;
+
+    @Autowired
+    private DadosCatalogoTeste dados;
+
+    @Autowired
+    private PublicacaoRepository publicacaoRepository;
+
+    @Autowired
+    private ParticipanteRepository participanteRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final List<Publicacao> publicacoes = new ArrayList<>();
+    private final List<Cliente> clientes = new ArrayList<>();
+
+    @BeforeEach
+    void criarDados() {
+        dados.criar("etapas", 4343, 10, BigDecimal.TEN);
+    }
+
+    @AfterEach
+    void removerDados() {
+        dados.remover(publicacoes.stream().map(Publicacao::getId).toList());
+        clienteRepository.deleteAll(clientes);
+    }
+
+    @Test
+    void prazosVencidosAvancamAEtapa() {
+        Publicacao paga = publicacao(HOJE.minusDays(10), HOJE.minusDays(5), Boolean.TRUE);
+        Publicacao pendente = publicacao(HOJE.minusDays(10), HOJE.minusDays(5), Boolean.FALSE);
+        Publicacao emPagamento = publicacao(HOJE.minusDays(1), HOJE.plusDays(5), Boolean.FALSE);
+        Publicacao aberta = publicacao(HOJE, HOJE.plusDays(5), null); // Último dia de exposição
+
+        service.avancar(HOJE);
+
+        assertThat(etapa(paga)).isEqualTo(Etapa.FINALIZADO);
+        assertThat(etapa(pendente)).isEqualTo(Etapa.INCOMPLETO);
+        assertThat(etapa(emPagamento)).isEqualTo(Etapa.PAGAMENTO);
+        assertThat(etapa(aberta)).isEqualTo(Etapa.EXPOSICAO);
+    }
+
+    @Test
+    void leaseDeOutraInstanciaImpedeOCiclo() {
+        Publicacao vencida = publicacao(HOJE.minusDays(3), HOJE.plusDays(5), null);
+        leases.adquirir(CicloEtapasService.LEASE, Duration.ofSeconds(1)); // Garante a linha da lease
+        jdbc.update("UPDATE leases_agendador SET dono = 'outra-instancia', expira_em = TIMESTAMPADD(MINUTE, 1, NOW(3))"
+                + " WHERE nome = ?", CicloEtapasService.LEASE);
+        try {
+            assertThat(service.avancar(HOJE)).isZero();
+            assertThat(etapa(vencida)).isEqualTo(Etapa.EXPOSICAO);
+        } finally {
+            jdbc.update("UPDATE leases_agendador SET dono = NULL WHERE nome = ?", CicloEtapasService.LEASE);
+        }
+
+        service.avancar(HOJE);
+        assertThat(etapa(vencida)).isEqualTo(Etapa.PAGAMENTO);
+    }
+
+    /**
+     * Publicação em EXPOSICAO com os prazos informados e, se statusPago não for nulo, uma participação.
+     */
+    private Publicacao publicacao(LocalDate dtFinalExposicao, LocalDate dtFinalPagamento, Boolean statusPago) {
+        Publicacao publicacao = publicacaoRepository.save(new Publicacao(dtFinalExposicao, dtFinalPagamento, dados.local, dados.oferta));
+        publicacoes.add(publicacao);
+        if (statusPago != null) {
+            Cliente cliente = new Cliente();
+            cliente.setNome("Cliente etapas " + publicacoes.size());
+            cliente.setEmail("cliente.etapas" + publicacoes.size() + "@exemplo.com");
+            cliente.setTelefone("48999990000");
+            cliente.setSenha("senha");
+            cliente = clienteRepository.save(cliente);
+            clientes.add(cliente);
+
+            Participante participante = new Participante(cliente, publicacao);
+            participante.setStatusPago(statusPago);
+            participanteRepository.save(participante);
+        }
+        return publicacao;
+    }
+
+    private Etapa etapa(Publicacao publicacao) {
+        return publicacaoRepository.findEtapaById(publicacao.getId()).orElseThrow();
+    }
+}
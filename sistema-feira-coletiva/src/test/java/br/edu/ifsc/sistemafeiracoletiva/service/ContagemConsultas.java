@@ -0,0 +1,21 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Contagem dos statements enviados ao banco pelo Hibernate, zerada a cada chamada de iniciar.
+ * O teste precisa de spring.jpa.properties.hibernate.generate_statistics=true.
+ */
+final class ContagemConsultas {
+
+    private ContagemConsultas() {
+    }
+
+    static Statistics iniciar(EntityManagerFactory entityManagerFactory) {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        return estatisticas;
+    }
+}
@@ -0,0 +1,141 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.*;
+import br.edu.ifsc.sistemafeiracoletiva.repository.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Vendedor, categoria, oferta com produtos e local de retirada gravados de verdade, para os testes
+ * sem @Transactional (o serviço testado grava em transações próprias), e a remoção de tudo ao final.
+ * Em testes @Transactional os dados são desfeitos com a transação (remover não é necessário).
+ * Nos testes: @Import(DadosCatalogoTeste.class); nos benchmarks: getAutowireCapableBeanFactory().createBean.
+ */
+@TestComponent
+class DadosCatalogoTeste {
+
+    @Autowired
+    private VendedorRepository vendedorRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private OfertaRepository ofertaRepository;
+
+    @Autowired
+    private LocalDeRetiradaRepository localDeRetiradaRepository;
+
+    @Autowired
+    private PublicacaoRepository publicacaoRepository;
+
+    @Autowired
+    private PublicacaoViewRepository publicacaoViewRepository;
+
+    @Autowired
+    private PublicacaoTotaisService totais;
+
+    @Autowired
+    private TransactionTemplate transacao;
+
+    Vendedor vendedor;
+    Categoria categoria;
+    Oferta oferta;
+    LocalDeRetirada local;
+    final List<Oferta> outrasOfertas = new ArrayList<>(); // adicionarOferta()
+    private String nome;
+
+    /**
+     * Grava os dados, todos com o nome informado ("Vendedor etapas", "Oferta etapas"...).
+     * A oferta fica disponível, com um produto por preço ("Produto A", "Produto B"...), todos com o mesmo estoque.
+     *
+     * @param rg RG do vendedor, diferente em cada classe de teste (também compõe e-mail e chave Pix).
+     */
+    void criar(String nome, int rg, int estoque, BigDecimal... precos) {
+        List<String> produtos = new ArrayList<>();
+        for (int i = 0; i < precos.length; i++) {
+            produtos.add("Produto " + (char) ('A' + i));
+        }
+        criar(nome, rg, estoque, produtos, List.of(precos));
+    }
+
+    /**
+     * Como criar(nome, rg, estoque, precos), com os nomes dos produtos informados (preço 1 cada).
+     */
+    void criarComProdutos(String nome, int rg, int estoque, String... produtos) {
+        criar(nome, rg, estoque, List.of(produtos), Collections.nCopies(produtos.length, BigDecimal.ONE));
+    }
+
+    /**
+     * Mais uma oferta do vendedor de criar() ("Oferta etapas 1", "Oferta etapas 2"...), com os produtos
+     * como em criar(nome, rg, estoque, precos).
+     */
+    Oferta adicionarOferta(boolean disponivel, int estoque, BigDecimal... precos) {
+        List<String> produtos = new ArrayList<>();
+        for (int i = 0; i < precos.length; i++) {
+            produtos.add("Produto " + (char) ('A' + i));
+        }
+        Oferta outra = novaOferta("Oferta " + nome + " " + (outrasOfertas.size() + 1), disponivel, estoque, produtos, List.of(precos));
+        outrasOfertas.add(outra);
+        return outra;
+    }
+
+    private void criar(String nome, int rg, int estoque, List<String> produtos, List<BigDecimal> precos) {
+        this.nome = nome;
+        outrasOfertas.clear();
+        vendedor = new Vendedor();
+        vendedor.setNome("Vendedor " + nome);
+        vendedor.setEmail("vendedor" + rg + "@exemplo.com");
+        vendedor.setTelefone("48999990000");
+        vendedor.setSenha("senha");
+        vendedor.setRg(rg);
+        vendedor.setCep("88000000");
+        vendedor.setChavePix("pix-" + rg);
+        vendedor = vendedorRepository.save(vendedor);
+
+        categoria = new Categoria();
+        categoria.setNome("Categoria " + nome);
+        categoria = categoriaRepository.save(categoria);
+
+        oferta = novaOferta("Oferta " + nome, true, estoque, produtos, precos);
+
+        local = new LocalDeRetirada();
+        local.setNome("Local " + nome);
+        local.setCep("88000000");
+        local = localDeRetiradaRepository.save(local);
+    }
+
+    private Oferta novaOferta(String titulo, boolean disponivel, int estoque, List<String> produtos, List<BigDecimal> precos) {
+        Oferta nova = new Oferta(titulo, "Oferta criada pelo teste", vendedor);
+        nova.setStatusDisponibilidade(disponivel);
+        for (int i = 0; i < produtos.size(); i++) {
+            nova.addProduto(new Produto(produtos.get(i), categoria, UnidadeDeMedida.UN, 1.0, precos.get(i), estoque));
+        }
+        nova.calcularQtdEstoqueTotal();
+        return ofertaRepository.save(nova);
+    }
+
+    /**
+     * Remove as publicações informadas (com participações, pedidos, view e totais) e os dados de criar().
+     * Clientes ficam por conta do teste, depois desta chamada.
+     */
+    void remover(Collection<Integer> idsPublicacao) {
+        if (!idsPublicacao.isEmpty()) {
+            transacao.executeWithoutResult(s -> publicacaoViewRepository.deleteByIdPublicacaoIn(idsPublicacao));
+            publicacaoRepository.deleteAllById(idsPublicacao); // Remove participações e pedidos em cascata
+            idsPublicacao.forEach(totais::remover);
+        }
+        outrasOfertas.forEach(o -> ofertaRepository.deleteById(o.getId()));
+        ofertaRepository.deleteById(oferta.getId()); // Remove os produtos em cascata
+        localDeRetiradaRepository.deleteById(local.getId());
+        categoriaRepository.deleteById(categoria.getId());
+        vendedorRepository.deleteById(vendedor.getId());
+    }
+}
@@ -0,0 +1,125 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Ciclo de uma Idempotency-Key: primeira execução, reenvio simultâneo e reenvio depois da resposta,
+ * reenvio com outro corpo e chave reivindicada no banco (outra instância).
+ */
+@SpringBootTest
+@Transactional // Desfaz as chaves gravadas em cada teste
+class IdempotenciaServiceTest {
+
+    private static final String ESCOPO = "POST /api/participantes ";
+
+    @Autowired
+    private IdempotenciaService service;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final String hash = hash("{\"idPublicacao\":1}");
+
+    @Test
+    void reenvioDevolveARespostaOriginal() {
+        String id = service.identificar(ESCOPO, "chave-reenvio");
+        assertThat(service.buscarOuIniciar(id, hash)).isEmpty(); // Primeira requisição executa
+
+        byte[] corpo = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+        service.concluir(id, hash, new IdempotenciaService.Resposta(201, "application/json", "/api/participantes/1", corpo));
+
+        Optional<IdempotenciaService.Resposta> reenvio = service.buscarOuIniciar(id, hash);
+        assertThat(reenvio).isPresent();
+        assertThat(reenvio.get().status()).isEqualTo(201);
+        assertThat(reenvio.get().corpo()).isEqualTo(corpo);
+    }
+
+    @Test
+    void reenvioDuranteAExecucaoRecebeConflito() {
+        String id = service.identificar(ESCOPO, "chave-em-andamento");
+        assertThat(service.buscarOuIniciar(id, hash)).isEmpty();
+
+        assertStatus(() -> service.buscarOuIniciar(id, hash), HttpStatus.CONFLICT);
+
+        service.liberar(id); // Erro interno: a chave pode ser usada de novo
+        assertThat(service.buscarOuIniciar(id, hash)).isEmpty();
+    }
+
+    @Test
+    void chaveEmAndamentoEmOutraInstanciaRecebeConflito() {
+        String id = service.identificar(ESCOPO, "chave-outra-instancia");
+        assertThat(service.buscarOuIniciar(id, hash)).isEmpty();
+
+        // A linha com status 0 está no banco, visível para qualquer instância (nada fica em memória)
+        assertThat(jdbc.queryForObject("SELECT status FROM chaves_idempotencia WHERE id = ?", Integer.class, id)).isZero();
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(service, "registros")).doesNotContainKey(id);
+        assertStatus(() -> service.buscarOuIniciar(id, hash), HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void chaveAbandonadaEmAndamentoPodeSerAssumida() {
+        String id = service.identificar(ESCOPO, "chave-abandonada");
+        assertThat(service.buscarOuIniciar(id, hash)).isEmpty();
+
+        // Instância que caiu no meio da requisição: a linha fica em andamento além de idempotencia.em-andamento-max
+        jdbc.update("UPDATE chaves_idempotencia SET criada_em = ? WHERE id = ?", LocalDateTime.now().minusHours(1), id);
+
+        assertThat(service.buscarOuIniciar(id, hash)).isEmpty();
+        assertStatus(() -> service.buscarOuIniciar(id, hash), HttpStatus.CONFLICT); // Reivindicada de novo
+    }
+
+    @Test
+    void mesmaChaveComOutroCorpoERecusada() {
+        String id = service.identificar(ESCOPO, "chave-outro-corpo");
+        service.buscarOuIniciar(id, hash);
+        service.concluir(id, hash, new IdempotenciaService.Resposta(201, "application/json", null, new byte[0]));
+
+        String outro = hash("{\"idPublicacao\":2}");
+        assertStatus(() -> service.buscarOuIniciar(id, outro), HttpStatus.UNPROCESSABLE_ENTITY);
+
+        ((Map<?, ?>) ReflectionTestUtils.getField(service, "registros")).remove(id); // Também com a resposta lida do banco
+        assertStatus(() -> service.buscarOuIniciar(id, outro), HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(service.buscarOuIniciar(id, hash)).isPresent();
+    }
+
+    @Test
+    void respostaForaDaMemoriaELidaDoBanco() {
+        String id = service.identificar(ESCOPO, "chave-banco");
+        service.buscarOuIniciar(id, hash);
+        service.concluir(id, hash, new IdempotenciaService.Resposta(201, "application/json", null, new byte[0]));
+
+        ((Map<?, ?>) ReflectionTestUtils.getField(service, "registros")).remove(id); // Simula reinício da aplicação
+
+        assertThat(service.buscarOuIniciar(id, hash)).get().extracting(IdempotenciaService.Resposta::status).isEqualTo(201);
+    }
+
+    @Test
+    void mesmaChaveEmOutroEscopoEOutraOperacao() {
+        assertThat(service.identificar(ESCOPO, "chave")).isNotEqualTo(service.identificar("POST /api/ofertas ", "chave"));
+    }
+
+    private String hash(String corpo) {
+        return service.hashCorpo(corpo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertStatus(Runnable chamada, HttpStatus status) {
+        assertThatThrownBy(chamada::run)
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode()).isEqualTo(status));
+    }
+}
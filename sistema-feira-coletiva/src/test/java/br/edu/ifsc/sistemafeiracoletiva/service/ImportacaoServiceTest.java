@@ -0,0 +1,145 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.dto.ErroImportacaoDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.ImportacaoOutputDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Importação em massa por CSV: campos entre aspas, erros informados por linha, um commit por bloco
+ * (tamanho-bloco=2, para que o arquivo ocupe vários blocos) e limite de tamanho do arquivo.
+ */
+@SpringBootTest(properties = {"importacao.tamanho-bloco=2", "importacao.tamanho-maximo=4096"})
+@Import(DadosCatalogoTeste.class)
+class ImportacaoServiceTest {
+
+    private static final String CABECALHO = "nome,idCategoria,unidadeMedida,medida,preco,qtdEstoque,idOferta";
+
+    @Autowired
+    private ImportacaoService service;
+
+    @Autowired
+    private DadosCatalogoTeste dados;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void criarDados() {
+        dados.criar("importacao", 4747, 1); // Oferta sem produtos: recebe os importados
+    }
+
+    @AfterEach
+    void removerDados() {
+        dados.remover(List.of()); // Remove também os produtos importados, em cascata
+    }
+
+    @Test
+    void camposCsvComAspasEAspasEscapadas() {
+        assertThat(ImportacaoService.lerCamposCsv("a, b ,c")).containsExactly("a", "b", "c");
+        assertThat(ImportacaoService.lerCamposCsv("\"Alface, crespa\",UN")).containsExactly("Alface, crespa", "UN");
+        assertThat(ImportacaoService.lerCamposCsv("\"Queijo \"\"colonial\"\"\",1")).containsExactly("Queijo \"colonial\"", "1");
+        assertThat(ImportacaoService.lerCamposCsv("a,,\"\"")).containsExactly("a", "", "");
+    }
+
+    @Test
+    void aspasNaoFechadasSaoRecusadas() {
+        assertThatThrownBy(() -> ImportacaoService.lerCamposCsv("\"Alface,UN"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("aspas");
+    }
+
+    @Test
+    void errosSaoInformadosPorLinha() throws Exception {
+        ImportacaoOutputDTO resultado = importar(
+                CABECALHO,
+                linha("Alface", "UN", "2.50"),
+                linha("Cenoura", "LITRO", "3.00"),
+                "Batata," + dados.categoria.getId() + ",UN,1",
+                "\"Beterraba," + dados.categoria.getId() + ",UN,1,1,10," + dados.oferta.getId(),
+                "",
+                linha("Ab", "UN", "1.00"));
+
+        assertThat(resultado.getStatus()).isEqualTo("CONCLUIDA");
+        assertThat(resultado.getLinhasLidas()).isEqualTo(5); // Cabeçalho e linha em branco não contam
+        assertThat(resultado.getLinhasImportadas()).isEqualTo(1);
+        assertThat(resultado.getLinhasComErro()).isEqualTo(4);
+        assertThat(resultado.getErros()).extracting(ErroImportacaoDTO::getLinha).containsExactly(3L, 4L, 5L, 7L);
+        assertThat(resultado.getErros().get(0).getMensagem()).contains("Unidade de medida inválida");
+        assertThat(resultado.getErros().get(1).getMensagem()).contains("esperados 7 campos, encontrados 4");
+        assertThat(resultado.getErros().get(2).getMensagem()).contains("aspas não fechadas");
+        assertThat(resultado.getErros().get(3).getMensagem()).contains("entre 3 e 100 caracteres");
+        assertThat(nomesImportados()).containsExactly("Alface");
+    }
+
+    @Test
+    void cadaBlocoEGravadoEmUmaTransacao() throws Exception {
+        ImportacaoOutputDTO resultado = importar(
+                CABECALHO,
+                linha("\"Alface, crespa\"", "UN", "2.50"),
+                linha("\"Queijo \"\"colonial\"\"\"", "UN", "30.00"),
+                linha("Cenoura", "KG", "4.00"),
+                linha("Batata", "KG", "100000000000"), // Válido no DTO, recusado pelo banco (preço com 10 dígitos)
+                linha("Beterraba", "KG", "5.00"));
+
+        // Blocos: linhas 2-3 (gravado), 4-5 (desfeito inteiro) e 6 (gravado)
+        assertThat(resultado.getStatus()).isEqualTo("CONCLUIDA");
+        assertThat(resultado.getLinhasImportadas()).isEqualTo(3);
+        assertThat(resultado.getErros())
+                .extracting(ErroImportacaoDTO::getLinha, e -> e.getMensagem().startsWith("Bloco não gravado"))
+                .containsExactly(tuple(4L, true), tuple(5L, true));
+        assertThat(nomesImportados()).containsExactlyInAnyOrder("Alface, crespa", "Queijo \"colonial\"", "Beterraba");
+    }
+
+    @Test
+    void arquivoMaiorQueOLimiteERecusado() {
+        byte[] arquivo = (CABECALHO + "\n" + linha("Alface", "UN", "2.50") + "\n").repeat(100).getBytes(StandardCharsets.UTF_8);
+
+        assertThat(arquivo.length).isGreaterThan(4096);
+        assertThatThrownBy(() -> service.iniciar(ImportacaoService.Tipo.PRODUTOS, "text/csv", new ByteArrayInputStream(arquivo)))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode()).isEqualTo(HttpStatus.CONTENT_TOO_LARGE));
+        assertThat(nomesImportados()).isEmpty();
+    }
+
+    /**
+     * Inicia a importação de produtos e espera ela terminar (processada em segundo plano).
+     */
+    private ImportacaoOutputDTO importar(String... linhas) throws InterruptedException {
+        byte[] arquivo = String.join("\n", linhas).getBytes(StandardCharsets.UTF_8);
+        String id = service.iniciar(ImportacaoService.Tipo.PRODUTOS, "text/csv", new ByteArrayInputStream(arquivo)).getId();
+
+        long limite = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+        ImportacaoOutputDTO importacao = service.buscarPorId(id).orElseThrow();
+        while (importacao.getConcluidaEm() == null && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+            importacao = service.buscarPorId(id).orElseThrow();
+        }
+        return importacao;
+    }
+
+    private String linha(String nome, String unidade, String preco) {
+        return String.join(",", nome, String.valueOf(dados.categoria.getId()), unidade, "1", preco, "10",
+                String.valueOf(dados.oferta.getId()));
+    }
+
+    private List<String> nomesImportados() {
+        return jdbc.queryForList("SELECT nome FROM produtos WHERE id_oferta = ?", String.class, dados.oferta.getId());
+    }
+}
@@ -0,0 +1,75 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Produto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validação dos pedidos de uma participação: varredura da lista de produtos por linha
+ * (caminho anterior) contra o IndiceProdutos montado uma vez por participação.
+ * Rodar (ver pom.xml): org.openjdk.jmh.Main IndiceProdutosBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndiceProdutosBenchmark {
+
+    @Param({"10", "50", "100", "500"})
+    public int produtos;
+
+    @Param({"1", "10", "50"})
+    public int linhas;
+
+    private List<Produto> lista;
+    private Integer[] pedidos;
+
+    @Setup
+    public void preparar() {
+        lista = new ArrayList<>();
+        for (int i = 1; i <= produtos; i++) {
+            Produto p = new Produto();
+            p.setId(i * 2);
+            p.setNome("Produto " + i);
+            lista.add(p);
+        }
+        Random aleatorio = new Random(7);
+        Collections.shuffle(lista, aleatorio); // Produtos da oferta não chegam ordenados por ID
+        pedidos = new Integer[linhas];
+        for (int i = 0; i < linhas; i++) {
+            pedidos[i] = lista.get(aleatorio.nextInt(produtos)).getId();
+        }
+    }
+
+    /**
+     * Um stream().filter() na lista de produtos por linha do pedido.
+     */
+    @Benchmark
+    public long varredura() {
+        long soma = 0;
+        for (Integer id : pedidos) {
+            soma += lista.stream().filter(p -> p.getId().equals(id)).findFirst().orElseThrow().getId();
+        }
+        return soma;
+    }
+
+    /**
+     * Monta o índice (inclusive a ordenação) e busca cada linha, como em ParticipanteService.
+     */
+    @Benchmark
+    public long indexado() {
+        IndiceProdutos indice = IndiceProdutos.de(lista);
+        long soma = 0;
+        for (Integer id : pedidos) {
+            soma += indice.buscar(id).getId();
+        }
+        return soma;
+    }
+}
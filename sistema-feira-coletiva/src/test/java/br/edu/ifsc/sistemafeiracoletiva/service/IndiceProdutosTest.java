@@ -0,0 +1,43 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Produto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Índice de produtos usado na validação dos pedidos da participação.
+ */
+class IndiceProdutosTest {
+
+    @Test
+    void buscaPorIdEmListaDesordenada() {
+        List<Produto> lista = produtos(50);
+        Collections.shuffle(lista, new Random(42));
+
+        IndiceProdutos indice = IndiceProdutos.de(lista);
+
+        assertThat(indice.tamanho()).isEqualTo(50);
+        for (Produto p : lista) {
+            assertThat(indice.buscar(p.getId())).isSameAs(p);
+        }
+        assertThat(indice.buscar(1)).isNull(); // IDs dos produtos de teste são pares
+        assertThat(indice.buscar(null)).isNull();
+    }
+
+    private List<Produto> produtos(int quantidade) {
+        List<Produto> lista = new ArrayList<>();
+        for (int i = 1; i <= quantidade; i++) {
+            Produto p = new Produto();
+            p.setId(i * 2);
+            p.setNome("Produto " + i);
+            lista.add(p);
+        }
+        return lista;
+    }
+}
@@ -0,0 +1,49 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Cliente;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verificação de um JWT válido com e sem o cache de tokens verificados.
+ * maxEntradasCache = 0 desliga o cache: toda chamada faz o parse e o HMAC.
+ * Rodar (ver pom.xml): org.openjdk.jmh.Main JwtServiceBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    @Param({"0", "10000"})
+    public int maxEntradasCache;
+
+    private JwtService service;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        service = new JwtService();
+        ReflectionTestUtils.setField(service, "jwtSecret", "chave_do_benchmark_com_mais_de_32_caracteres");
+        ReflectionTestUtils.setField(service, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(service, "maxEntradasCache", maxEntradasCache);
+        service.inicializar();
+
+        Cliente cliente = new Cliente();
+        cliente.setId(1);
+        cliente.setNome("Cliente benchmark");
+        cliente.setEmail("cliente.benchmark@exemplo.com");
+        token = service.generateToken(cliente);
+    }
+
+    @Benchmark
+    public Optional<Claims> verificarToken() {
+        return service.verificarToken(token);
+    }
+}
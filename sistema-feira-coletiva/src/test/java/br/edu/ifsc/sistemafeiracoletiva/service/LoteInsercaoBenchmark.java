@@ -0,0 +1,92 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.SistemaFeiraColetivaApplication;
+import br.edu.ifsc.sistemafeiracoletiva.dto.CategoriaInputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Categoria;
+import br.edu.ifsc.sistemafeiracoletiva.repository.CategoriaRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Linhas/s no cadastro de 10 mil categorias: um INSERT por linha (flush a cada save, como era com IDENTITY)
+ * contra o salvarTodos com INSERTs agrupados (IDs por @TableGenerator + hibernate.jdbc.batch_size).
+ * As transações são desfeitas: nada fica no banco.
+ * Sobe a aplicação com o banco de testes (mesma configuração dos testes @SpringBootTest).
+ * Rodar (ver pom.xml): org.openjdk.jmh.Main LoteInsercaoBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(LoteInsercaoBenchmark.LINHAS) // Resultado em linhas/s
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoteInsercaoBenchmark {
+
+    static final int LINHAS = 10_000;
+
+    private ConfigurableApplicationContext contexto;
+    private CategoriaService categoriaService;
+    private CategoriaRepository categoriaRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate transacao;
+    private List<CategoriaInputDTO> dtos;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = SpringApplication.run(SistemaFeiraColetivaApplication.class, "--spring.main.web-application-type=none");
+        categoriaService = contexto.getBean(CategoriaService.class);
+        categoriaRepository = contexto.getBean(CategoriaRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(contexto.getBean(EntityManagerFactory.class));
+        transacao = contexto.getBean(TransactionTemplate.class);
+
+        dtos = new ArrayList<>();
+        for (int i = 0; i < LINHAS; i++) {
+            CategoriaInputDTO dto = new CategoriaInputDTO();
+            dto.setNome("Categoria benchmark " + i);
+            dtos.add(dto);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    /**
+     * Um save e um flush por linha: um INSERT (e uma ida ao banco) por categoria.
+     */
+    @Benchmark
+    public void umInsertPorLinha() {
+        transacao.executeWithoutResult(status -> {
+            for (CategoriaInputDTO dto : dtos) {
+                Categoria categoria = new Categoria();
+                categoria.setNome(dto.getNome());
+                categoriaRepository.save(categoria);
+                entityManager.flush();
+            }
+            status.setRollbackOnly();
+        });
+    }
+
+    /**
+     * Cadastro em lote do CategoriaService: INSERTs agrupados em lotes de hibernate.jdbc.batch_size.
+     */
+    @Benchmark
+    public void salvarTodos() {
+        transacao.executeWithoutResult(status -> {
+            categoriaService.salvarTodos(dtos);
+            entityManager.flush();
+            status.setRollbackOnly();
+        });
+    }
+}
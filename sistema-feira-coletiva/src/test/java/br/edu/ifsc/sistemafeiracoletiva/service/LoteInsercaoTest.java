@@ -0,0 +1,56 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.dto.CategoriaInputDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cadastro em lote com INSERTs agrupados (IDs por @TableGenerator + hibernate.jdbc.batch_size).
+ * As linhas/s antes e depois são medidas no LoteInsercaoBenchmark.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional // Desfaz os dados criados em cada teste
+class LoteInsercaoTest {
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void salvarTodosAgrupaOsInserts() {
+        int linhas = 500;
+        Statistics estatisticas = ContagemConsultas.iniciar(entityManagerFactory);
+
+        categoriaService.salvarTodos(categorias(linhas));
+        entityManager.flush();
+
+        // Com IDENTITY seria um INSERT por linha; com lotes de 50 são ~10 execuções (mais as reservas de IDs)
+        assertThat(estatisticas.getPrepareStatementCount()).isLessThan(linhas / 10);
+    }
+
+    private List<CategoriaInputDTO> categorias(int quantidade) {
+        List<CategoriaInputDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            CategoriaInputDTO dto = new CategoriaInputDTO();
+            dto.setNome("Categoria lote " + i);
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,25 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Normalização do texto indexado e buscado pelo BuscaService.
+ */
+class NormalizadorTextoTest {
+
+    @Test
+    void removeAcentosEPassaParaMinusculas() {
+        assertThat(NormalizadorTexto.normalizar("Maçã AÇAÍ Pêssego")).isEqualTo("maca acai pessego");
+        assertThat(NormalizadorTexto.normalizar(null)).isEmpty();
+    }
+
+    @Test
+    void quebraEmTermosSemPalavrasVazias() {
+        assertThat(NormalizadorTexto.termos("Doce de Leite com Coco, 500g")).containsExactly("doce", "leite", "coco", "500g");
+        assertThat(NormalizadorTexto.termos("  Pão-de-queijo  ")).containsExactly("pao", "queijo");
+        assertThat(NormalizadorTexto.termos("de da com")).isEmpty();
+        assertThat(NormalizadorTexto.termos(null)).isEmpty();
+    }
+}
@@ -0,0 +1,90 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.dto.OfertaOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Oferta;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que o catálogo de ofertas disponíveis continua sendo lido em uma única consulta,
+ * sem carregar vendedor, produtos e categorias de forma lazy: a contagem é a mesma com 2 e com 20 ofertas.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(DadosCatalogoTeste.class)
+@Transactional // Desfaz os dados criados em cada teste
+class OfertaServiceConsultasTest {
+
+    private static final int POUCAS_OFERTAS = 2;
+    private static final int MUITAS_OFERTAS = 20;
+    private static final BigDecimal[] PRECOS = {BigDecimal.TEN, BigDecimal.TEN, BigDecimal.TEN}; // 3 produtos por oferta
+
+    @Autowired
+    private OfertaService service;
+
+    @Autowired
+    private DadosCatalogoTeste dados;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void listarOfertasDisponiveisUsaUmaConsulta() {
+        dados.criar("consultas", 2020, 5, PRECOS);
+        dados.adicionarOferta(false, 5, PRECOS); // Indisponível: fica fora da listagem
+
+        long comPoucas = contarConsultas(POUCAS_OFERTAS);
+        long comMuitas = contarConsultas(MUITAS_OFERTAS);
+
+        assertThat(comPoucas).isEqualTo(1);
+        assertThat(comMuitas).isEqualTo(comPoucas);
+    }
+
+    /**
+     * Completa as ofertas do vendedor até a quantidade informada, lista o catálogo e confere o resultado.
+     * @return statements executados na listagem.
+     */
+    private long contarConsultas(int ofertas) {
+        while (1 + dados.outrasOfertas.size() < ofertas) {
+            dados.adicionarOferta(true, 5, PRECOS);
+        }
+        entityManager.flush();
+        entityManager.clear(); // Nada em cache: a consulta do serviço precisa ir ao banco
+
+        Statistics estatisticas = ContagemConsultas.iniciar(entityManagerFactory);
+        Map<Integer, OfertaOutputDTO> porId = service.listarOfertasDisponiveis().stream()
+                .collect(Collectors.toMap(OfertaOutputDTO::getId, Function.identity()));
+        long consultas = estatisticas.getPrepareStatementCount();
+
+        List<Oferta> criadas = new ArrayList<>(dados.outrasOfertas);
+        criadas.add(dados.oferta);
+        for (Oferta oferta : criadas) {
+            if (oferta.getStatusDisponibilidade()) {
+                assertThat(porId.get(oferta.getId()).getProdutos()).hasSize(PRECOS.length)
+                        .allSatisfy(p -> assertThat(p.getCategoria().getNome()).isEqualTo("Categoria consultas"));
+                assertThat(porId.get(oferta.getId()).getVendedor().getNome()).isEqualTo("Vendedor consultas");
+            } else {
+                assertThat(porId).doesNotContainKey(oferta.getId());
+            }
+        }
+        return consultas;
+    }
+}
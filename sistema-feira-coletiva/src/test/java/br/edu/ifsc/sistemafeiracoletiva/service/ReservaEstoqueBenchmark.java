@@ -0,0 +1,116 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.SistemaFeiraColetivaApplication;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Produto;
+import br.edu.ifsc.sistemafeiracoletiva.repository.ProdutoRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Participação reservando estoque em memória (reservar / reservarTodos) contra o UPDATE condicional
+ * no banco (ProdutoRepository.reservarEstoque), cada uma na sua transação.
+ * As transações são desfeitas: o estoque volta ao saldo inicial e a medição não esgota os produtos.
+ * Sobe a aplicação com o banco de testes (mesma configuração dos testes @SpringBootTest) e a reserva em memória ligada.
+ * Rodar (ver pom.xml): org.openjdk.jmh.Main ReservaEstoqueBenchmark -t 8 (threads disputando os mesmos produtos)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReservaEstoqueBenchmark {
+
+    private static final int ESTOQUE = 1_000_000;
+
+    @Param({"1", "5"})
+    public int produtosPorParticipacao;
+
+    private ConfigurableApplicationContext contexto;
+    private ReservaEstoqueService reservaEstoque;
+    private ProdutoRepository produtoRepository;
+    private TransactionTemplate transacao;
+
+    private DadosCatalogoTeste dados;
+    private List<Integer> idsProdutos;
+    private Map<Integer, Integer> pedidos;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = SpringApplication.run(SistemaFeiraColetivaApplication.class,
+                "--spring.main.web-application-type=none", "--estoque.reserva.em-memoria=true");
+        reservaEstoque = contexto.getBean(ReservaEstoqueService.class);
+        produtoRepository = contexto.getBean(ProdutoRepository.class);
+        transacao = contexto.getBean(TransactionTemplate.class);
+
+        dados = contexto.getAutowireCapableBeanFactory().createBean(DadosCatalogoTeste.class); // Mesmos dados dos testes
+        BigDecimal[] precos = new BigDecimal[produtosPorParticipacao];
+        Arrays.fill(precos, BigDecimal.ONE);
+        dados.criar("benchmark", 4545, ESTOQUE, precos);
+
+        idsProdutos = dados.oferta.getProdutos().stream().map(Produto::getId).toList();
+        pedidos = new LinkedHashMap<>();
+        idsProdutos.forEach(id -> pedidos.put(id, 1));
+        reservaEstoque.carregarOferta(dados.oferta.getId());
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        try {
+            dados.remover(List.of());
+        } finally {
+            contexto.close();
+        }
+    }
+
+    /**
+     * Um produto por vez, como na participação gravada direto (ParticipanteService).
+     */
+    @Benchmark
+    public boolean reservar() {
+        return Boolean.TRUE.equals(transacao.execute(status -> {
+            boolean reservou = true;
+            for (Integer idProduto : idsProdutos) {
+                reservou &= reservaEstoque.reservar(idProduto, 1);
+            }
+            status.setRollbackOnly();
+            return reservou;
+        }));
+    }
+
+    /**
+     * Todos os produtos de uma vez, como na fila de participações (FilaParticipacaoService).
+     */
+    @Benchmark
+    public boolean reservarTodos() {
+        return Boolean.TRUE.equals(transacao.execute(status -> {
+            boolean reservou = reservaEstoque.reservarTodos(pedidos);
+            status.setRollbackOnly();
+            return reservou;
+        }));
+    }
+
+    /**
+     * Caminho do banco: UPDATE ... WHERE qtd_estoque >= qtd por produto, que trava a linha até o fim da transação.
+     */
+    @Benchmark
+    public boolean updateCondicional() {
+        return Boolean.TRUE.equals(transacao.execute(status -> {
+            boolean reservou = true;
+            for (Integer idProduto : idsProdutos) {
+                reservou &= produtoRepository.reservarEstoque(idProduto, 1) == 1;
+            }
+            status.setRollbackOnly();
+            return reservou;
+        }));
+    }
+}
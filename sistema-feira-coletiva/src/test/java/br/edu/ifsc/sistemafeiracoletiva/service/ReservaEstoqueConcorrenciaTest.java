@@ -0,0 +1,293 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.dto.ParticipanteInputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.PedidoInputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.PublicacaoTotaisOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.TicketParticipacaoOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.TotalProdutoPublicacaoOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.*;
+import br.edu.ifsc.sistemafeiracoletiva.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Várias participações simultâneas disputando o mesmo estoque: nenhuma pode vender além do saldo.
+ * Roda nos dois caminhos de reserva: em memória (publicação em EXPOSICAO, ligada aqui com estoque.reserva.em-memoria)
+ * e UPDATE condicional no banco (a vazão de cada um é medida no ReservaEstoqueBenchmark). Também cobre a fila
+ * de participações nos dois caminhos, a saída da oferta da memória e a devolução do estoque das participações não pagas.
+ * Sem @Transactional: cada participação precisa da sua própria transação, então os dados
+ * são gravados de verdade e removidos ao final.
+ */
+@SpringBootTest(properties = "estoque.reserva.em-memoria=true")
+@Import(DadosCatalogoTeste.class)
+class ReservaEstoqueConcorrenciaTest {
+
+    private static final int ESTOQUE = 100;
+    private static final int PARTICIPACOES = 300;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private ParticipanteService service;
+
+    @Autowired
+    private ReservaEstoqueService reservaEstoque;
+
+    @Autowired
+    private FilaParticipacaoService filaParticipacao;
+
+    @Autowired
+    private PublicacaoTotaisService totais;
+
+    @Autowired
+    private LiberacaoEstoqueService liberacaoEstoque;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private DadosCatalogoTeste dados;
+
+    @Autowired
+    private OfertaRepository ofertaRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private PublicacaoRepository publicacaoRepository;
+
+    @Autowired
+    private ParticipanteRepository participanteRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    private Oferta oferta;
+    private Publicacao publicacao;
+    private List<Produto> produtos;
+    private List<Cliente> clientes;
+
+    @BeforeEach
+    void criarDados() {
+        // Dois produtos com o mesmo saldo: os pedidos chegam em ordens diferentes para provocar deadlock
+        dados.criar("concorrência", 4242, ESTOQUE, BigDecimal.TEN, BigDecimal.ONE);
+        oferta = dados.oferta;
+        produtos = oferta.getProdutos();
+
+        publicacao = publicacaoRepository.save(new Publicacao(
+                LocalDate.now().plusDays(7), LocalDate.now().plusDays(14), dados.local, oferta));
+
+        clientes = new ArrayList<>();
+        for (int i = 0; i < PARTICIPACOES; i++) {
+            Cliente c = new Cliente();
+            c.setNome("Cliente concorrência " + i);
+            c.setEmail("cliente.concorrencia" + i + "@exemplo.com");
+            c.setTelefone("48999990000");
+            c.setSenha("senha");
+            clientes.add(c);
+        }
+        clientes = clienteRepository.saveAll(clientes);
+    }
+
+    @AfterEach
+    void removerDados() {
+        dados.remover(List.of(publicacao.getId()));
+        clienteRepository.deleteAll(clientes);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = Etapa.class, names = {"EXPOSICAO", "PAGAMENTO"})
+    void participacoesSimultaneasNaoVendemAlemDoEstoque(Etapa etapa) throws Exception {
+        publicacao.setEtapa(etapa);
+        publicacao = publicacaoRepository.save(publicacao);
+
+        AtomicInteger aceitas = new AtomicInteger();
+        AtomicInteger recusadas = new AtomicInteger();
+        List<Throwable> inesperados = new CopyOnWriteArrayList<>();
+        Produto a = produtos.get(0);
+        Produto b = produtos.get(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int i = 0; i < PARTICIPACOES; i++) {
+            boolean invertido = i % 2 == 1;
+            ParticipanteInputDTO dto = new ParticipanteInputDTO(clientes.get(i).getId(), publicacao.getId(), List.of(
+                    new PedidoInputDTO(invertido ? b.getId() : a.getId(), 1),
+                    new PedidoInputDTO(invertido ? a.getId() : b.getId(), 1)));
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                try {
+                    service.criarParticipacao(dto);
+                    aceitas.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    recusadas.incrementAndGet(); // Estoque esgotado
+                } catch (Throwable e) {
+                    inesperados.add(e);
+                }
+                return null;
+            }));
+        }
+
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        reservaEstoque.descarregar(); // Aplica no banco as reservas feitas em memória
+
+        assertThat(inesperados).isEmpty(); // Nem deadlock nem violação de integridade
+        assertThat(aceitas.get()).isEqualTo(ESTOQUE);
+        assertThat(recusadas.get()).isEqualTo(PARTICIPACOES - ESTOQUE);
+        assertThat(produtoRepository.findById(a.getId()).orElseThrow().getQtdEstoque()).isZero();
+        assertThat(produtoRepository.findById(b.getId()).orElseThrow().getQtdEstoque()).isZero();
+        assertThat(ofertaRepository.findById(oferta.getId()).orElseThrow().getQtdEstoqueTotal()).isZero();
+        assertThat(participanteRepository.findByPublicacaoIdAndIdGreaterThanOrderByIdAsc(
+                publicacao.getId(), 0, Limit.of(PARTICIPACOES))).hasSize(ESTOQUE);
+        assertTotaisDasParticipacoesAceitas();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void filaAlocaOEstoqueEmOrdemDeChegada(boolean emMemoria) throws Exception {
+        ReflectionTestUtils.setField(reservaEstoque, "emMemoria", emMemoria);
+        try {
+            alocarPelaFila();
+        } finally {
+            ReflectionTestUtils.setField(reservaEstoque, "emMemoria", true);
+        }
+    }
+
+    @Test
+    void ofertaSaiDaMemoriaQuandoAPublicacaoDeixaAExposicao() {
+        Produto a = produtos.get(0);
+        service.criarParticipacao(new ParticipanteInputDTO(clientes.get(0).getId(), publicacao.getId(),
+                List.of(new PedidoInputDTO(a.getId(), 1))));
+        assertThat(reservaEstoque.controla(a.getId())).isTrue();
+
+        jdbc.update("UPDATE publicacoes SET etapa = ? WHERE id = ?", Etapa.PAGAMENTO.name(), publicacao.getId());
+        reservaEstoque.aoAlterarEtapa(new EtapaAlteradaEvent(publicacao.getId(), Etapa.EXPOSICAO, Etapa.PAGAMENTO));
+        assertThat(reservaEstoque.controla(a.getId())).isFalse();
+
+        // Pedido ainda pendente: o UPDATE condicional já o desconta e não vende a última unidade de novo
+        service.criarParticipacao(new ParticipanteInputDTO(clientes.get(1).getId(), publicacao.getId(),
+                List.of(new PedidoInputDTO(a.getId(), ESTOQUE - 1))));
+        assertThatThrownBy(() -> service.criarParticipacao(new ParticipanteInputDTO(clientes.get(2).getId(),
+                publicacao.getId(), List.of(new PedidoInputDTO(a.getId(), 1)))))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        reservaEstoque.descarregar();
+        assertThat(produtoRepository.findById(a.getId()).orElseThrow().getQtdEstoque()).isZero();
+    }
+
+    private void alocarPelaFila() throws Exception {
+        Produto a = produtos.get(0);
+        Produto b = produtos.get(1);
+        List<String> ids = new ArrayList<>();
+
+        for (int i = 0; i < PARTICIPACOES; i++) {
+            ParticipanteInputDTO dto = new ParticipanteInputDTO(clientes.get(i).getId(), publicacao.getId(), List.of(
+                    new PedidoInputDTO(a.getId(), 1), new PedidoInputDTO(b.getId(), 1)));
+            ids.add(filaParticipacao.enfileirar(dto).getId());
+        }
+
+        List<TicketParticipacaoOutputDTO> tickets = new ArrayList<>();
+        long limite = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(2);
+        for (String id : ids) {
+            TicketParticipacaoOutputDTO ticket = filaParticipacao.buscarPorId(id).orElseThrow();
+            while ("AGUARDANDO".equals(ticket.getStatus()) && System.currentTimeMillis() < limite) {
+                Thread.sleep(20);
+                ticket = filaParticipacao.buscarPorId(id).orElseThrow();
+            }
+            tickets.add(ticket);
+        }
+        reservaEstoque.descarregar();
+
+        // Quem chegou primeiro leva o estoque; os demais são recusados
+        assertThat(tickets.subList(0, ESTOQUE)).allSatisfy(t -> {
+            assertThat(t.getStatus()).isEqualTo("CONCLUIDA");
+            assertThat(t.getIdParticipante()).isNotNull();
+        });
+        assertThat(tickets.subList(ESTOQUE, PARTICIPACOES)).allSatisfy(t -> assertThat(t.getStatus()).isEqualTo("RECUSADA"));
+        assertThat(produtoRepository.findById(a.getId()).orElseThrow().getQtdEstoque()).isZero();
+        assertThat(ofertaRepository.findById(oferta.getId()).orElseThrow().getQtdEstoqueTotal()).isZero();
+        assertTotaisDasParticipacoesAceitas();
+    }
+
+    @Test
+    void participacoesNaoPagasDevolvemOEstoque() {
+        Produto a = produtos.get(0);
+        Produto b = produtos.get(1);
+        int participacoes = 10;
+        int pagas = 4;
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < participacoes; i++) {
+            ids.add(service.criarParticipacao(new ParticipanteInputDTO(clientes.get(i).getId(), publicacao.getId(), List.of(
+                    new PedidoInputDTO(a.getId(), 2), new PedidoInputDTO(b.getId(), 1)))).getId());
+            if (i == participacoes / 2) {
+                reservaEstoque.descarregar(); // Metade dos pedidos já descontada do banco, metade ainda pendente
+            }
+        }
+        for (int i = 0; i < pagas; i++) {
+            service.registrarPagamento(ids.get(i));
+        }
+        jdbc.update("UPDATE publicacoes SET etapa = ? WHERE id = ?", Etapa.INCOMPLETO.name(), publicacao.getId());
+
+        Object tamanhoPagina = ReflectionTestUtils.getField(liberacaoEstoque, "tamanhoPagina");
+        ReflectionTestUtils.setField(liberacaoEstoque, "tamanhoPagina", 4); // Várias páginas
+        try {
+            assertThat(liberacaoEstoque.liberarPublicacao(publicacao.getId())).isTrue();
+        } finally {
+            ReflectionTestUtils.setField(liberacaoEstoque, "tamanhoPagina", tamanhoPagina);
+        }
+        reservaEstoque.descarregar();
+
+        // Só o estoque das participações pagas continua reservado
+        assertThat(produtoRepository.findById(a.getId()).orElseThrow().getQtdEstoque()).isEqualTo(ESTOQUE - 2 * pagas);
+        assertThat(produtoRepository.findById(b.getId()).orElseThrow().getQtdEstoque()).isEqualTo(ESTOQUE - pagas);
+        assertThat(ofertaRepository.findById(oferta.getId()).orElseThrow().getQtdEstoqueTotal()).isEqualTo(2 * ESTOQUE - 3 * pagas);
+        assertThat(ids).allSatisfy(id -> assertThat(participanteRepository.findById(id).orElseThrow().getStatusCancelado())
+                .isEqualTo(ids.indexOf(id) >= pagas));
+
+        PublicacaoTotaisOutputDTO t = totais.buscarPorId(publicacao.getId()).orElseThrow();
+        assertThat(t.getQtdParticipantes()).isEqualTo(pagas);
+        assertThat(t.getQtdParticipantesPagos()).isEqualTo(pagas);
+        assertThat(t.getValorTotal()).isEqualByComparingTo(t.getValorPago());
+        assertThat(t.getProdutos()).extracting(TotalProdutoPublicacaoOutputDTO::getQtdReservada)
+                .containsExactly(2 * pagas, pagas);
+    }
+
+    /**
+     * Os totais incrementados a cada participação batem com as participações aceitas (1 unidade de A e de B cada).
+     */
+    private void assertTotaisDasParticipacoesAceitas() {
+        PublicacaoTotaisOutputDTO t = totais.buscarPorId(publicacao.getId()).orElseThrow();
+        assertThat(t.getQtdParticipantes()).isEqualTo(ESTOQUE);
+        assertThat(t.getQtdParticipantesPagos()).isZero();
+        assertThat(t.getQtdProdutos()).isEqualTo(2 * ESTOQUE);
+        assertThat(t.getValorTotal()).isEqualByComparingTo(BigDecimal.valueOf(11L * ESTOQUE)); // 10 + 1 por participação
+        assertThat(t.getProdutos()).extracting(TotalProdutoPublicacaoOutputDTO::getQtdReservada)
+                .containsExactly(ESTOQUE, ESTOQUE);
+    }
+}
@@ -0,0 +1,113 @@
+package br.edu.ifsc.sistemafeiracoletiva.service;
+
+import br.edu.ifsc.sistemafeiracoletiva.dto.PaginaOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.dto.VendedorSuasOfertasOutputDTO;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Oferta;
+import br.edu.ifsc.sistemafeiracoletiva.model.domain.Vendedor;
+import br.edu.ifsc.sistemafeiracoletiva.repository.OfertaRepository;
+import br.edu.ifsc.sistemafeiracoletiva.repository.VendedorRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que a listagem de vendedores com ofertas não volta a fazer uma consulta por vendedor (N+1).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional // Desfaz os dados criados em cada teste
+class VendedorServiceConsultasTest {
+
+    private static final int VENDEDORES = 5;
+    private static final int OFERTAS_POR_VENDEDOR = 3;
+
+    @Autowired
+    private VendedorService service;
+
+    @Autowired
+    private VendedorRepository vendedorRepository;
+
+    @Autowired
+    private OfertaRepository ofertaRepository;
+
+    @Autowired
+    private PaginacaoKeyset paginacao;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void listarVendedoresOfertasUsaDuasConsultasPorPagina() {
+        List<Vendedor> vendedores = criarVendedoresComOfertas();
+        String antesDoPrimeiro = paginacao.codificarCursor(vendedores.get(0).getId() - 1);
+
+        Statistics estatisticas = ContagemConsultas.iniciar(entityManagerFactory);
+        PaginaOutputDTO<VendedorSuasOfertasOutputDTO> pagina =
+                service.listarVendedoresOfertas(antesDoPrimeiro, VENDEDORES, null);
+
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(pagina.getItens()).hasSize(VENDEDORES);
+        assertThat(pagina.getItens()).allSatisfy(v -> assertThat(v.getOfertas()).hasSize(OFERTAS_POR_VENDEDOR));
+    }
+
+    @Test
+    void listarVendedoresOfertasFiltraPorDisponibilidade() {
+        List<Vendedor> vendedores = criarVendedoresComOfertas();
+        String antesDoPrimeiro = paginacao.codificarCursor(vendedores.get(0).getId() - 1);
+
+        PaginaOutputDTO<VendedorSuasOfertasOutputDTO> pagina =
+                service.listarVendedoresOfertas(antesDoPrimeiro, VENDEDORES, true);
+
+        assertThat(pagina.getItens()).hasSize(VENDEDORES); // Vendedor continua na lista mesmo sem ofertas no filtro
+        assertThat(pagina.getItens()).allSatisfy(v -> assertThat(v.getOfertas())
+                .hasSize(1)
+                .allSatisfy(o -> assertThat(o.getDispoStatus()).isTrue()));
+    }
+
+    @Test
+    void buscarPorIdVendedoresOfertasUsaUmaConsulta() {
+        Vendedor vendedor = criarVendedoresComOfertas().get(0);
+
+        Statistics estatisticas = ContagemConsultas.iniciar(entityManagerFactory);
+        VendedorSuasOfertasOutputDTO dto = service.buscarPorIdVendedoresOfertas(vendedor.getId(), null).orElseThrow();
+
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(dto.getOfertas()).hasSize(OFERTAS_POR_VENDEDOR);
+    }
+
+    private List<Vendedor> criarVendedoresComOfertas() {
+        List<Vendedor> vendedores = new ArrayList<>();
+        for (int i = 0; i < VENDEDORES; i++) {
+            Vendedor v = new Vendedor();
+            v.setNome("Vendedor teste " + i);
+            v.setEmail("vendedor.teste" + i + "@exemplo.com");
+            v.setTelefone("48999990000");
+            v.setSenha("senha");
+            v.setRg(1000 + i);
+            v.setCep("88000000");
+            v.setChavePix("pix" + i);
+            vendedores.add(vendedorRepository.save(v));
+
+            for (int j = 0; j < OFERTAS_POR_VENDEDOR; j++) {
+                Oferta o = new Oferta("Oferta " + i + "-" + j, "Oferta criada pelo teste", v);
+                o.setStatusDisponibilidade(j == 0); // Só a primeira oferta de cada vendedor fica disponível
+                ofertaRepository.save(o);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear(); // Nada em cache: as consultas do serviço precisam ir ao banco
+        return vendedores;
+    }
+}